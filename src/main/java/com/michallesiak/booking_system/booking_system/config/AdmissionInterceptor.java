@@ -0,0 +1,74 @@
+package com.michallesiak.booking_system.booking_system.config;
+
+import com.michallesiak.booking_system.booking_system.exception.AdmissionRejectedException;
+import com.michallesiak.booking_system.booking_system.service.support.AdmissionControl;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admits or rejects booking requests before they reach a controller. Every request is charged to
+ * its client IP; only an authenticated principal is also charged to a user budget. A user id taken
+ * from a header or parameter would let any client drain someone else's budget, so anonymous
+ * requests are limited per IP alone.
+ */
+@Component
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    private final AdmissionControl admissionControl;
+    private final boolean trustForwardedFor;
+
+    public AdmissionInterceptor(AdmissionControl admissionControl,
+                                @Value("${booking.admission.trust-forwarded-for:false}") boolean trustForwardedFor) {
+        this.admissionControl = admissionControl;
+        this.trustForwardedFor = trustForwardedFor;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // ponowne wejście po zakończeniu żądania asynchronicznego (np. SSE) nie jest nowym żądaniem
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        AdmissionControl.Budget budget = isRead(request.getMethod()) ? AdmissionControl.Budget.READ : AdmissionControl.Budget.WRITE;
+        AdmissionControl.Decision decision = admissionControl.admit(clientIp(request), userId(), budget);
+        if (!decision.admitted()) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(decision.retryAfterNanos() + 999_999_999L));
+            throw new AdmissionRejectedException("Too many " + budget.name().toLowerCase() + " requests per "
+                    + decision.rejectedBy().name().toLowerCase() + ", retry in " + retryAfter + "s", retryAfter);
+        }
+        return true;
+    }
+
+    private static boolean isRead(String method) {
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (StringUtils.hasText(forwardedFor)) {
+                int comma = forwardedFor.indexOf(',');
+                return (comma < 0 ? forwardedFor : forwardedFor.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private static String userId() {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return authentication.getName();
+        }
+        return null;
+    }
+}
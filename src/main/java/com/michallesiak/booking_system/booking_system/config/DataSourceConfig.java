@@ -0,0 +1,53 @@
+package com.michallesiak.booking_system.booking_system.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+@Configuration
+@Slf4j
+public class DataSourceConfig {
+
+    /**
+     * Wraps the pooled DataSource in {@link ConcurrencyLimitedDataSource}. On by default only in
+     * virtual-thread mode, where the servlet pool no longer throttles database access.
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceConcurrencyLimiter(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+                    return bean;
+                }
+                boolean virtualThreads = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+                if (!environment.getProperty("booking.db.concurrency-limit.enabled", Boolean.class, virtualThreads)) {
+                    return bean;
+                }
+                int permits = environment.getProperty("booking.db.concurrency-limit.permits", Integer.class,
+                        environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+                long timeoutMs = environment.getProperty("booking.db.concurrency-limit.acquire-timeout-ms", Long.class, 5000L);
+                log.info("Limiting concurrent database access of {} to {} permits", beanName, permits);
+                return new ConcurrencyLimitedDataSource(dataSource, permits, timeoutMs);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder dataSourcePermitMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConcurrencyLimitedDataSource limited) {
+                Gauge.builder("booking.db.permits.available", limited, ConcurrencyLimitedDataSource::getAvailablePermits)
+                        .register(registry);
+                Gauge.builder("booking.db.permits.waiting", limited, ConcurrencyLimitedDataSource::getQueueLength)
+                        .register(registry);
+            }
+        };
+    }
+}
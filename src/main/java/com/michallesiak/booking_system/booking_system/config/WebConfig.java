@@ -0,0 +1,55 @@
+package com.michallesiak.booking_system.booking_system.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer, DisposableBean {
+
+    private final AdmissionInterceptor admissionInterceptor;
+    private final ThreadPoolTaskExecutor exportExecutor;
+    private final long exportTimeoutMs;
+
+    @Value("${booking.admission.paths:/api/appointments/**,/api/slots/**,/api/waitlist/**}")
+    private String[] admissionPaths;
+
+    public WebConfig(AdmissionInterceptor admissionInterceptor,
+                     @Value("${booking.export.timeout-ms:3600000}") long exportTimeoutMs,
+                     @Value("${booking.export.executor.threads:4}") int exportThreads,
+                     @Value("${booking.export.executor.queue-capacity:16}") int exportQueueCapacity) {
+        this.admissionInterceptor = admissionInterceptor;
+        this.exportTimeoutMs = exportTimeoutMs;
+        this.exportExecutor = new ThreadPoolTaskExecutor();
+        exportExecutor.setCorePoolSize(exportThreads);
+        exportExecutor.setMaxPoolSize(exportThreads);
+        exportExecutor.setQueueCapacity(exportQueueCapacity);
+        exportExecutor.setThreadNamePrefix("ndjson-export-");
+        exportExecutor.initialize();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionInterceptor).addPathPatterns(admissionPaths);
+    }
+
+    /**
+     * StreamingResponseBody is only returned by the NDJSON exports, so the MVC async defaults are
+     * theirs: a bounded pool of writer threads and a timeout sized for full exports instead of the
+     * container's 30 s. SSE emitters set their own timeout and do not use this executor.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(exportTimeoutMs);
+        configurer.setTaskExecutor(exportExecutor);
+    }
+
+    @Override
+    public void destroy() {
+        exportExecutor.shutdown();
+    }
+}
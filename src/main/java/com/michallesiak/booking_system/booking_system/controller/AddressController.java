@@ -2,6 +2,7 @@ package com.michallesiak.booking_system.booking_system.controller;
 
 import com.michallesiak.booking_system.booking_system.dto.AddressDto;
 import com.michallesiak.booking_system.booking_system.dto.CreateAddressRequest;
+import com.michallesiak.booking_system.booking_system.dto.CursorPage;
 import com.michallesiak.booking_system.booking_system.service.AddressService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -37,10 +38,12 @@ public class AddressController {
     }
 
     @GetMapping
-    public ResponseEntity<List<AddressDto>> getAllAddresses() {
-        log.info("REST request to get all addresses");
+    public ResponseEntity<CursorPage<AddressDto>> getAllAddresses(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("REST request to get addresses page, cursor: {}, size: {}", cursor, size);
 
-        List<AddressDto> addresses = addressService.getAllAddresses();
+        CursorPage<AddressDto> addresses = addressService.getAddressesPage(cursor, size);
         return ResponseEntity.ok(addresses);
     }
 
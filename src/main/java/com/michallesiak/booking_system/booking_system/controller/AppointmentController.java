@@ -1,17 +1,25 @@
 package com.michallesiak.booking_system.booking_system.controller;
 
 import com.michallesiak.booking_system.booking_system.dto.AppointmentDto;
+import com.michallesiak.booking_system.booking_system.dto.BulkStatusUpdateRequest;
+import com.michallesiak.booking_system.booking_system.dto.BulkStatusUpdateResponse;
 import com.michallesiak.booking_system.booking_system.dto.CreateAppointmentRequest;
+import com.michallesiak.booking_system.booking_system.dto.CreateWindowAppointmentRequest;
+import com.michallesiak.booking_system.booking_system.dto.CursorPage;
 import com.michallesiak.booking_system.booking_system.dto.UpdateAppointmentNotesRequest;
 import com.michallesiak.booking_system.booking_system.model.enums.AppointmentStatus;
 import com.michallesiak.booking_system.booking_system.service.AppointmentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -23,10 +31,20 @@ public class AppointmentController {
     private final AppointmentService appointmentService;
 
     @PostMapping
-    public ResponseEntity<AppointmentDto> createAppointment(@Valid @RequestBody CreateAppointmentRequest request) {
+    public ResponseEntity<AppointmentDto> createAppointment(
+            @Valid @RequestBody CreateAppointmentRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         log.info("REST request to create appointment for user: {}, slot: {}, service: {}",
                 request.getUserId(), request.getSlotId(), request.getServiceId());
-        AppointmentDto createdAppointment = appointmentService.createAppointment(request);
+        AppointmentDto createdAppointment = appointmentService.createAppointment(request, idempotencyKey);
+        return new ResponseEntity<>(createdAppointment, HttpStatus.CREATED);
+    }
+
+    @PostMapping("/window")
+    public ResponseEntity<AppointmentDto> createWindowAppointment(@Valid @RequestBody CreateWindowAppointmentRequest request) {
+        log.info("REST request to create window appointment for user: {}, specialist: {}, service: {} at {}",
+                request.getUserId(), request.getSpecialistId(), request.getServiceId(), request.getStartTime());
+        AppointmentDto createdAppointment = appointmentService.createWindowAppointment(request);
         return new ResponseEntity<>(createdAppointment, HttpStatus.CREATED);
     }
 
@@ -39,15 +57,29 @@ public class AppointmentController {
     }
 
     @GetMapping
-    public ResponseEntity<List<AppointmentDto>> getAllAppointments(
-            @RequestParam(required = false) AppointmentStatus status) {
-        log.info("REST request to get all appointments with status filter: {}", status);
-        List<AppointmentDto> appointments = status != null ?
-                appointmentService.getAppointmentsByStatus(status) :
-                appointmentService.getAllAppointments();
+    public ResponseEntity<CursorPage<AppointmentDto>> getAllAppointments(
+            @RequestParam(required = false) AppointmentStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("REST request to get appointments page with status filter: {}, cursor: {}, size: {}", status, cursor, size);
+        CursorPage<AppointmentDto> appointments = appointmentService.getAppointmentsPage(status, cursor, size);
         return ResponseEntity.ok(appointments);
     }
 
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAppointments(
+            @RequestParam(required = false) AppointmentStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("REST request to export appointments with status: {} between {} and {}", status, from, to);
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("Export range start must be before its end");
+        }
+
+        StreamingResponseBody body = out -> appointmentService.exportAppointments(status, from, to, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<AppointmentDto>> getAppointmentsByUser(
             @PathVariable Long userId,
@@ -84,6 +116,14 @@ public class AppointmentController {
         return ResponseEntity.ok(updatedAppointment);
     }
 
+    @PatchMapping("/status")
+    public ResponseEntity<BulkStatusUpdateResponse> updateAppointmentStatuses(@Valid @RequestBody BulkStatusUpdateRequest request) {
+        log.info("REST request to update {} appointments to status: {}", request.getIds().size(), request.getStatus());
+
+        BulkStatusUpdateResponse response = appointmentService.updateAppointmentStatuses(request.getIds(), request.getStatus());
+        return ResponseEntity.ok(response);
+    }
+
     @PatchMapping("/{id}/notes")
     public ResponseEntity<AppointmentDto> updateAppointmentNotes(
             @PathVariable Long id,
@@ -0,0 +1,63 @@
+package com.michallesiak.booking_system.booking_system.controller;
+
+import com.michallesiak.booking_system.booking_system.dto.AvailabilityRuleDto;
+import com.michallesiak.booking_system.booking_system.dto.CreateAvailabilityRuleRequest;
+import com.michallesiak.booking_system.booking_system.service.AvailabilityRuleService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/availability-rules")
+@RequiredArgsConstructor
+@Slf4j
+public class AvailabilityRuleController {
+
+    private final AvailabilityRuleService availabilityRuleService;
+
+    @PostMapping
+    public ResponseEntity<AvailabilityRuleDto> createRule(@Valid @RequestBody CreateAvailabilityRuleRequest request) {
+        log.info("REST request to create availability rule for specialist: {} on {}",
+                request.getSpecialistId(), request.getDayOfWeek());
+
+        AvailabilityRuleDto createdRule = availabilityRuleService.createRule(request);
+        return new ResponseEntity<>(createdRule, HttpStatus.CREATED);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<AvailabilityRuleDto> getRuleById(@PathVariable Long id) {
+        log.info("REST request to get availability rule with id: {}", id);
+
+        AvailabilityRuleDto rule = availabilityRuleService.getRuleById(id);
+        return ResponseEntity.ok(rule);
+    }
+
+    @GetMapping("/specialist/{specialistId}")
+    public ResponseEntity<List<AvailabilityRuleDto>> getRulesBySpecialist(@PathVariable Long specialistId) {
+        log.info("REST request to get availability rules for specialist: {}", specialistId);
+
+        List<AvailabilityRuleDto> rules = availabilityRuleService.getRulesBySpecialistId(specialistId);
+        return ResponseEntity.ok(rules);
+    }
+
+    @PatchMapping("/{id}/deactivate")
+    public ResponseEntity<AvailabilityRuleDto> deactivateRule(@PathVariable Long id) {
+        log.info("REST request to deactivate availability rule: {}", id);
+
+        AvailabilityRuleDto rule = availabilityRuleService.deactivateRule(id);
+        return ResponseEntity.ok(rule);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteRule(@PathVariable Long id) {
+        log.info("REST request to delete availability rule with id: {}", id);
+
+        availabilityRuleService.deleteRule(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -3,18 +3,26 @@ package com.michallesiak.booking_system.booking_system.controller;
 import com.michallesiak.booking_system.booking_system.dto.AvailableSlotDto;
 import com.michallesiak.booking_system.booking_system.dto.CreateAvailableSlotRequest;
 import com.michallesiak.booking_system.booking_system.dto.CreateMultipleSlotsRequest;
+import com.michallesiak.booking_system.booking_system.dto.CursorPage;
+import com.michallesiak.booking_system.booking_system.dto.SlotHoldDto;
 import com.michallesiak.booking_system.booking_system.service.AvailableSlotService;
+import com.michallesiak.booking_system.booking_system.service.SlotHoldService;
+import com.michallesiak.booking_system.booking_system.service.SlotSearchService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/slots")
@@ -23,6 +31,8 @@ import java.util.List;
 public class AvailableSlotController {
 
     private final AvailableSlotService availableSlotService;
+    private final SlotHoldService slotHoldService;
+    private final SlotSearchService slotSearchService;
 
     @PostMapping
     public ResponseEntity<AvailableSlotDto> createSlot(@Valid @RequestBody CreateAvailableSlotRequest request) {
@@ -47,6 +57,34 @@ public class AvailableSlotController {
         return new ResponseEntity<>(createdSlots, HttpStatus.CREATED);
     }
 
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportSlots(
+            @RequestParam(required = false) Long specialistId,
+            @RequestParam(required = false) Boolean booked,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("REST request to export slots for specialist: {}, booked: {}, between {} and {}", specialistId, booked, from, to);
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("Export range start must be before its end");
+        }
+
+        StreamingResponseBody body = out -> availableSlotService.exportSlots(specialistId, booked, from, to, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<AvailableSlotDto>> searchEarliestAvailableSlots(
+            @RequestParam Long serviceId,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) Integer limit) {
+        log.info("REST request to search earliest slots for service: {} in city: {} from {}, limit: {}",
+                serviceId, city, from, limit);
+
+        List<AvailableSlotDto> slots = slotSearchService.findEarliestAvailableSlots(serviceId, city, from, limit);
+        return ResponseEntity.ok(slots);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<AvailableSlotDto> getSlotById(@PathVariable Long id) {
         log.info("REST request to get slot with id: {}", id);
@@ -56,10 +94,12 @@ public class AvailableSlotController {
     }
 
     @GetMapping
-    public ResponseEntity<List<AvailableSlotDto>> getAllSlots() {
-        log.info("REST request to get all slots");
+    public ResponseEntity<CursorPage<AvailableSlotDto>> getAllSlots(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("REST request to get slots page, cursor: {}, size: {}", cursor, size);
 
-        List<AvailableSlotDto> slots = availableSlotService.getAllSlots();
+        CursorPage<AvailableSlotDto> slots = availableSlotService.getSlotsPage(cursor, size);
         return ResponseEntity.ok(slots);
     }
 
@@ -76,20 +116,38 @@ public class AvailableSlotController {
     }
 
     @GetMapping("/specialist/{specialistId}/available")
-    public ResponseEntity<List<AvailableSlotDto>> getAvailableSlotsBySpecialist(@PathVariable Long specialistId) {
-        log.info("REST request to get available slots for specialist: {}", specialistId);
+    public ResponseEntity<List<AvailableSlotDto>> getAvailableSlotsBySpecialist(
+            @PathVariable Long specialistId,
+            @RequestParam(required = false) Integer minFreeMinutes) {
+        log.info("REST request to get available slots for specialist: {}, minFreeMinutes: {}", specialistId, minFreeMinutes);
 
-        List<AvailableSlotDto> slots = availableSlotService.getAvailableSlotsBySpecialistId(specialistId);
+        List<AvailableSlotDto> slots = minFreeMinutes != null ?
+                availableSlotService.getAvailableSlotsBySpecialistId(specialistId, minFreeMinutes) :
+                availableSlotService.getAvailableSlotsBySpecialistId(specialistId);
         return ResponseEntity.ok(slots);
     }
 
+    @GetMapping(value = "/specialist/{specialistId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSlotChanges(
+            @PathVariable Long specialistId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+            @RequestParam(required = false) Long lastEventId) {
+        log.info("REST request to stream slot changes for specialist: {}", specialistId);
+        // EventSource wysyła nagłówek sam przy wznowieniu, parametr służy pierwszemu połączeniu po przeładowaniu strony
+        return availableSlotService.streamSlotChanges(specialistId, lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+
     @GetMapping("/specialist/{specialistId}/date/{date}")
     public ResponseEntity<List<AvailableSlotDto>> getAvailableSlotsBySpecialistAndDate(
             @PathVariable Long specialistId,
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        log.info("REST request to get available slots for specialist: {} on date: {}", specialistId, date);
-
-        List<AvailableSlotDto> slots = availableSlotService.getAvailableSlotsBySpecialistAndDate(specialistId, date);
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Integer minFreeMinutes) {
+        log.info("REST request to get available slots for specialist: {} on date: {}, minFreeMinutes: {}",
+                specialistId, date, minFreeMinutes);
+
+        List<AvailableSlotDto> slots = minFreeMinutes != null ?
+                availableSlotService.getAvailableSlotsBySpecialistAndDate(specialistId, date, minFreeMinutes) :
+                availableSlotService.getAvailableSlotsBySpecialistAndDate(specialistId, date);
         return ResponseEntity.ok(slots);
     }
 
@@ -104,6 +162,16 @@ public class AvailableSlotController {
         return ResponseEntity.ok(slots);
     }
 
+    @PostMapping("/specialist/{specialistId}/materialize")
+    public ResponseEntity<AvailableSlotDto> materializeSlot(
+            @PathVariable Long specialistId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime) {
+        log.info("REST request to materialize slot for specialist: {} at {}", specialistId, startTime);
+
+        AvailableSlotDto slot = availableSlotService.materializeSlot(specialistId, startTime);
+        return new ResponseEntity<>(slot, HttpStatus.CREATED);
+    }
+
     @PatchMapping("/{id}/book")
     public ResponseEntity<AvailableSlotDto> markSlotAsBooked(@PathVariable Long id) {
         log.info("REST request to mark slot as booked: {}", id);
@@ -120,6 +188,25 @@ public class AvailableSlotController {
         return ResponseEntity.ok(updatedSlot);
     }
 
+    @PostMapping("/{id}/hold")
+    public ResponseEntity<SlotHoldDto> holdSlot(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Integer minutes) {
+        log.info("REST request to hold slot: {} for user: {}, minutes: {}", id, userId, minutes);
+
+        SlotHoldDto hold = slotHoldService.holdSlot(id, userId, minutes);
+        return new ResponseEntity<>(hold, HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/holds/{token}")
+    public ResponseEntity<Void> releaseHold(@PathVariable UUID token) {
+        log.info("REST request to release slot hold: {}", token);
+
+        slotHoldService.releaseHold(token);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/{id}/check-availability")
     public ResponseEntity<Boolean> checkSlotAvailability(@PathVariable Long id) {
         log.info("REST request to check availability for slot: {}", id);
@@ -137,13 +224,13 @@ public class AvailableSlotController {
     }
 
     @DeleteMapping("/specialist/{specialistId}/range")
-    public ResponseEntity<Void> deleteSlotsBySpecialistAndDateRange(
+    public ResponseEntity<Integer> deleteSlotsBySpecialistAndDateRange(
             @PathVariable Long specialistId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
         log.info("REST request to delete slots for specialist: {} between {} and {}", specialistId, start, end);
 
-        availableSlotService.deleteSlotsBySpecialistAndDateRange(specialistId, start, end);
-        return ResponseEntity.noContent().build();
+        int deleted = availableSlotService.deleteSlotsBySpecialistAndDateRange(specialistId, start, end);
+        return ResponseEntity.ok(deleted);
     }
 }
\ No newline at end of file
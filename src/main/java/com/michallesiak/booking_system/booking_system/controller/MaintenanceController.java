@@ -0,0 +1,41 @@
+package com.michallesiak.booking_system.booking_system.controller;
+
+import com.michallesiak.booking_system.booking_system.dto.SweeperStatusDto;
+import com.michallesiak.booking_system.booking_system.service.LifecycleSweeperService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/maintenance")
+@RequiredArgsConstructor
+@Slf4j
+public class MaintenanceController {
+
+    private final LifecycleSweeperService lifecycleSweeperService;
+
+    @GetMapping("/sweeper")
+    public ResponseEntity<SweeperStatusDto> getSweeperStatus() {
+        log.info("REST request to get lifecycle sweeper status");
+        return ResponseEntity.ok(lifecycleSweeperService.getStatus());
+    }
+
+    @PostMapping("/sweeper/run")
+    public ResponseEntity<SweeperStatusDto> runSweeper() {
+        log.info("REST request to run lifecycle sweeper");
+        return ResponseEntity.ok(lifecycleSweeperService.sweep());
+    }
+
+    @PostMapping("/sweeper/pause")
+    public ResponseEntity<SweeperStatusDto> pauseSweeper() {
+        log.info("REST request to pause lifecycle sweeper");
+        return ResponseEntity.ok(lifecycleSweeperService.pause());
+    }
+
+    @PostMapping("/sweeper/resume")
+    public ResponseEntity<SweeperStatusDto> resumeSweeper() {
+        log.info("REST request to resume lifecycle sweeper");
+        return ResponseEntity.ok(lifecycleSweeperService.resume());
+    }
+}
@@ -1,6 +1,7 @@
 package com.michallesiak.booking_system.booking_system.controller;
 
 import com.michallesiak.booking_system.booking_system.dto.CreateSpecialistRequest;
+import com.michallesiak.booking_system.booking_system.dto.CursorPage;
 import com.michallesiak.booking_system.booking_system.dto.SpecialistDto;
 import com.michallesiak.booking_system.booking_system.service.SpecialistService;
 import jakarta.validation.Valid;
@@ -38,13 +39,13 @@ public class SpecialistController {
     }
 
     @GetMapping
-    public ResponseEntity<List<SpecialistDto>> getAllSpecialists(
-            @RequestParam(defaultValue = "false") boolean activeOnly) {
-        log.info("REST request to get all specialists, activeOnly: {}", activeOnly);
+    public ResponseEntity<CursorPage<SpecialistDto>> getAllSpecialists(
+            @RequestParam(defaultValue = "false") boolean activeOnly,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("REST request to get specialists page, activeOnly: {}, cursor: {}, size: {}", activeOnly, cursor, size);
 
-        List<SpecialistDto> specialists = activeOnly ?
-                specialistService.getActiveSpecialists() :
-                specialistService.getAllSpecialists();
+        CursorPage<SpecialistDto> specialists = specialistService.getSpecialistsPage(activeOnly, cursor, size);
         return ResponseEntity.ok(specialists);
     }
 
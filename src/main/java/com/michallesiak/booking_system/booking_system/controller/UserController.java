@@ -2,6 +2,7 @@ package com.michallesiak.booking_system.booking_system.controller;
 
 import com.michallesiak.booking_system.booking_system.dto.UserDto;
 import com.michallesiak.booking_system.booking_system.dto.CreateUserRequest;
+import com.michallesiak.booking_system.booking_system.dto.CursorPage;
 import com.michallesiak.booking_system.booking_system.dto.ChangePasswordRequest;
 import com.michallesiak.booking_system.booking_system.service.UserService;
 import jakarta.validation.Valid;
@@ -38,10 +39,12 @@ public class UserController {
     }
 
     @GetMapping
-    public ResponseEntity<List<UserDto>> getAllUsers() {
-        log.info("REST request to get all users");
+    public ResponseEntity<CursorPage<UserDto>> getAllUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("REST request to get users page, cursor: {}, size: {}", cursor, size);
 
-        List<UserDto> users = userService.getAllUsers();
+        CursorPage<UserDto> users = userService.getUsersPage(cursor, size);
         return ResponseEntity.ok(users);
     }
 
@@ -0,0 +1,52 @@
+package com.michallesiak.booking_system.booking_system.controller;
+
+import com.michallesiak.booking_system.booking_system.dto.CreateWaitlistEntryRequest;
+import com.michallesiak.booking_system.booking_system.dto.WaitlistEntryDto;
+import com.michallesiak.booking_system.booking_system.service.WaitlistService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/waitlist")
+@RequiredArgsConstructor
+@Slf4j
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    @PostMapping
+    public ResponseEntity<WaitlistEntryDto> createEntry(@Valid @RequestBody CreateWaitlistEntryRequest request) {
+        log.info("REST request to join waitlist for user: {}, specialist: {}", request.getUserId(), request.getSpecialistId());
+
+        WaitlistEntryDto createdEntry = waitlistService.createEntry(request);
+        return new ResponseEntity<>(createdEntry, HttpStatus.CREATED);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<WaitlistEntryDto> getEntryById(@PathVariable Long id) {
+        log.info("REST request to get waitlist entry: {}", id);
+
+        return ResponseEntity.ok(waitlistService.getEntryById(id));
+    }
+
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<List<WaitlistEntryDto>> getEntriesByUserId(@PathVariable Long userId) {
+        log.info("REST request to get waitlist entries for user: {}", userId);
+
+        return ResponseEntity.ok(waitlistService.getEntriesByUserId(userId));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancelEntry(@PathVariable Long id) {
+        log.info("REST request to cancel waitlist entry: {}", id);
+
+        waitlistService.cancelEntry(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,15 @@
+package com.michallesiak.booking_system.booking_system.dto;
+
+import com.michallesiak.booking_system.booking_system.model.enums.AppointmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentStatusChange {
+    private Long appointmentId;
+    private AppointmentStatus previousStatus;
+    private AppointmentStatus status;
+}
@@ -0,0 +1,16 @@
+package com.michallesiak.booking_system.booking_system.dto;
+
+import com.michallesiak.booking_system.booking_system.model.enums.AppointmentStatus;
+import com.michallesiak.booking_system.booking_system.model.enums.StatusChangeResult;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentStatusOutcome {
+    private Long id;
+    private AppointmentStatus previousStatus;
+    private StatusChangeResult result;
+}
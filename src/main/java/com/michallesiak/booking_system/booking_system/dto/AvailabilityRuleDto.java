@@ -0,0 +1,24 @@
+package com.michallesiak.booking_system.booking_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityRuleDto {
+    private Long id;
+    private Long specialistId;
+    private DayOfWeek dayOfWeek;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private Integer slotDurationMinutes;
+    private LocalDate validFrom;
+    private LocalDate validTo;
+    private boolean active;
+}
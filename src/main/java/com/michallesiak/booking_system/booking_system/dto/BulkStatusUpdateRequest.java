@@ -0,0 +1,22 @@
+package com.michallesiak.booking_system.booking_system.dto;
+
+import com.michallesiak.booking_system.booking_system.model.enums.AppointmentStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateRequest {
+
+    @NotEmpty(message = "Appointment IDs are required")
+    private List<@NotNull Long> ids;
+
+    @NotNull(message = "Target status is required")
+    private AppointmentStatus status;
+}
@@ -0,0 +1,17 @@
+package com.michallesiak.booking_system.booking_system.dto;
+
+import com.michallesiak.booking_system.booking_system.model.enums.AppointmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateResponse {
+    private AppointmentStatus status;
+    private int updated;
+    private List<AppointmentStatusOutcome> outcomes;
+}
@@ -6,6 +6,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.UUID;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -22,4 +24,6 @@ public class CreateAppointmentRequest {
 
     @Size(max = 500, message = "Notes cannot exceed 500 characters")
     private String notes;
+
+    private UUID holdToken;
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.michallesiak.booking_system.booking_system.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateAvailabilityRuleRequest {
+
+    @NotNull(message = "Specialist ID is required")
+    private Long specialistId;
+
+    @NotNull(message = "Day of week is required")
+    private DayOfWeek dayOfWeek;
+
+    @NotNull(message = "Start time is required")
+    private LocalTime startTime;
+
+    @NotNull(message = "End time is required")
+    private LocalTime endTime;
+
+    @NotNull(message = "Slot duration is required")
+    @Min(value = 15, message = "Slot duration must be at least 15 minutes")
+    @Max(value = 480, message = "Slot duration cannot exceed 8 hours (480 minutes)")
+    private Integer slotDurationMinutes;
+
+    @NotNull(message = "Valid from date is required")
+    private LocalDate validFrom;
+
+    private LocalDate validTo;
+}
@@ -0,0 +1,36 @@
+package com.michallesiak.booking_system.booking_system.dto;
+
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateWaitlistEntryRequest {
+
+    @NotNull(message = "User ID is required")
+    private Long userId;
+
+    @NotNull(message = "Specialist ID is required")
+    private Long specialistId;
+
+    private Long serviceId;
+
+    @NotNull(message = "Date from is required")
+    @FutureOrPresent(message = "Date from cannot be in the past")
+    private LocalDate dateFrom;
+
+    @NotNull(message = "Date to is required")
+    private LocalDate dateTo;
+
+    @Min(value = 0, message = "Priority cannot be negative")
+    @Max(value = 100, message = "Priority cannot exceed 100")
+    private int priority;
+}
@@ -0,0 +1,21 @@
+package com.michallesiak.booking_system.booking_system.dto;
+
+import com.michallesiak.booking_system.booking_system.model.enums.OutboxEventType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEventDto {
+    private Long id;
+    private OutboxEventType eventType;
+    private Long aggregateId;
+    private Long specialistId;
+    private String payload;
+    private Instant createdAt;
+    private int attempt;
+}
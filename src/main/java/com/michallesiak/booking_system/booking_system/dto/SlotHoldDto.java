@@ -0,0 +1,18 @@
+package com.michallesiak.booking_system.booking_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotHoldDto {
+    private UUID token;
+    private Long slotId;
+    private Long userId;
+    private Instant expiresAt;
+}
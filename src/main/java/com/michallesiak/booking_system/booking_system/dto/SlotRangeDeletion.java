@@ -0,0 +1,17 @@
+package com.michallesiak.booking_system.booking_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotRangeDeletion {
+    private Long specialistId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private int deleted;
+}
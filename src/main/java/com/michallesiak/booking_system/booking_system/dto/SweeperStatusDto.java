@@ -0,0 +1,20 @@
+package com.michallesiak.booking_system.booking_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SweeperStatusDto {
+    private boolean enabled;
+    private boolean paused;
+    private boolean running;
+    private Instant lastRunStartedAt;
+    private Instant lastRunFinishedAt;
+    private Map<String, Long> lastRunRows;
+}
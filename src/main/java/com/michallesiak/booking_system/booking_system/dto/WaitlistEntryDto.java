@@ -0,0 +1,27 @@
+package com.michallesiak.booking_system.booking_system.dto;
+
+import com.michallesiak.booking_system.booking_system.model.enums.WaitlistStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistEntryDto {
+    private Long id;
+    private Long userId;
+    private Long specialistId;
+    private Long serviceId;
+    private LocalDate dateFrom;
+    private LocalDate dateTo;
+    private int priority;
+    private WaitlistStatus status;
+    private Long offeredSlotId;
+    private UUID offerToken;
+    private Instant offerExpiresAt;
+}
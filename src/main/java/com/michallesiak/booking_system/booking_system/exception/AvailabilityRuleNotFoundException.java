@@ -0,0 +1,11 @@
+package com.michallesiak.booking_system.booking_system.exception;
+
+public class AvailabilityRuleNotFoundException extends RuntimeException {
+    public AvailabilityRuleNotFoundException(String message) {
+        super(message);
+    }
+
+    public AvailabilityRuleNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package com.michallesiak.booking_system.booking_system.exception;
+
+public class BookingEngineBusyException extends RuntimeException {
+    public BookingEngineBusyException(String message) {
+        super(message);
+    }
+
+    public BookingEngineBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -2,8 +2,10 @@ package com.michallesiak.booking_system.booking_system.exception;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -85,6 +87,18 @@ public class GlobalExceptionHandler {
         return createErrorResponse(HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
+    @ExceptionHandler(SlotHoldNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleSlotHoldNotFoundException(SlotHoldNotFoundException ex) {
+        log.error("Slot hold not found: {}", ex.getMessage());
+        return createErrorResponse(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(AvailabilityRuleNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleAvailabilityRuleNotFoundException(AvailabilityRuleNotFoundException ex) {
+        log.error("Availability rule not found: {}", ex.getMessage());
+        return createErrorResponse(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
     @ExceptionHandler(ServiceNotFoundException.class)
     public ResponseEntity<Map<String, Object>> handleServiceNotFoundException(ServiceNotFoundException ex) {
         log.error("Service not found: {}", ex.getMessage());
@@ -115,6 +129,45 @@ public class GlobalExceptionHandler {
         return createErrorResponse(HttpStatus.CONFLICT, ex.getMessage());
     }
 
+    @ExceptionHandler(IdempotencyKeyConflictException.class)
+    public ResponseEntity<Map<String, Object>> handleIdempotencyKeyConflictException(IdempotencyKeyConflictException ex) {
+        log.error("Idempotency key conflict: {}", ex.getMessage());
+        return createErrorResponse(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(WaitlistEntryNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleWaitlistEntryNotFoundException(WaitlistEntryNotFoundException ex) {
+        log.error("Waitlist entry not found: {}", ex.getMessage());
+        return createErrorResponse(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<Map<String, Object>> handleAdmissionRejectedException(AdmissionRejectedException ex) {
+        // przy zalewie żądań log każdego odrzucenia kosztowałby więcej niż samo odrzucenie
+        log.debug("Admission rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(createErrorResponse(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage()).getBody());
+    }
+
+    @ExceptionHandler(StreamCapacityExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleStreamCapacityExceededException(StreamCapacityExceededException ex) {
+        log.error("Stream capacity exceeded: {}", ex.getMessage());
+        return createErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
+    @ExceptionHandler(BookingEngineBusyException.class)
+    public ResponseEntity<Map<String, Object>> handleBookingEngineBusyException(BookingEngineBusyException ex) {
+        log.error("Booking engine busy: {}", ex.getMessage());
+        return createErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<Map<String, Object>> handleTaskRejectedException(TaskRejectedException ex) {
+        log.error("Export capacity exceeded: {}", ex.getMessage());
+        return createErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, "Too many exports in progress, retry later");
+    }
+
     @ExceptionHandler(IllegalStateException.class)
     public ResponseEntity<Map<String, Object>> handleIllegalStateException(IllegalStateException ex) {
         log.error("Illegal state: {}", ex.getMessage());
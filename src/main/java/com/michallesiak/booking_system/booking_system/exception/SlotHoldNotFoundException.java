@@ -0,0 +1,11 @@
+package com.michallesiak.booking_system.booking_system.exception;
+
+public class SlotHoldNotFoundException extends RuntimeException {
+    public SlotHoldNotFoundException(String message) {
+        super(message);
+    }
+
+    public SlotHoldNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package com.michallesiak.booking_system.booking_system.exception;
+
+public class StreamCapacityExceededException extends RuntimeException {
+    public StreamCapacityExceededException(String message) {
+        super(message);
+    }
+
+    public StreamCapacityExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package com.michallesiak.booking_system.booking_system.exception;
+
+public class WaitlistEntryNotFoundException extends RuntimeException {
+    public WaitlistEntryNotFoundException(String message) {
+        super(message);
+    }
+
+    public WaitlistEntryNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
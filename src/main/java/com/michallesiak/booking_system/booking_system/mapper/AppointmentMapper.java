@@ -8,6 +8,8 @@ import com.michallesiak.booking_system.booking_system.model.OfferedService;
 import com.michallesiak.booking_system.booking_system.model.User;
 import com.michallesiak.booking_system.booking_system.model.enums.AppointmentStatus;
 
+import java.time.LocalDateTime;
+
 public class AppointmentMapper {
     public static AppointmentDto toDto(Appointment entity) {
         return new AppointmentDto(
@@ -20,10 +22,12 @@ public class AppointmentMapper {
         );
     }
 
-    public static Appointment toEntity(CreateAppointmentRequest request, User user, AvailableSlot slot, OfferedService service) {
+    public static Appointment toEntity(CreateAppointmentRequest request, User user, AvailableSlot slot,
+                                       LocalDateTime slotStartTime, OfferedService service) {
         Appointment appointment = new Appointment();
         appointment.setUser(user);
         appointment.setSlot(slot);
+        appointment.setSlotStartTime(slotStartTime);
         appointment.setService(service);
         appointment.setStatus(AppointmentStatus.BOOKED);
         appointment.setNotes(request.getNotes());
@@ -0,0 +1,35 @@
+package com.michallesiak.booking_system.booking_system.mapper;
+
+import com.michallesiak.booking_system.booking_system.dto.AvailabilityRuleDto;
+import com.michallesiak.booking_system.booking_system.dto.CreateAvailabilityRuleRequest;
+import com.michallesiak.booking_system.booking_system.model.AvailabilityRule;
+import com.michallesiak.booking_system.booking_system.model.Specialist;
+
+public class AvailabilityRuleMapper {
+    public static AvailabilityRuleDto toDto(AvailabilityRule entity) {
+        return new AvailabilityRuleDto(
+                entity.getId(),
+                entity.getSpecialist().getId(),
+                entity.getDayOfWeek(),
+                entity.getStartTime(),
+                entity.getEndTime(),
+                entity.getSlotDurationMinutes(),
+                entity.getValidFrom(),
+                entity.getValidTo(),
+                entity.isActive()
+        );
+    }
+
+    public static AvailabilityRule toEntity(CreateAvailabilityRuleRequest request, Specialist specialist) {
+        AvailabilityRule rule = new AvailabilityRule();
+        rule.setSpecialist(specialist);
+        rule.setDayOfWeek(request.getDayOfWeek());
+        rule.setStartTime(request.getStartTime());
+        rule.setEndTime(request.getEndTime());
+        rule.setSlotDurationMinutes(request.getSlotDurationMinutes());
+        rule.setValidFrom(request.getValidFrom());
+        rule.setValidTo(request.getValidTo());
+        rule.setActive(true);
+        return rule;
+    }
+}
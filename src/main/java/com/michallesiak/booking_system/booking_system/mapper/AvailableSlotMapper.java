@@ -4,6 +4,7 @@ import com.michallesiak.booking_system.booking_system.dto.AvailableSlotDto;
 import com.michallesiak.booking_system.booking_system.model.AvailableSlot;
 import com.michallesiak.booking_system.booking_system.dto.CreateAvailableSlotRequest;
 import com.michallesiak.booking_system.booking_system.model.Specialist;
+import com.michallesiak.booking_system.booking_system.repository.projection.SpecialistSlotView;
 
 public class AvailableSlotMapper {
     public static AvailableSlotDto toDto(AvailableSlot entity) {
@@ -16,6 +17,16 @@ public class AvailableSlotMapper {
         );
     }
 
+    public static AvailableSlotDto toDto(SpecialistSlotView view) {
+        return new AvailableSlotDto(
+                view.getId(),
+                view.getSpecialistId(),
+                view.getStartTime(),
+                view.getEndTime(),
+                view.isBooked()
+        );
+    }
+
     public static AvailableSlot toEntity(CreateAvailableSlotRequest request, Specialist specialist) {
         AvailableSlot slot = new AvailableSlot();
         slot.setSpecialist(specialist);
@@ -0,0 +1,18 @@
+package com.michallesiak.booking_system.booking_system.mapper;
+
+import com.michallesiak.booking_system.booking_system.dto.OutboxEventDto;
+import com.michallesiak.booking_system.booking_system.model.OutboxEvent;
+
+public class OutboxEventMapper {
+    public static OutboxEventDto toDto(OutboxEvent event) {
+        return new OutboxEventDto(
+                event.getId(),
+                event.getEventType(),
+                event.getAggregateId(),
+                event.getSpecialistId(),
+                event.getPayload(),
+                event.getCreatedAt(),
+                event.getAttempts() + 1
+        );
+    }
+}
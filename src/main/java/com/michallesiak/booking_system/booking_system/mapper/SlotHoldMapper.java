@@ -0,0 +1,25 @@
+package com.michallesiak.booking_system.booking_system.mapper;
+
+import com.michallesiak.booking_system.booking_system.dto.SlotHoldDto;
+import com.michallesiak.booking_system.booking_system.repository.projection.SlotHoldView;
+import com.michallesiak.booking_system.booking_system.service.support.SlotHoldTable;
+
+public class SlotHoldMapper {
+    public static SlotHoldDto toDto(SlotHoldTable.Hold hold) {
+        return new SlotHoldDto(
+                hold.token(),
+                hold.slotId(),
+                hold.userId(),
+                hold.expiresAt()
+        );
+    }
+
+    public static SlotHoldTable.Hold toHold(SlotHoldView view) {
+        return new SlotHoldTable.Hold(
+                view.getToken(),
+                view.getSlotId(),
+                view.getUserId(),
+                view.getExpiresAt()
+        );
+    }
+}
@@ -0,0 +1,38 @@
+package com.michallesiak.booking_system.booking_system.mapper;
+
+import com.michallesiak.booking_system.booking_system.dto.CreateWaitlistEntryRequest;
+import com.michallesiak.booking_system.booking_system.dto.WaitlistEntryDto;
+import com.michallesiak.booking_system.booking_system.model.OfferedService;
+import com.michallesiak.booking_system.booking_system.model.Specialist;
+import com.michallesiak.booking_system.booking_system.model.User;
+import com.michallesiak.booking_system.booking_system.model.WaitlistEntry;
+
+public class WaitlistEntryMapper {
+    public static WaitlistEntryDto toDto(WaitlistEntry entity) {
+        return new WaitlistEntryDto(
+                entity.getId(),
+                entity.getUser().getId(),
+                entity.getSpecialist().getId(),
+                entity.getService() != null ? entity.getService().getId() : null,
+                entity.getDateFrom(),
+                entity.getDateTo(),
+                entity.getPriority(),
+                entity.getStatus(),
+                entity.getOfferedSlotId(),
+                entity.getOfferToken(),
+                entity.getOfferExpiresAt()
+        );
+    }
+
+    public static WaitlistEntry toEntity(CreateWaitlistEntryRequest request, User user, Specialist specialist,
+                                         OfferedService service) {
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setUser(user);
+        entry.setSpecialist(specialist);
+        entry.setService(service);
+        entry.setDateFrom(request.getDateFrom());
+        entry.setDateTo(request.getDateTo());
+        entry.setPriority(request.getPriority());
+        return entry;
+    }
+}
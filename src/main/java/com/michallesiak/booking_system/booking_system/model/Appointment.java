@@ -6,6 +6,9 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.PartitionKey;
+
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "appointments")
@@ -18,11 +21,17 @@ public class Appointment extends BaseEntity {
     @NotNull
     private User user;
 
-    @OneToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "slot_id", nullable = false, unique = true)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "slot_id", nullable = false)
     @NotNull
     private AvailableSlot slot;
 
+    // klucz partycjonowania - kopia slot.startTime, utrzymywana przez ON UPDATE CASCADE
+    @NotNull
+    @PartitionKey
+    @Column(name = "slot_start_time", nullable = false)
+    private LocalDateTime slotStartTime;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "service_id", nullable = false)
     private OfferedService service;
@@ -5,7 +5,7 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.springframework.data.annotation.Version;
+import org.hibernate.annotations.PartitionKey;
 
 import java.time.LocalDateTime;
 
@@ -20,7 +20,9 @@ public class AvailableSlot extends BaseEntity{
     @NotNull
     private Specialist specialist;
 
+    // klucz partycji - Hibernate dokłada go do WHERE w UPDATE/DELETE encji
     @NotNull
+    @PartitionKey
     private LocalDateTime startTime;
 
     @NotNull
@@ -0,0 +1,32 @@
+package com.michallesiak.booking_system.booking_system.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "idempotency_keys")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyKey extends BaseEntity {
+    @NotNull
+    @Column(nullable = false, unique = true)
+    private String idempotencyKey;
+
+    @NotNull
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @NotNull
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String responseBody;
+
+    @NotNull
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
@@ -0,0 +1,50 @@
+package com.michallesiak.booking_system.booking_system.model;
+
+import com.michallesiak.booking_system.booking_system.model.enums.OutboxEventType;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "outbox_events")
+@Data
+@NoArgsConstructor
+public class OutboxEvent extends BaseEntity {
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private OutboxEventType eventType;
+
+    @NotNull
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    @NotNull
+    @Column(nullable = false)
+    private Long specialistId;
+
+    @NotNull
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(nullable = false)
+    private boolean parked;
+
+    private Instant nextAttemptAt;
+
+    public OutboxEvent(OutboxEventType eventType, Long aggregateId, Long specialistId, String payload) {
+        this.eventType = eventType;
+        this.aggregateId = aggregateId;
+        this.specialistId = specialistId;
+        this.payload = payload;
+    }
+}
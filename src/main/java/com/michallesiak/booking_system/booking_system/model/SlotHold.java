@@ -0,0 +1,39 @@
+package com.michallesiak.booking_system.booking_system.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "slot_holds")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotHold extends BaseEntity {
+    @NotNull
+    @Column(nullable = false, unique = true)
+    private UUID token;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "slot_id", nullable = false, unique = true)
+    @NotNull
+    private AvailableSlot slot;
+
+    @NotNull
+    @Column(name = "slot_start_time", nullable = false)
+    private LocalDateTime slotStartTime;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    @NotNull
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
@@ -0,0 +1,54 @@
+package com.michallesiak.booking_system.booking_system.model;
+
+import com.michallesiak.booking_system.booking_system.model.enums.WaitlistStatus;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Entity
+@Table(name = "waitlist_entries")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistEntry extends BaseEntity {
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @NotNull
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "specialist_id", nullable = false)
+    @NotNull
+    private Specialist specialist;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "service_id")
+    private OfferedService service;
+
+    @NotNull
+    @Column(nullable = false)
+    private LocalDate dateFrom;
+
+    @NotNull
+    @Column(nullable = false)
+    private LocalDate dateTo;
+
+    @Column(nullable = false)
+    private int priority;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private WaitlistStatus status = WaitlistStatus.ACTIVE;
+
+    private Long offeredSlotId;
+
+    private UUID offerToken;
+
+    private Instant offerExpiresAt;
+}
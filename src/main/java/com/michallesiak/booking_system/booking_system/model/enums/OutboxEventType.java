@@ -0,0 +1,11 @@
+package com.michallesiak.booking_system.booking_system.model.enums;
+
+public enum OutboxEventType {
+    APPOINTMENT_CREATED,
+    APPOINTMENT_CANCELLED,
+    APPOINTMENT_STATUS_CHANGED,
+    SLOT_BOOKED,
+    SLOT_DELETED,
+    SLOTS_DELETED,
+    WAITLIST_OFFERED
+}
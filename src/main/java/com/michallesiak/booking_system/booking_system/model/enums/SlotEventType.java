@@ -0,0 +1,19 @@
+package com.michallesiak.booking_system.booking_system.model.enums;
+
+public enum SlotEventType {
+    CREATED("slot-created"),
+    BOOKED("slot-booked"),
+    RELEASED("slot-released"),
+    DELETED("slot-deleted"),
+    RANGE_DELETED("slots-deleted");
+
+    private final String eventName;
+
+    SlotEventType(String eventName) {
+        this.eventName = eventName;
+    }
+
+    public String getEventName() {
+        return eventName;
+    }
+}
@@ -0,0 +1,8 @@
+package com.michallesiak.booking_system.booking_system.model.enums;
+
+public enum StatusChangeResult {
+    UPDATED,
+    UNCHANGED,
+    NOT_FOUND,
+    INVALID_TRANSITION
+}
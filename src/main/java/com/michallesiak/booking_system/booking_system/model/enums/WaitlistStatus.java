@@ -0,0 +1,9 @@
+package com.michallesiak.booking_system.booking_system.model.enums;
+
+public enum WaitlistStatus {
+    ACTIVE,
+    OFFERED,
+    FULFILLED,
+    EXPIRED,
+    CANCELLED
+}
@@ -1,9 +1,14 @@
 package com.michallesiak.booking_system.booking_system.repository;
 
 import com.michallesiak.booking_system.booking_system.model.Address;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-    public interface AddressRepository extends JpaRepository<Address, Long> {
+public interface AddressRepository extends JpaRepository<Address, Long> {
+
+    List<Address> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
\ No newline at end of file
@@ -1,20 +1,44 @@
 package com.michallesiak.booking_system.booking_system.repository;
 
+import com.michallesiak.booking_system.booking_system.dto.AppointmentDto;
 import com.michallesiak.booking_system.booking_system.model.Appointment;
 import com.michallesiak.booking_system.booking_system.model.enums.AppointmentStatus;
+import com.michallesiak.booking_system.booking_system.repository.projection.AppointmentStatusView;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+public interface AppointmentRepository extends JpaRepository<Appointment, Long>, AppointmentRepositoryCustom {
 
-    List<Appointment> findByUserId(Long userId);
+    // odczyty prosto do DTO - identyfikatory powiązań to kolumny FK, bez ładowania encji
+    String SELECT_DTO = "SELECT new com.michallesiak.booking_system.booking_system.dto.AppointmentDto(" +
+            "a.id, a.user.id, a.slot.id, a.service.id, a.status, a.notes) FROM Appointment a ";
 
-    List<Appointment> findByStatus(AppointmentStatus status);
+    @Query(SELECT_DTO + "WHERE a.id = :id")
+    Optional<AppointmentDto> findDtoById(@Param("id") Long id);
+
+    @Query(SELECT_DTO + "WHERE a.user.id = :userId")
+    List<AppointmentDto> findByUserId(@Param("userId") Long userId);
+
+    @Query(SELECT_DTO + "WHERE a.status = :status")
+    List<AppointmentDto> findByStatus(@Param("status") AppointmentStatus status);
+
+    @Query(SELECT_DTO + "WHERE a.id > :id ORDER BY a.id")
+    List<AppointmentDto> findByIdGreaterThanOrderByIdAsc(@Param("id") Long id, Limit limit);
+
+    @Query(SELECT_DTO + "WHERE a.status = :status AND a.id > :id ORDER BY a.id")
+    List<AppointmentDto> findByStatusAndIdGreaterThanOrderByIdAsc(@Param("status") AppointmentStatus status,
+                                                                  @Param("id") Long id, Limit limit);
 
     @Query("SELECT CASE WHEN COUNT(a) > 0 THEN true ELSE false END FROM Appointment a " +
             "WHERE a.slot.id = :slotId AND a.status IN :statuses")
@@ -25,9 +49,32 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     boolean existsByServiceIdAndStatusIn(@Param("serviceId") Long serviceId, @Param("statuses") List<AppointmentStatus> statuses);
 
     @Query("SELECT CASE WHEN COUNT(a) > 0 THEN true ELSE false END FROM Appointment a " +
-            "WHERE a.slot.specialist.id = :specialistId AND a.status IN :statuses")
+            "JOIN AvailableSlot s ON s.id = a.slot.id AND s.startTime = a.slotStartTime " +
+            "WHERE s.specialist.id = :specialistId AND a.status IN :statuses")
     boolean existsBySpecialistIdAndStatusIn(@Param("specialistId") Long specialistId, @Param("statuses") List<AppointmentStatus> statuses);
 
+    // złączenie także po slot_start_time - bez niego każdy wiersz sprawdzałby wszystkie partycje slotów
+    @Query("SELECT a.id AS id, a.status AS status, s.specialist.id AS specialistId FROM Appointment a " +
+            "JOIN AvailableSlot s ON s.id = a.slot.id AND s.startTime = a.slotStartTime WHERE a.id IN :ids")
+    List<AppointmentStatusView> findStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Appointment a SET a.status = :status, a.updatedAt = :now " +
+            "WHERE a.id IN :ids AND a.status IN :sources")
+    int updateStatusIn(@Param("ids") Collection<Long> ids,
+                       @Param("sources") Collection<AppointmentStatus> sources,
+                       @Param("status") AppointmentStatus status,
+                       @Param("now") Instant now);
+
+    @Query("SELECT a.id AS id, a.status AS status, s.specialist.id AS specialistId FROM Appointment a " +
+            "JOIN AvailableSlot s ON s.id = a.slot.id AND s.startTime = a.slotStartTime " +
+            "WHERE a.status = :status AND a.id > :afterId " +
+            "AND a.slotStartTime < :cutoff AND s.endTime < :cutoff ORDER BY a.id")
+    List<AppointmentStatusView> findPastByStatus(@Param("status") AppointmentStatus status,
+                                                 @Param("afterId") Long afterId,
+                                                 @Param("cutoff") LocalDateTime cutoff,
+                                                 Limit limit);
+
     List<Appointment> findByServiceId(Long serviceId);
 
     @Query("SELECT a FROM Appointment a WHERE a.user.id = :userId AND a.status = :status")
@@ -0,0 +1,16 @@
+package com.michallesiak.booking_system.booking_system.repository;
+
+import com.michallesiak.booking_system.booking_system.model.Appointment;
+import com.michallesiak.booking_system.booking_system.model.enums.AppointmentStatus;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+public interface AppointmentRepositoryCustom {
+
+    /**
+     * Streams appointments in id order through a server-side cursor. Every filter is optional;
+     * the time range applies to the slot start time. Must be consumed inside a transaction and closed.
+     */
+    Stream<Appointment> streamForExport(AppointmentStatus status, LocalDateTime from, LocalDateTime to);
+}
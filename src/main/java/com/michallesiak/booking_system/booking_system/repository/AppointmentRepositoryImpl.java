@@ -0,0 +1,52 @@
+package com.michallesiak.booking_system.booking_system.repository;
+
+import com.michallesiak.booking_system.booking_system.model.Appointment;
+import com.michallesiak.booking_system.booking_system.model.enums.AppointmentStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+public class AppointmentRepositoryImpl implements AppointmentRepositoryCustom {
+
+    private final int exportFetchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public AppointmentRepositoryImpl(@Value("${booking.export.fetch-size:1000}") int exportFetchSize) {
+        this.exportFetchSize = exportFetchSize;
+    }
+
+    @Override
+    public Stream<Appointment> streamForExport(AppointmentStatus status, LocalDateTime from, LocalDateTime to) {
+        StringBuilder jpql = new StringBuilder("SELECT a FROM Appointment a WHERE 1 = 1");
+        if (status != null) {
+            jpql.append(" AND a.status = :status");
+        }
+        if (from != null) {
+            jpql.append(" AND a.slotStartTime >= :from");
+        }
+        if (to != null) {
+            jpql.append(" AND a.slotStartTime < :to");
+        }
+        jpql.append(" ORDER BY a.id");
+        TypedQuery<Appointment> query = entityManager.createQuery(jpql.toString(), Appointment.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, exportFetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        if (from != null) {
+            query.setParameter("from", from);
+        }
+        if (to != null) {
+            query.setParameter("to", to);
+        }
+        return query.getResultStream();
+    }
+}
@@ -0,0 +1,39 @@
+package com.michallesiak.booking_system.booking_system.repository;
+
+import com.michallesiak.booking_system.booking_system.model.AvailabilityRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AvailabilityRuleRepository extends JpaRepository<AvailabilityRule, Long> {
+
+    List<AvailabilityRule> findBySpecialistId(Long specialistId);
+
+    List<AvailabilityRule> findBySpecialistIdAndDayOfWeekAndActiveTrue(Long specialistId, DayOfWeek dayOfWeek);
+
+    @Query("SELECT r FROM AvailabilityRule r WHERE r.specialist.id = :specialistId AND r.active = true " +
+            "AND r.validFrom <= :to AND (r.validTo IS NULL OR r.validTo >= :from)")
+    List<AvailabilityRule> findActiveRulesForPeriod(@Param("specialistId") Long specialistId,
+                                                    @Param("from") LocalDate from,
+                                                    @Param("to") LocalDate to);
+
+    @Query("SELECT r FROM AvailabilityRule r WHERE r.specialist.id IN :specialistIds AND r.active = true " +
+            "AND r.validFrom <= :to AND (r.validTo IS NULL OR r.validTo >= :from)")
+    List<AvailabilityRule> findActiveRulesForSpecialists(@Param("specialistIds") Collection<Long> specialistIds,
+                                                         @Param("from") LocalDate from,
+                                                         @Param("to") LocalDate to);
+
+    @Query("SELECT r FROM AvailabilityRule r WHERE r.specialist.id = :specialistId AND r.active = true " +
+            "AND r.dayOfWeek = :dayOfWeek AND r.validFrom <= :to AND (r.validTo IS NULL OR r.validTo >= :from)")
+    List<AvailabilityRule> findActiveRulesForDayOfWeek(@Param("specialistId") Long specialistId,
+                                                       @Param("dayOfWeek") DayOfWeek dayOfWeek,
+                                                       @Param("from") LocalDate from,
+                                                       @Param("to") LocalDate to);
+}
@@ -1,22 +1,90 @@
 package com.michallesiak.booking_system.booking_system.repository;
 
+import com.michallesiak.booking_system.booking_system.dto.AvailableSlotDto;
 import com.michallesiak.booking_system.booking_system.model.AvailableSlot;
+import com.michallesiak.booking_system.booking_system.repository.projection.SlotTimeView;
+import com.michallesiak.booking_system.booking_system.repository.projection.SpecialistSlotView;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface AvailableSlotRepository extends JpaRepository<AvailableSlot, Long> {
+public interface AvailableSlotRepository extends JpaRepository<AvailableSlot, Long>, AvailableSlotRepositoryCustom {
+
+    String SELECT_DTO = "SELECT new com.michallesiak.booking_system.booking_system.dto.AvailableSlotDto(" +
+            "s.id, s.specialist.id, s.startTime, s.endTime, s.booked) FROM AvailableSlot s ";
 
     List<AvailableSlot> findBySpecialistIdAndStartTimeBetween(Long specialistId, LocalDateTime start, LocalDateTime end);
 
-    List<AvailableSlot> findBySpecialistId(Long specialistId);
+    boolean existsBySpecialistIdAndStartTimeBetweenAndBookedTrue(Long specialistId, LocalDateTime start, LocalDateTime end);
+
+    @Modifying
+    @Query(value = "DELETE FROM available_slots WHERE id IN (" +
+            "SELECT id FROM available_slots WHERE specialist_id = :specialistId " +
+            "AND start_time BETWEEN :start AND :end AND booked = false LIMIT :limit)", nativeQuery = true)
+    int deleteFreeSlotsInRange(@Param("specialistId") Long specialistId,
+                               @Param("start") LocalDateTime start,
+                               @Param("end") LocalDateTime end,
+                               @Param("limit") int limit);
+
+    @Query(SELECT_DTO + "WHERE s.id = :id AND s.startTime = :startTime")
+    Optional<AvailableSlotDto> findDtoByIdAndStartTime(@Param("id") Long id, @Param("startTime") LocalDateTime startTime);
+
+    Optional<AvailableSlot> findByIdAndStartTime(Long id, LocalDateTime startTime);
+
+    @Query(SELECT_DTO + "WHERE s.specialist.id = :specialistId")
+    List<AvailableSlotDto> findBySpecialistId(@Param("specialistId") Long specialistId);
+
+    @Query(SELECT_DTO + "WHERE s.specialist.id = :specialistId AND s.booked = false")
+    List<AvailableSlotDto> findBySpecialistIdAndBookedFalse(@Param("specialistId") Long specialistId);
+
+    List<SlotTimeView> findBySpecialistIdAndEndTimeAfterOrderByStartTime(Long specialistId, LocalDateTime after);
+
+    List<SlotTimeView> findBySpecialistIdAndStartTimeLessThanEqualAndEndTimeAfterOrderByStartTime(
+            Long specialistId, LocalDateTime to, LocalDateTime from);
+
+    Optional<AvailableSlot> findBySpecialistIdAndStartTime(Long specialistId, LocalDateTime startTime);
+
+    @Query(SELECT_DTO + "ORDER BY s.startTime, s.id")
+    List<AvailableSlotDto> findAllByOrderByStartTimeAscIdAsc(Limit limit);
 
-    List<AvailableSlot> findBySpecialistIdAndBookedFalse(Long specialistId);
+    @Query(SELECT_DTO + "WHERE s.specialist.id IN :specialistIds AND s.booked = false " +
+            "AND s.startTime >= :from AND s.startTime < :to ORDER BY s.startTime, s.id")
+    List<AvailableSlotDto> findEarliestFreeSlots(@Param("specialistIds") Collection<Long> specialistIds,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to,
+                                                 Limit limit);
+
+    @Query("SELECT s.id AS id, s.specialist.id AS specialistId, s.startTime AS startTime, s.endTime AS endTime, " +
+            "s.booked AS booked FROM AvailableSlot s WHERE s.id = :id")
+    Optional<SpecialistSlotView> findSlotViewById(@Param("id") Long id);
+
+    @Query("SELECT s.id AS id, s.specialist.id AS specialistId, s.startTime AS startTime, s.endTime AS endTime, " +
+            "s.booked AS booked FROM AvailableSlot s WHERE s.id = :id AND s.startTime = :startTime")
+    Optional<SpecialistSlotView> findSlotView(@Param("id") Long id, @Param("startTime") LocalDateTime startTime);
+
+    @Query("SELECT s.id AS id, s.specialist.id AS specialistId, s.startTime AS startTime, s.endTime AS endTime, " +
+            "s.booked AS booked FROM AvailableSlot s WHERE s.specialist.id IN :specialistIds " +
+            "AND s.startTime < :to AND s.endTime > :from ORDER BY s.specialist.id, s.startTime")
+    List<SpecialistSlotView> findSlotViewsOverlapping(@Param("specialistIds") Collection<Long> specialistIds,
+                                                      @Param("from") LocalDateTime from,
+                                                      @Param("to") LocalDateTime to);
+
+    @Query(SELECT_DTO + "WHERE s.startTime > :startTime OR (s.startTime = :startTime AND s.id > :id) " +
+            "ORDER BY s.startTime, s.id")
+    List<AvailableSlotDto> findPageAfter(@Param("startTime") LocalDateTime startTime, @Param("id") Long id, Limit limit);
+
+    Optional<AvailableSlot> findFirstBySpecialistIdAndStartTimeBetweenOrderByStartTimeDesc(
+            Long specialistId, LocalDateTime from, LocalDateTime to);
 
     List<AvailableSlot> findBySpecialistIdAndStartTimeBetweenAndBookedFalse(
             Long specialistId, LocalDateTime start, LocalDateTime end);
@@ -33,4 +101,24 @@ public interface AvailableSlotRepository extends JpaRepository<AvailableSlot, Lo
                                   @Param("startTime") LocalDateTime startTime,
                                   @Param("endTime") LocalDateTime endTime,
                                   @Param("excludeId") Long excludeId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE AvailableSlot s SET s.booked = false, s.version = s.version + 1, s.updatedAt = :now " +
+            "WHERE s.id = :id AND s.startTime = :startTime AND s.booked = true")
+    int releaseIfBooked(@Param("id") Long id, @Param("startTime") LocalDateTime startTime, @Param("now") Instant now);
+
+    @Query("SELECT s.id AS id, s.specialist.id AS specialistId, s.startTime AS startTime, s.endTime AS endTime, " +
+            "s.booked AS booked FROM AvailableSlot s WHERE s.booked = false AND s.id > :afterId " +
+            "AND s.startTime < :cutoff AND s.endTime < :cutoff " +
+            "AND NOT EXISTS (SELECT 1 FROM Appointment a WHERE a.slot = s) ORDER BY s.id")
+    List<SpecialistSlotView> findPastFreeSlots(@Param("afterId") Long afterId,
+                                               @Param("cutoff") LocalDateTime cutoff,
+                                               Limit limit);
+
+    @Query("SELECT s.id FROM AvailableSlot s WHERE s.id IN :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM AvailableSlot s WHERE s.id IN :ids AND s.booked = false")
+    int deleteFreeByIdIn(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
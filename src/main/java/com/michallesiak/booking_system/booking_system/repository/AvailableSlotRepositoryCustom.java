@@ -0,0 +1,31 @@
+package com.michallesiak.booking_system.booking_system.repository;
+
+import com.michallesiak.booking_system.booking_system.dto.AvailableSlotDto;
+import com.michallesiak.booking_system.booking_system.model.AvailableSlot;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface AvailableSlotRepositoryCustom {
+
+    /**
+     * Inserts the given free slots with set-based statements, silently skipping rows that
+     * collide on (specialist_id, start_time) or overlap an existing slot. Returns only the rows that were actually inserted.
+     */
+    List<AvailableSlotDto> insertSlotsSkippingConflicts(Long specialistId, List<LocalDateTime> startTimes, List<LocalDateTime> endTimes);
+
+    /**
+     * Books the slot if it is still free and returns it as booked, or empty if it is missing or
+     * already booked. The row comes back from the UPDATE itself, so callers need no second lookup.
+     */
+    Optional<AvailableSlotDto> bookIfAvailable(Long id, LocalDateTime startTime, Instant now);
+
+    /**
+     * Streams slots in id order through a server-side cursor. Every filter is optional;
+     * the time range applies to start_time. Must be consumed inside a transaction and closed.
+     */
+    Stream<AvailableSlot> streamForExport(Long specialistId, Boolean booked, LocalDateTime from, LocalDateTime to);
+}
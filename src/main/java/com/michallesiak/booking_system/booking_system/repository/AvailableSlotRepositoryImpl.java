@@ -0,0 +1,130 @@
+package com.michallesiak.booking_system.booking_system.repository;
+
+import com.michallesiak.booking_system.booking_system.dto.AvailableSlotDto;
+import com.michallesiak.booking_system.booking_system.model.AvailableSlot;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public class AvailableSlotRepositoryImpl implements AvailableSlotRepositoryCustom {
+
+    private static final String INSERT_SLOTS_SQL =
+            "INSERT INTO available_slots (created_at, updated_at, specialist_id, start_time, end_time, booked, version) " +
+            "SELECT ?, ?, ?, t.start_time, t.end_time, false, 0 " +
+            "FROM unnest(?::timestamp[], ?::timestamp[]) AS t(start_time, end_time) " +
+            "ON CONFLICT DO NOTHING " +
+            "RETURNING id, start_time, end_time";
+
+    private static final String BOOK_SLOT_SQL =
+            "UPDATE available_slots SET booked = true, version = version + 1, updated_at = ? " +
+            "WHERE id = ? AND start_time = ? AND booked = false " +
+            "RETURNING id, specialist_id, start_time, end_time";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+    private final int exportFetchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public AvailableSlotRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                       @Value("${booking.slots.bulk-insert-chunk-size:1000}") int chunkSize,
+                                       @Value("${booking.export.fetch-size:1000}") int exportFetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = chunkSize;
+        this.exportFetchSize = exportFetchSize;
+    }
+
+    @Override
+    public List<AvailableSlotDto> insertSlotsSkippingConflicts(Long specialistId, List<LocalDateTime> startTimes, List<LocalDateTime> endTimes) {
+        if (startTimes.size() != endTimes.size()) {
+            throw new IllegalArgumentException("Start and end time lists must have the same size");
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        List<AvailableSlotDto> inserted = new ArrayList<>(startTimes.size());
+        for (int from = 0; from < startTimes.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, startTimes.size());
+            Timestamp[] starts = toTimestamps(startTimes.subList(from, to));
+            Timestamp[] ends = toTimestamps(endTimes.subList(from, to));
+            inserted.addAll(jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(INSERT_SLOTS_SQL);
+                statement.setTimestamp(1, now);
+                statement.setTimestamp(2, now);
+                statement.setLong(3, specialistId);
+                statement.setArray(4, connection.createArrayOf("timestamp", starts));
+                statement.setArray(5, connection.createArrayOf("timestamp", ends));
+                return statement;
+            }, (rs, rowNum) -> new AvailableSlotDto(
+                    rs.getLong("id"),
+                    specialistId,
+                    rs.getTimestamp("start_time").toLocalDateTime(),
+                    rs.getTimestamp("end_time").toLocalDateTime(),
+                    false
+            )));
+        }
+        return inserted;
+    }
+
+    @Override
+    public Optional<AvailableSlotDto> bookIfAvailable(Long id, LocalDateTime startTime, Instant now) {
+        // oczekujące zmiany encji muszą trafić do bazy przed UPDATE z pominięciem Hibernate
+        entityManager.flush();
+        return jdbcTemplate.query(BOOK_SLOT_SQL, (rs, rowNum) -> new AvailableSlotDto(
+                rs.getLong("id"),
+                rs.getLong("specialist_id"),
+                rs.getTimestamp("start_time").toLocalDateTime(),
+                rs.getTimestamp("end_time").toLocalDateTime(),
+                true
+        ), Timestamp.from(now), id, Timestamp.valueOf(startTime)).stream().findFirst();
+    }
+
+    @Override
+    public Stream<AvailableSlot> streamForExport(Long specialistId, Boolean booked, LocalDateTime from, LocalDateTime to) {
+        StringBuilder jpql = new StringBuilder("SELECT s FROM AvailableSlot s WHERE 1 = 1");
+        if (specialistId != null) {
+            jpql.append(" AND s.specialist.id = :specialistId");
+        }
+        if (booked != null) {
+            jpql.append(" AND s.booked = :booked");
+        }
+        if (from != null) {
+            jpql.append(" AND s.startTime >= :from");
+        }
+        if (to != null) {
+            jpql.append(" AND s.startTime < :to");
+        }
+        jpql.append(" ORDER BY s.id");
+        TypedQuery<AvailableSlot> query = entityManager.createQuery(jpql.toString(), AvailableSlot.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, exportFetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (specialistId != null) {
+            query.setParameter("specialistId", specialistId);
+        }
+        if (booked != null) {
+            query.setParameter("booked", booked);
+        }
+        if (from != null) {
+            query.setParameter("from", from);
+        }
+        if (to != null) {
+            query.setParameter("to", to);
+        }
+        return query.getResultStream();
+    }
+
+    private Timestamp[] toTimestamps(List<LocalDateTime> times) {
+        return times.stream().map(Timestamp::valueOf).toArray(Timestamp[]::new);
+    }
+}
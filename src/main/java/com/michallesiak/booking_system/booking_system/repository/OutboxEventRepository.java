@@ -0,0 +1,33 @@
+package com.michallesiak.booking_system.booking_system.repository;
+
+import com.michallesiak.booking_system.booking_system.model.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Settled events that are due, skipping every specialist whose earlier event is still
+     * waiting out its retry backoff so per-specialist order holds.
+     */
+    @Query("SELECT e FROM OutboxEvent e WHERE e.parked = false AND e.createdAt < :settledBefore " +
+            "AND (e.nextAttemptAt IS NULL OR e.nextAttemptAt <= :now) " +
+            "AND NOT EXISTS (SELECT 1 FROM OutboxEvent b WHERE b.specialistId = e.specialistId AND b.id < e.id " +
+            "AND b.parked = false AND b.nextAttemptAt > :now) ORDER BY e.id")
+    List<OutboxEvent> findPending(@Param("settledBefore") Instant settledBefore, @Param("now") Instant now, Limit limit);
+
+    long countByParkedFalse();
+
+    long countByParkedTrue();
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.parked = false")
+    Optional<Instant> findOldestPendingCreatedAt();
+}
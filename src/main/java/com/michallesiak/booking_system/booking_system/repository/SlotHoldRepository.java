@@ -0,0 +1,33 @@
+package com.michallesiak.booking_system.booking_system.repository;
+
+import com.michallesiak.booking_system.booking_system.model.SlotHold;
+import com.michallesiak.booking_system.booking_system.repository.projection.SlotHoldView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface SlotHoldRepository extends JpaRepository<SlotHold, Long> {
+
+    @Query("SELECT h.token AS token, h.slot.id AS slotId, h.user.id AS userId, h.expiresAt AS expiresAt " +
+            "FROM SlotHold h LEFT JOIN h.user WHERE h.expiresAt > :now")
+    List<SlotHoldView> findActiveHolds(@Param("now") Instant now);
+
+    @Modifying
+    @Query("DELETE FROM SlotHold h WHERE h.token = :token")
+    int deleteByToken(@Param("token") UUID token);
+
+    @Modifying
+    @Query("DELETE FROM SlotHold h WHERE h.slot.id = :slotId AND h.expiresAt <= :now")
+    int deleteExpiredBySlotId(@Param("slotId") Long slotId, @Param("now") Instant now);
+
+    @Modifying
+    @Query("DELETE FROM SlotHold h WHERE h.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
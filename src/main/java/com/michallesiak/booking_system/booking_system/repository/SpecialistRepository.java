@@ -1,6 +1,8 @@
 package com.michallesiak.booking_system.booking_system.repository;
 
+import com.michallesiak.booking_system.booking_system.dto.SpecialistDto;
 import com.michallesiak.booking_system.booking_system.model.Specialist;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,16 +16,40 @@ public interface SpecialistRepository extends JpaRepository<Specialist, Long> {
 
     boolean existsByUserId(Long userId);
 
-    Optional<Specialist> findByUserId(Long userId);
+    // workAddress jest EAGER - jawny LEFT JOIN zamiast dociągania adresu osobnym zapytaniem
+    String SELECT_DTO = "SELECT new com.michallesiak.booking_system.booking_system.dto.SpecialistDto(" +
+            "s.id, s.user.id, s.specialization, w.id, s.acceptingAppointments) FROM Specialist s LEFT JOIN s.workAddress w ";
 
-    List<Specialist> findByAcceptingAppointmentsTrue();
+    @Query(SELECT_DTO + "WHERE s.id = :id")
+    Optional<SpecialistDto> findDtoById(@Param("id") Long id);
 
-    List<Specialist> findBySpecializationContainingIgnoreCase(String specialization);
+    @Query(SELECT_DTO + "WHERE s.id > :id ORDER BY s.id")
+    List<SpecialistDto> findByIdGreaterThanOrderByIdAsc(@Param("id") Long id, Limit limit);
 
-    @Query("SELECT s FROM Specialist s JOIN s.services serv WHERE serv.id = :serviceId AND s.acceptingAppointments = true")
-    List<Specialist> findByServicesIdAndAcceptingAppointmentsTrue(@Param("serviceId") Long serviceId);
+    @Query(SELECT_DTO + "WHERE s.acceptingAppointments = true AND s.id > :id ORDER BY s.id")
+    List<SpecialistDto> findByAcceptingAppointmentsTrueAndIdGreaterThanOrderByIdAsc(@Param("id") Long id, Limit limit);
 
-    List<Specialist> findByWorkAddress_City(String city);
+    @Query(SELECT_DTO + "WHERE s.user.id = :userId")
+    Optional<SpecialistDto> findByUserId(@Param("userId") Long userId);
+
+    @Query(SELECT_DTO + "WHERE s.acceptingAppointments = true")
+    List<SpecialistDto> findByAcceptingAppointmentsTrue();
+
+    @Query(SELECT_DTO + "WHERE LOWER(s.specialization) LIKE LOWER(CONCAT('%', :specialization, '%'))")
+    List<SpecialistDto> findBySpecializationContainingIgnoreCase(@Param("specialization") String specialization);
+
+    @Query(SELECT_DTO + "JOIN s.services serv WHERE serv.id = :serviceId AND s.acceptingAppointments = true")
+    List<SpecialistDto> findByServicesIdAndAcceptingAppointmentsTrue(@Param("serviceId") Long serviceId);
+
+    @Query(SELECT_DTO + "WHERE w.city = :city")
+    List<SpecialistDto> findByWorkAddress_City(@Param("city") String city);
+
+    @Query("SELECT s.id FROM Specialist s JOIN s.services serv WHERE serv.id = :serviceId AND s.acceptingAppointments = true")
+    List<Long> findIdsByServiceIdAndAcceptingAppointments(@Param("serviceId") Long serviceId);
+
+    @Query("SELECT s.id FROM Specialist s JOIN s.services serv WHERE serv.id = :serviceId AND s.acceptingAppointments = true " +
+            "AND LOWER(s.workAddress.city) = LOWER(:city)")
+    List<Long> findIdsByServiceIdAndCityAndAcceptingAppointments(@Param("serviceId") Long serviceId, @Param("city") String city);
 
     @Query("SELECT s FROM Specialist s WHERE s.workAddress.city = :city AND s.acceptingAppointments = true")
     List<Specialist> findByCityAndAcceptingAppointments(@Param("city") String city);
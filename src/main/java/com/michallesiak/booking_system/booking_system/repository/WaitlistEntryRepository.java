@@ -0,0 +1,72 @@
+package com.michallesiak.booking_system.booking_system.repository;
+
+import com.michallesiak.booking_system.booking_system.dto.WaitlistEntryDto;
+import com.michallesiak.booking_system.booking_system.model.WaitlistEntry;
+import com.michallesiak.booking_system.booking_system.model.enums.WaitlistStatus;
+import com.michallesiak.booking_system.booking_system.repository.projection.WaiterView;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    String SELECT_DTO = "SELECT new com.michallesiak.booking_system.booking_system.dto.WaitlistEntryDto(" +
+            "e.id, e.user.id, e.specialist.id, s.id, e.dateFrom, e.dateTo, e.priority, e.status, " +
+            "e.offeredSlotId, e.offerToken, e.offerExpiresAt) FROM WaitlistEntry e LEFT JOIN e.service s ";
+
+    @Query(SELECT_DTO + "WHERE e.id = :id")
+    Optional<WaitlistEntryDto> findDtoById(@Param("id") Long id);
+
+    @Query(SELECT_DTO + "WHERE e.user.id = :userId ORDER BY e.id")
+    List<WaitlistEntryDto> findByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT e.id AS id, e.user.id AS userId, s.durationMinutes AS durationMinutes, e.dateFrom AS dateFrom, " +
+            "e.dateTo AS dateTo, e.priority AS priority FROM WaitlistEntry e LEFT JOIN e.service s " +
+            "WHERE e.specialist.id = :specialistId AND e.status = :status AND e.dateTo >= :from")
+    List<WaiterView> findWaiters(@Param("specialistId") Long specialistId,
+                                 @Param("status") WaitlistStatus status,
+                                 @Param("from") LocalDate from);
+
+    List<WaitlistEntry> findByStatusAndOfferExpiresAtBeforeOrderByOfferExpiresAt(WaitlistStatus status, Instant now, Limit limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE WaitlistEntry e SET e.status = :status, e.updatedAt = :now WHERE e.id = :id AND e.status = :expected")
+    int updateStatusIf(@Param("id") Long id,
+                       @Param("expected") WaitlistStatus expected,
+                       @Param("status") WaitlistStatus status,
+                       @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE WaitlistEntry e SET e.offeredSlotId = :slotId, e.offerToken = :token, e.offerExpiresAt = :expiresAt " +
+            "WHERE e.id = :id")
+    int recordOffer(@Param("id") Long id,
+                    @Param("slotId") Long slotId,
+                    @Param("token") UUID token,
+                    @Param("expiresAt") Instant expiresAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE WaitlistEntry e SET e.status = :status, e.updatedAt = :now " +
+            "WHERE e.user.id = :userId AND e.offeredSlotId = :slotId AND e.status = :expected")
+    int updateOfferStatus(@Param("userId") Long userId,
+                          @Param("slotId") Long slotId,
+                          @Param("expected") WaitlistStatus expected,
+                          @Param("status") WaitlistStatus status,
+                          @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE WaitlistEntry e SET e.status = :status, e.updatedAt = :now WHERE e.status = :expected AND e.dateTo < :today")
+    int updateStatusOfEndedWindows(@Param("expected") WaitlistStatus expected,
+                                   @Param("status") WaitlistStatus status,
+                                   @Param("today") LocalDate today,
+                                   @Param("now") Instant now);
+}
@@ -0,0 +1,9 @@
+package com.michallesiak.booking_system.booking_system.repository.projection;
+
+import com.michallesiak.booking_system.booking_system.model.enums.AppointmentStatus;
+
+public interface AppointmentStatusView {
+    Long getId();
+    AppointmentStatus getStatus();
+    Long getSpecialistId();
+}
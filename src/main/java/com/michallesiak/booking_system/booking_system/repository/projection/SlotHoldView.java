@@ -0,0 +1,11 @@
+package com.michallesiak.booking_system.booking_system.repository.projection;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface SlotHoldView {
+    UUID getToken();
+    Long getSlotId();
+    Long getUserId();
+    Instant getExpiresAt();
+}
@@ -0,0 +1,10 @@
+package com.michallesiak.booking_system.booking_system.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface SlotTimeView {
+    Long getId();
+    LocalDateTime getStartTime();
+    LocalDateTime getEndTime();
+    boolean isBooked();
+}
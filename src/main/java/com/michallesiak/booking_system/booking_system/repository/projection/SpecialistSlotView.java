@@ -0,0 +1,5 @@
+package com.michallesiak.booking_system.booking_system.repository.projection;
+
+public interface SpecialistSlotView extends SlotTimeView {
+    Long getSpecialistId();
+}
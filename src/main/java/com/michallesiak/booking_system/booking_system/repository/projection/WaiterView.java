@@ -0,0 +1,12 @@
+package com.michallesiak.booking_system.booking_system.repository.projection;
+
+import java.time.LocalDate;
+
+public interface WaiterView {
+    Long getId();
+    Long getUserId();
+    Integer getDurationMinutes();
+    LocalDate getDateFrom();
+    LocalDate getDateTo();
+    int getPriority();
+}
@@ -2,13 +2,14 @@ package com.michallesiak.booking_system.booking_system.service;
 
 import com.michallesiak.booking_system.booking_system.dto.AddressDto;
 import com.michallesiak.booking_system.booking_system.dto.CreateAddressRequest;
+import com.michallesiak.booking_system.booking_system.dto.CursorPage;
 
 import java.util.List;
 
 public interface AddressService {
     AddressDto createAddress(CreateAddressRequest request);
     AddressDto getAddressById(Long id);
-    List<AddressDto> getAllAddresses();
+    CursorPage<AddressDto> getAddressesPage(String cursor, Integer size);
     AddressDto updateAddress(Long id, CreateAddressRequest request);
     void deleteAddress(Long id);
 }
\ No newline at end of file
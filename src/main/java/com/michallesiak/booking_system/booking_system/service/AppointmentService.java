@@ -1,18 +1,27 @@
 package com.michallesiak.booking_system.booking_system.service;
 
 import com.michallesiak.booking_system.booking_system.dto.AppointmentDto;
+import com.michallesiak.booking_system.booking_system.dto.BulkStatusUpdateResponse;
 import com.michallesiak.booking_system.booking_system.dto.CreateAppointmentRequest;
+import com.michallesiak.booking_system.booking_system.dto.CreateWindowAppointmentRequest;
+import com.michallesiak.booking_system.booking_system.dto.CursorPage;
 import com.michallesiak.booking_system.booking_system.model.enums.AppointmentStatus;
 
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface AppointmentService {
     AppointmentDto createAppointment(CreateAppointmentRequest request);
+    AppointmentDto createAppointment(CreateAppointmentRequest request, String idempotencyKey);
+    AppointmentDto createWindowAppointment(CreateWindowAppointmentRequest request);
     AppointmentDto getAppointmentById(Long id);
-    List<AppointmentDto> getAllAppointments();
+    CursorPage<AppointmentDto> getAppointmentsPage(AppointmentStatus status, String cursor, Integer size);
+    long exportAppointments(AppointmentStatus status, LocalDateTime from, LocalDateTime to, OutputStream out);
     List<AppointmentDto> getAppointmentsByUserId(Long userId);
     List<AppointmentDto> getAppointmentsByStatus(AppointmentStatus status);
     AppointmentDto updateAppointmentStatus(Long id, AppointmentStatus status);
+    BulkStatusUpdateResponse updateAppointmentStatuses(List<Long> ids, AppointmentStatus status);
     AppointmentDto updateAppointmentNotes(Long id, String notes);
     void cancelAppointment(Long id);
     void deleteAppointment(Long id);
@@ -0,0 +1,14 @@
+package com.michallesiak.booking_system.booking_system.service;
+
+import com.michallesiak.booking_system.booking_system.dto.AvailabilityRuleDto;
+import com.michallesiak.booking_system.booking_system.dto.CreateAvailabilityRuleRequest;
+
+import java.util.List;
+
+public interface AvailabilityRuleService {
+    AvailabilityRuleDto createRule(CreateAvailabilityRuleRequest request);
+    AvailabilityRuleDto getRuleById(Long id);
+    List<AvailabilityRuleDto> getRulesBySpecialistId(Long specialistId);
+    AvailabilityRuleDto deactivateRule(Long id);
+    void deleteRule(Long id);
+}
@@ -2,7 +2,10 @@ package com.michallesiak.booking_system.booking_system.service;
 
 import com.michallesiak.booking_system.booking_system.dto.AvailableSlotDto;
 import com.michallesiak.booking_system.booking_system.dto.CreateAvailableSlotRequest;
+import com.michallesiak.booking_system.booking_system.dto.CursorPage;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -10,16 +13,22 @@ import java.util.List;
 public interface AvailableSlotService {
     AvailableSlotDto createSlot(CreateAvailableSlotRequest request);
     AvailableSlotDto getSlotById(Long id);
-    List<AvailableSlotDto> getAllSlots();
+    CursorPage<AvailableSlotDto> getSlotsPage(String cursor, Integer size);
+    long exportSlots(Long specialistId, Boolean booked, LocalDateTime from, LocalDateTime to, OutputStream out);
     List<AvailableSlotDto> getSlotsBySpecialistId(Long specialistId);
     List<AvailableSlotDto> getAvailableSlotsBySpecialistId(Long specialistId);
     List<AvailableSlotDto> getSlotsBySpecialistAndDateRange(Long specialistId, LocalDateTime start, LocalDateTime end);
     List<AvailableSlotDto> getAvailableSlotsBySpecialistAndDate(Long specialistId, LocalDate date);
+    List<AvailableSlotDto> getAvailableSlotsBySpecialistAndDate(Long specialistId, LocalDate date, int minFreeMinutes);
+    List<AvailableSlotDto> getAvailableSlotsBySpecialistId(Long specialistId, int minFreeMinutes);
+    AvailableSlotDto materializeSlot(Long specialistId, LocalDateTime startTime);
+    AvailableSlotDto bookFromWindow(Long specialistId, LocalDateTime startTime, int durationMinutes);
     AvailableSlotDto markSlotAsBooked(Long id);
     AvailableSlotDto markSlotAsAvailable(Long id);
     List<AvailableSlotDto> createMultipleSlots(Long specialistId, LocalDateTime startTime, LocalDateTime endTime, int durationMinutes);
     void deleteSlot(Long id);
-    void deleteSlotsBySpecialistAndDateRange(Long specialistId, LocalDateTime start, LocalDateTime end);
+    int deleteSlotsBySpecialistAndDateRange(Long specialistId, LocalDateTime start, LocalDateTime end);
     boolean isSlotConflicting(Long specialistId, LocalDateTime startTime, LocalDateTime endTime, Long excludeSlotId);
     boolean isSlotAvailable(Long slotId);
+    SseEmitter streamSlotChanges(Long specialistId, Long lastEventId);
 }
\ No newline at end of file
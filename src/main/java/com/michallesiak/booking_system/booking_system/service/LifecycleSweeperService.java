@@ -0,0 +1,10 @@
+package com.michallesiak.booking_system.booking_system.service;
+
+import com.michallesiak.booking_system.booking_system.dto.SweeperStatusDto;
+
+public interface LifecycleSweeperService {
+    SweeperStatusDto sweep();
+    SweeperStatusDto pause();
+    SweeperStatusDto resume();
+    SweeperStatusDto getStatus();
+}
@@ -0,0 +1,12 @@
+package com.michallesiak.booking_system.booking_system.service;
+
+import com.michallesiak.booking_system.booking_system.dto.SlotHoldDto;
+
+import java.util.UUID;
+
+public interface SlotHoldService {
+    SlotHoldDto holdSlot(Long slotId, Long userId, Integer minutes);
+    void releaseHold(UUID token);
+    void consumeHold(Long slotId, Long userId, UUID token);
+    boolean isHeld(Long slotId);
+}
@@ -0,0 +1,10 @@
+package com.michallesiak.booking_system.booking_system.service;
+
+import com.michallesiak.booking_system.booking_system.dto.AvailableSlotDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SlotSearchService {
+    List<AvailableSlotDto> findEarliestAvailableSlots(Long serviceId, String city, LocalDateTime from, Integer limit);
+}
@@ -1,6 +1,7 @@
 package com.michallesiak.booking_system.booking_system.service;
 
 import com.michallesiak.booking_system.booking_system.dto.CreateSpecialistRequest;
+import com.michallesiak.booking_system.booking_system.dto.CursorPage;
 import com.michallesiak.booking_system.booking_system.dto.SpecialistDto;
 
 import java.util.List;
@@ -11,7 +12,7 @@ public interface SpecialistService {
 
     SpecialistDto getSpecialistById(Long id);
 
-    List<SpecialistDto> getAllSpecialists();
+    CursorPage<SpecialistDto> getSpecialistsPage(boolean activeOnly, String cursor, Integer size);
 
     List<SpecialistDto> getActiveSpecialists();
 
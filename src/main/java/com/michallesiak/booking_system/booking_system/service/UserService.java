@@ -1,6 +1,7 @@
 package com.michallesiak.booking_system.booking_system.service;
 
 import com.michallesiak.booking_system.booking_system.dto.CreateUserRequest;
+import com.michallesiak.booking_system.booking_system.dto.CursorPage;
 import com.michallesiak.booking_system.booking_system.dto.UserDto;
 
 import java.util.List;
@@ -8,7 +9,7 @@ import java.util.List;
 public interface UserService {
     UserDto createUser(CreateUserRequest request);
     UserDto getUserById(Long id);
-    List<UserDto> getAllUsers();
+    CursorPage<UserDto> getUsersPage(String cursor, Integer size);
     UserDto updateUser(Long id, CreateUserRequest request);
     void deleteUser(Long id);
     void changePassword(Long userId, String currentPassword, String newPassword);
@@ -0,0 +1,17 @@
+package com.michallesiak.booking_system.booking_system.service;
+
+import com.michallesiak.booking_system.booking_system.dto.CreateWaitlistEntryRequest;
+import com.michallesiak.booking_system.booking_system.dto.WaitlistEntryDto;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface WaitlistService {
+    WaitlistEntryDto createEntry(CreateWaitlistEntryRequest request);
+    WaitlistEntryDto getEntryById(Long id);
+    List<WaitlistEntryDto> getEntriesByUserId(Long userId);
+    void cancelEntry(Long id);
+    void slotReleased(Long slotId);
+    Optional<WaitlistEntryDto> offerFreedSlot(Long slotId);
+    void offerAccepted(Long slotId, Long userId);
+}
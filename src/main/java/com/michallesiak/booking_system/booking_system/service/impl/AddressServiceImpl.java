@@ -2,10 +2,12 @@ package com.michallesiak.booking_system.booking_system.service.impl;
 
 import com.michallesiak.booking_system.booking_system.dto.AddressDto;
 import com.michallesiak.booking_system.booking_system.dto.CreateAddressRequest;
+import com.michallesiak.booking_system.booking_system.dto.CursorPage;
 import com.michallesiak.booking_system.booking_system.mapper.AddressMapper;
 import com.michallesiak.booking_system.booking_system.model.Address;
 import com.michallesiak.booking_system.booking_system.repository.AddressRepository;
 import com.michallesiak.booking_system.booking_system.service.AddressService;
+import com.michallesiak.booking_system.booking_system.service.support.CursorPaging;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,6 +24,7 @@ import java.util.stream.Collectors;
 public class AddressServiceImpl implements AddressService {
 
     private final AddressRepository addressRepository;
+    private final CursorPaging cursorPaging;
 
     @Override
     @Transactional
@@ -41,10 +44,12 @@ public class AddressServiceImpl implements AddressService {
     }
 
     @Override
-    public List<AddressDto> getAllAddresses() {
-        log.info("Fetching all addresses");
-        List<Address> addresses = addressRepository.findAll();
-        return addresses.stream().map(AddressMapper::toDto).collect(Collectors.toList());
+    public CursorPage<AddressDto> getAddressesPage(String cursor, Integer size) {
+        log.info("Fetching addresses page after cursor: {}, size: {}", cursor, size);
+        int pageSize = cursorPaging.pageSize(size);
+        List<Address> addresses = addressRepository.findByIdGreaterThanOrderByIdAsc(
+                cursorPaging.decodeId(cursor), cursorPaging.probeLimit(pageSize));
+        return cursorPaging.toPage(addresses, pageSize, AddressMapper::toDto, address -> cursorPaging.encodeId(address.getId()));
     }
 
     @Override
@@ -1,28 +1,68 @@
 package com.michallesiak.booking_system.booking_system.service.impl;
 
 import com.michallesiak.booking_system.booking_system.dto.AppointmentDto;
+import com.michallesiak.booking_system.booking_system.dto.AppointmentStatusChange;
+import com.michallesiak.booking_system.booking_system.dto.AppointmentStatusOutcome;
+import com.michallesiak.booking_system.booking_system.dto.AvailableSlotDto;
+import com.michallesiak.booking_system.booking_system.dto.BulkStatusUpdateResponse;
 import com.michallesiak.booking_system.booking_system.dto.CreateAppointmentRequest;
+import com.michallesiak.booking_system.booking_system.dto.CreateWindowAppointmentRequest;
+import com.michallesiak.booking_system.booking_system.dto.CursorPage;
 import com.michallesiak.booking_system.booking_system.exception.AppointmentNotFoundException;
+import com.michallesiak.booking_system.booking_system.exception.IdempotencyKeyConflictException;
+import com.michallesiak.booking_system.booking_system.exception.ServiceNotFoundException;
 import com.michallesiak.booking_system.booking_system.exception.SlotNotAvailableException;
+import com.michallesiak.booking_system.booking_system.exception.SlotNotFoundException;
 import com.michallesiak.booking_system.booking_system.mapper.AppointmentMapper;
+import com.michallesiak.booking_system.booking_system.mapper.AvailableSlotMapper;
 import com.michallesiak.booking_system.booking_system.model.Appointment;
 import com.michallesiak.booking_system.booking_system.model.AvailableSlot;
 import com.michallesiak.booking_system.booking_system.model.OfferedService;
 import com.michallesiak.booking_system.booking_system.model.User;
 import com.michallesiak.booking_system.booking_system.model.enums.AppointmentStatus;
+import com.michallesiak.booking_system.booking_system.model.enums.OutboxEventType;
+import com.michallesiak.booking_system.booking_system.model.enums.SlotEventType;
+import com.michallesiak.booking_system.booking_system.model.enums.StatusChangeResult;
 import com.michallesiak.booking_system.booking_system.repository.AppointmentRepository;
 import com.michallesiak.booking_system.booking_system.repository.AvailableSlotRepository;
 import com.michallesiak.booking_system.booking_system.repository.OfferedServiceRepository;
 import com.michallesiak.booking_system.booking_system.repository.UserRepository;
+import com.michallesiak.booking_system.booking_system.repository.projection.SpecialistSlotView;
 import com.michallesiak.booking_system.booking_system.service.AppointmentService;
+import com.michallesiak.booking_system.booking_system.service.AvailableSlotService;
+import com.michallesiak.booking_system.booking_system.service.SlotHoldService;
+import com.michallesiak.booking_system.booking_system.service.WaitlistService;
+import com.michallesiak.booking_system.booking_system.service.support.AppointmentTransitions;
+import com.michallesiak.booking_system.booking_system.service.support.AvailabilityCache;
+import com.michallesiak.booking_system.booking_system.service.support.BookingShards;
+import com.michallesiak.booking_system.booking_system.service.support.CursorPaging;
+import com.michallesiak.booking_system.booking_system.service.support.IdempotencyStore;
+import com.michallesiak.booking_system.booking_system.service.support.NdjsonExporter;
+import com.michallesiak.booking_system.booking_system.service.support.OptimisticRetryExecutor;
+import com.michallesiak.booking_system.booking_system.service.support.OutboxWriter;
+import com.michallesiak.booking_system.booking_system.service.support.SlotEventHub;
+import com.michallesiak.booking_system.booking_system.service.support.SlotKeys;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -34,58 +74,163 @@ public class AppointmentServiceImpl implements AppointmentService {
     private final UserRepository userRepository;
     private final AvailableSlotRepository availableSlotRepository;
     private final OfferedServiceRepository offeredServiceRepository;
+    private final SlotHoldService slotHoldService;
+    private final CursorPaging cursorPaging;
+    private final NdjsonExporter ndjsonExporter;
+    private final AvailabilityCache availabilityCache;
+    private final AvailableSlotService availableSlotService;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+    private final IdempotencyStore idempotencyStore;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxWriter outboxWriter;
+    private final SlotEventHub slotEventHub;
+    private final WaitlistService waitlistService;
+    private final BookingShards bookingShards;
+    private final SlotKeys slotKeys;
+
+    @Value("${booking.appointments.bulk-max-ids:500}")
+    private int maxBulkIds;
+
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
+    private static final List<AppointmentStatus> ACTIVE_STATUSES =
+            List.of(AppointmentStatus.BOOKED, AppointmentStatus.CONFIRMED, AppointmentStatus.IN_PROGRESS);
 
     @Override
     @Transactional
     public AppointmentDto createAppointment(CreateAppointmentRequest request) {
         log.info("Creating appointment for user: {}, slot: {}, service: {}",
                 request.getUserId(), request.getSlotId(), request.getServiceId());
-        if (!isSlotAvailable(request.getSlotId())) {
-            throw new SlotNotAvailableException("Slot with id " + request.getSlotId() + " is not available");
-        }
-        User user = userRepository.findById(request.getUserId()).orElseThrow(() -> new EntityNotFoundException("User not found with id: " + request.getUserId()));
-        AvailableSlot slot = availableSlotRepository.findById(request.getSlotId()).orElseThrow(() -> new EntityNotFoundException("Slot not found with id: " + request.getSlotId()));
-        OfferedService service = offeredServiceRepository.findById(request.getServiceId()).orElseThrow(() -> new EntityNotFoundException("Service not found with id: " + request.getServiceId()));
-        Appointment appointment = AppointmentMapper.toEntity(request, user, slot, service);
-        Appointment savedAppointment = appointmentRepository.save(appointment);
+        slotHoldService.consumeHold(request.getSlotId(), request.getUserId(), request.getHoldToken());
+        // warunkowy UPDATE decyduje o rezerwacji i zwraca slot - referencje nie są już inicjalizowane
+        AvailableSlotDto bookedSlot = slotKeys.withStartTime(request.getSlotId(),
+                        (slotId, startTime) -> availableSlotRepository.bookIfAvailable(slotId, startTime, Instant.now()))
+                .orElseThrow(() -> new SlotNotAvailableException("Slot with id " + request.getSlotId() + " is not available"));
+        User user = userRepository.getReferenceById(request.getUserId());
+        AvailableSlot slot = availableSlotRepository.getReferenceById(request.getSlotId());
+        OfferedService service = offeredServiceRepository.getReferenceById(request.getServiceId());
+        Appointment appointment = AppointmentMapper.toEntity(request, user, slot, bookedSlot.getStartTime(), service);
+        Appointment savedAppointment;
+        try {
+            savedAppointment = appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException ex) {
+            throw translateInsertFailure(ex, request);
+        }
+        availabilityCache.invalidate(bookedSlot.getSpecialistId(), bookedSlot.getStartTime(), bookedSlot.getEndTime());
+        slotEventHub.publish(bookedSlot.getSpecialistId(), SlotEventType.BOOKED, bookedSlot);
+        AppointmentDto created = AppointmentMapper.toDto(savedAppointment);
+        outboxWriter.append(OutboxEventType.APPOINTMENT_CREATED, created.getId(), bookedSlot.getSpecialistId(), created);
+        if (request.getHoldToken() != null) {
+            waitlistService.offerAccepted(request.getSlotId(), request.getUserId());
+        }
         log.info("Appointment created successfully with id: {}", savedAppointment.getId());
-        return AppointmentMapper.toDto(savedAppointment);
+        return created;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public AppointmentDto createAppointment(CreateAppointmentRequest request, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return bookingShards.book(request.getSlotId(), () -> transactionTemplate.execute(status -> createAppointment(request)));
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        String requestHash = IdempotencyStore.fingerprint(request.getUserId(), request.getSlotId(),
+                request.getServiceId(), request.getNotes(), request.getHoldToken());
+        // powtórka nie otwiera transakcji i nie dotyka tabel rezerwacji
+        Optional<AppointmentDto> recorded = idempotencyStore.find(idempotencyKey, requestHash);
+        if (recorded.isPresent()) {
+            log.info("Replaying appointment {} for idempotency key", recorded.get().getId());
+            return recorded.get();
+        }
+        if (!idempotencyStore.tryBegin(idempotencyKey)) {
+            throw new IdempotencyKeyConflictException("A request with this Idempotency-Key is already in progress");
+        }
+        try {
+            return bookingShards.book(request.getSlotId(), () -> transactionTemplate.execute(status -> {
+                AppointmentDto created = createAppointment(request);
+                idempotencyStore.record(idempotencyKey, requestHash, created);
+                return created;
+            }));
+        } catch (RuntimeException ex) {
+            // inna instancja mogła właśnie zatwierdzić ten sam klucz - wtedy odtwarzamy jej odpowiedź
+            return idempotencyStore.find(idempotencyKey, requestHash).orElseThrow(() -> ex);
+        } finally {
+            idempotencyStore.end(idempotencyKey);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public AppointmentDto createWindowAppointment(CreateWindowAppointmentRequest request) {
+        log.info("Creating window appointment for user: {}, specialist: {}, service: {} at {}",
+                request.getUserId(), request.getSpecialistId(), request.getServiceId(), request.getStartTime());
+        // dwie rezerwacje z tego samego okna ścigają się o jego wersję - przegrany ponawia na tym, co zostało
+        return bookingShards.execute(request.getSpecialistId(), () -> optimisticRetryExecutor.execute("createWindowAppointment", () -> {
+            OfferedService service = offeredServiceRepository.findById(request.getServiceId())
+                    .orElseThrow(() -> new ServiceNotFoundException("Service not found with id: " + request.getServiceId()));
+            AvailableSlotDto bookedSlot = availableSlotService.bookFromWindow(
+                    request.getSpecialistId(), request.getStartTime(), service.getDurationMinutes());
+            CreateAppointmentRequest slotRequest = new CreateAppointmentRequest(
+                    request.getUserId(), bookedSlot.getId(), request.getServiceId(), request.getNotes(), null);
+            User user = userRepository.getReferenceById(request.getUserId());
+            AvailableSlot slot = availableSlotRepository.getReferenceById(bookedSlot.getId());
+            Appointment appointment = AppointmentMapper.toEntity(slotRequest, user, slot, bookedSlot.getStartTime(), service);
+            Appointment savedAppointment;
+            try {
+                savedAppointment = appointmentRepository.saveAndFlush(appointment);
+            } catch (DataIntegrityViolationException ex) {
+                throw translateInsertFailure(ex, slotRequest);
+            }
+            AppointmentDto created = AppointmentMapper.toDto(savedAppointment);
+            outboxWriter.append(OutboxEventType.APPOINTMENT_CREATED, created.getId(), bookedSlot.getSpecialistId(), created);
+            log.info("Window appointment created successfully with id: {}", savedAppointment.getId());
+            return created;
+        }));
     }
 
     @Override
     public AppointmentDto getAppointmentById(Long id) {
         log.info("Fetching appointment with id: {}", id);
-        Appointment appointment = appointmentRepository.findById(id).orElseThrow(() -> new AppointmentNotFoundException("Appointment not found with id: " + id));
-        return AppointmentMapper.toDto(appointment);
+        return appointmentRepository.findDtoById(id).orElseThrow(() -> new AppointmentNotFoundException("Appointment not found with id: " + id));
     }
 
     @Override
-    public List<AppointmentDto> getAllAppointments() {
-        log.info("Fetching all appointments");
+    public CursorPage<AppointmentDto> getAppointmentsPage(AppointmentStatus status, String cursor, Integer size) {
+        log.info("Fetching appointments page after cursor: {}, size: {}, status: {}", cursor, size, status);
+        int pageSize = cursorPaging.pageSize(size);
+        Long afterId = cursorPaging.decodeId(cursor);
+        List<AppointmentDto> appointments = status != null ?
+                appointmentRepository.findByStatusAndIdGreaterThanOrderByIdAsc(status, afterId, cursorPaging.probeLimit(pageSize)) :
+                appointmentRepository.findByIdGreaterThanOrderByIdAsc(afterId, cursorPaging.probeLimit(pageSize));
+        return cursorPaging.toPage(appointments, pageSize, Function.identity(), appointment -> cursorPaging.encodeId(appointment.getId()));
+    }
 
-        List<Appointment> appointments = appointmentRepository.findAll();
-        return appointments.stream()
-                .map(AppointmentMapper::toDto)
-                .collect(Collectors.toList());
+    @Override
+    public long exportAppointments(AppointmentStatus status, LocalDateTime from, LocalDateTime to, OutputStream out) {
+        log.info("Exporting appointments with status: {} between {} and {}", status, from, to);
+        long exported = ndjsonExporter.export(
+                appointmentRepository.streamForExport(status, from, to), AppointmentMapper::toDto, out);
+        log.info("Exported {} appointments", exported);
+        return exported;
     }
 
     @Override
     public List<AppointmentDto> getAppointmentsByUserId(Long userId) {
         log.info("Fetching appointments for user: {}", userId);
-        if (!userRepository.existsById(userId)) {
+        List<AppointmentDto> appointments = appointmentRepository.findByUserId(userId);
+        // istnienie użytkownika sprawdzamy tylko przy pustym wyniku
+        if (appointments.isEmpty() && !userRepository.existsById(userId)) {
             throw new EntityNotFoundException("User not found with id: " + userId);
         }
-        List<Appointment> appointments = appointmentRepository.findByUserId(userId);
-        return appointments.stream()
-                .map(AppointmentMapper::toDto)
-                .collect(Collectors.toList());
+        return appointments;
     }
 
     @Override
     public List<AppointmentDto> getAppointmentsByStatus(AppointmentStatus status) {
         log.info("Fetching appointments with status: {}", status);
-        List<Appointment> appointments = appointmentRepository.findByStatus(status);
-        return appointments.stream().map(AppointmentMapper::toDto).collect(Collectors.toList());
+        return appointmentRepository.findByStatus(status);
     }
 
     @Override
@@ -93,12 +238,67 @@ public class AppointmentServiceImpl implements AppointmentService {
     public AppointmentDto updateAppointmentStatus(Long id, AppointmentStatus status) {
         log.info("Updating appointment status for id: {} to: {}", id, status);
         Appointment appointment = appointmentRepository.findById(id).orElseThrow(() -> new AppointmentNotFoundException("Appointment not found with id: " + id));
+        if (status == AppointmentStatus.CANCELLED) {
+            // anulowanie zwalnia slot - ta sama ścieżka co DELETE /cancel
+            return AppointmentMapper.toDto(cancel(appointment));
+        }
+        AppointmentStatus previousStatus = appointment.getStatus();
+        if (previousStatus == AppointmentStatus.CANCELLED) {
+            throw new IllegalStateException("Cannot change status of cancelled appointment");
+        }
         appointment.setStatus(status);
         Appointment updatedAppointment = appointmentRepository.save(appointment);
+        if (previousStatus != status) {
+            // specjalista z SlotKeys - bez ładowania slotu po samym id
+            Long specialistId = slotKeys.find(appointment.getSlot().getId()).map(SlotKeys.Key::specialistId).orElse(null);
+            outboxWriter.append(OutboxEventType.APPOINTMENT_STATUS_CHANGED, id,
+                    specialistId, new AppointmentStatusChange(id, previousStatus, status));
+        }
         log.info("Appointment status updated successfully for id: {}", id);
         return AppointmentMapper.toDto(updatedAppointment);
     }
 
+    @Override
+    @Transactional
+    public BulkStatusUpdateResponse updateAppointmentStatuses(List<Long> ids, AppointmentStatus status) {
+        log.info("Bulk updating {} appointments to status: {}", ids.size(), status);
+        Set<AppointmentStatus> sources = AppointmentTransitions.sourcesOf(status);
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        if (distinctIds.size() > maxBulkIds) {
+            throw new IllegalArgumentException("At most " + maxBulkIds + " appointments can be updated at once");
+        }
+        Map<Long, AppointmentStatus> previous = new HashMap<>();
+        Map<Long, Long> specialists = new HashMap<>();
+        appointmentRepository.findStatusesByIdIn(distinctIds).forEach(view -> {
+            previous.put(view.getId(), view.getStatus());
+            specialists.put(view.getId(), view.getSpecialistId());
+        });
+        List<Long> eligible = distinctIds.stream()
+                .filter(id -> previous.containsKey(id) && sources.contains(previous.get(id)))
+                .toList();
+        int updated = eligible.isEmpty() ? 0 : appointmentRepository.updateStatusIn(eligible, sources, status, Instant.now());
+        Set<Long> changed = new HashSet<>(eligible);
+        if (updated < eligible.size()) {
+            // ktoś zmienił część statusów między odczytem a UPDATE - doczytujemy tylko przy takim wyścigu
+            Map<Long, AppointmentStatus> current = new HashMap<>();
+            appointmentRepository.findStatusesByIdIn(eligible)
+                    .forEach(view -> current.put(view.getId(), view.getStatus()));
+            for (Long id : eligible) {
+                if (current.get(id) != status) {
+                    changed.remove(id);
+                    previous.put(id, current.get(id));
+                }
+            }
+        }
+        changed.forEach(id -> outboxWriter.append(OutboxEventType.APPOINTMENT_STATUS_CHANGED, id,
+                specialists.get(id), new AppointmentStatusChange(id, previous.get(id), status)));
+        List<AppointmentStatusOutcome> outcomes = distinctIds.stream()
+                .map(id -> new AppointmentStatusOutcome(id, previous.get(id), outcomeOf(previous.get(id), status, changed.contains(id))))
+                .toList();
+        log.info("Bulk status update to {} changed {} of {} appointments", status, updated, distinctIds.size());
+        return new BulkStatusUpdateResponse(status, updated, outcomes);
+    }
+
     @Override
     @Transactional
     public AppointmentDto updateAppointmentNotes(Long id, String notes) {
@@ -115,14 +315,7 @@ public class AppointmentServiceImpl implements AppointmentService {
     public void cancelAppointment(Long id) {
         log.info("Cancelling appointment with id: {}", id);
         Appointment appointment = appointmentRepository.findById(id).orElseThrow(() -> new AppointmentNotFoundException("Appointment not found with id: " + id));
-        if (appointment.getStatus() == AppointmentStatus.CANCELLED) {
-            throw new IllegalStateException("Appointment is already cancelled");
-        }
-        if (appointment.getStatus() == AppointmentStatus.COMPLETED) {
-            throw new IllegalStateException("Cannot cancel completed appointment");
-        }
-        appointment.setStatus(AppointmentStatus.CANCELLED);
-        appointmentRepository.save(appointment);
+        cancel(appointment);
         log.info("Appointment cancelled successfully with id: {}", id);
     }
 
@@ -130,23 +323,73 @@ public class AppointmentServiceImpl implements AppointmentService {
     @Transactional
     public void deleteAppointment(Long id) {
         log.info("Deleting appointment with id: {}", id);
-        if (!appointmentRepository.existsById(id)) {
-            throw new AppointmentNotFoundException("Appointment not found with id: " + id);
+        Appointment appointment = appointmentRepository.findById(id).orElseThrow(() -> new AppointmentNotFoundException("Appointment not found with id: " + id));
+        appointmentRepository.delete(appointment);
+        if (ACTIVE_STATUSES.contains(appointment.getStatus())) {
+            SpecialistSlotView slotView = releaseSlot(appointment);
+            slotEventHub.publish(slotView.getSpecialistId(), SlotEventType.RELEASED, AvailableSlotMapper.toDto(slotView));
+            waitlistService.slotReleased(slotView.getId());
         }
-        appointmentRepository.deleteById(id);
         log.info("Appointment deleted successfully with id: {}", id);
     }
 
     @Override
     public boolean isSlotAvailable(Long slotId) {
         log.info("Checking availability for slot: {}", slotId);
-        if (!availableSlotRepository.existsById(slotId)) {
+        // flaga booked i blokady - te same warunki, które sprawdza bookIfAvailable przy rezerwacji
+        try {
+            return availableSlotService.isSlotAvailable(slotId);
+        } catch (SlotNotFoundException ex) {
             return false;
         }
-        boolean isBooked = appointmentRepository.existsBySlotIdAndStatusIn(
-                slotId,
-                List.of(AppointmentStatus.BOOKED, AppointmentStatus.CONFIRMED)
-        );
-        return !isBooked;
+    }
+
+    private static StatusChangeResult outcomeOf(AppointmentStatus previous, AppointmentStatus target, boolean changed) {
+        if (changed) {
+            return StatusChangeResult.UPDATED;
+        }
+        if (previous == null) {
+            return StatusChangeResult.NOT_FOUND;
+        }
+        return previous == target ? StatusChangeResult.UNCHANGED : StatusChangeResult.INVALID_TRANSITION;
+    }
+
+    private Appointment cancel(Appointment appointment) {
+        Long id = appointment.getId();
+        if (appointment.getStatus() == AppointmentStatus.CANCELLED) {
+            throw new IllegalStateException("Appointment is already cancelled");
+        }
+        if (appointment.getStatus() == AppointmentStatus.COMPLETED) {
+            throw new IllegalStateException("Cannot cancel completed appointment");
+        }
+        appointment.setStatus(AppointmentStatus.CANCELLED);
+        Appointment cancelledAppointment = appointmentRepository.save(appointment);
+        SpecialistSlotView slotView = releaseSlot(appointment);
+        slotEventHub.publish(slotView.getSpecialistId(), SlotEventType.RELEASED, AvailableSlotMapper.toDto(slotView));
+        outboxWriter.append(OutboxEventType.APPOINTMENT_CANCELLED, id, slotView.getSpecialistId(),
+                AppointmentMapper.toDto(cancelledAppointment));
+        waitlistService.slotReleased(slotView.getId());
+        return cancelledAppointment;
+    }
+
+    private SpecialistSlotView releaseSlot(Appointment appointment) {
+        // slot_start_time wizyty to klucz partycji slotu - oba zapytania trafiają w jedną partycję
+        Long slotId = appointment.getSlot().getId();
+        availableSlotRepository.releaseIfBooked(slotId, appointment.getSlotStartTime(), Instant.now());
+        SpecialistSlotView slot = availableSlotRepository.findSlotView(slotId, appointment.getSlotStartTime())
+                .orElseThrow(() -> new SlotNotFoundException("Slot not found with id: " + slotId));
+        availabilityCache.invalidate(slot.getSpecialistId(), slot.getStartTime(), slot.getEndTime());
+        return slot;
+    }
+
+    private RuntimeException translateInsertFailure(DataIntegrityViolationException ex, CreateAppointmentRequest request) {
+        String constraint = ex.getCause() instanceof ConstraintViolationException violation ? violation.getConstraintName() : null;
+        if (constraint != null && constraint.contains("user_id")) {
+            return new EntityNotFoundException("User not found with id: " + request.getUserId());
+        }
+        if (constraint != null && constraint.contains("service_id")) {
+            return new EntityNotFoundException("Service not found with id: " + request.getServiceId());
+        }
+        return new SlotNotAvailableException("Slot with id " + request.getSlotId() + " is not available", ex);
     }
 }
\ No newline at end of file
@@ -0,0 +1,113 @@
+package com.michallesiak.booking_system.booking_system.service.impl;
+
+import com.michallesiak.booking_system.booking_system.dto.AvailabilityRuleDto;
+import com.michallesiak.booking_system.booking_system.dto.CreateAvailabilityRuleRequest;
+import com.michallesiak.booking_system.booking_system.exception.AvailabilityRuleNotFoundException;
+import com.michallesiak.booking_system.booking_system.exception.SlotConflictException;
+import com.michallesiak.booking_system.booking_system.mapper.AvailabilityRuleMapper;
+import com.michallesiak.booking_system.booking_system.model.AvailabilityRule;
+import com.michallesiak.booking_system.booking_system.model.Specialist;
+import com.michallesiak.booking_system.booking_system.repository.AvailabilityRuleRepository;
+import com.michallesiak.booking_system.booking_system.repository.SpecialistRepository;
+import com.michallesiak.booking_system.booking_system.service.AvailabilityRuleService;
+import com.michallesiak.booking_system.booking_system.service.support.AvailabilityCache;
+import com.michallesiak.booking_system.booking_system.service.support.AvailabilityRuleExpander;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class AvailabilityRuleServiceImpl implements AvailabilityRuleService {
+
+    private final AvailabilityRuleRepository availabilityRuleRepository;
+    private final SpecialistRepository specialistRepository;
+    private final AvailabilityCache availabilityCache;
+
+    @Override
+    @Transactional
+    public AvailabilityRuleDto createRule(CreateAvailabilityRuleRequest request) {
+        log.info("Creating availability rule for specialist: {} on {} from {} to {}",
+                request.getSpecialistId(), request.getDayOfWeek(), request.getStartTime(), request.getEndTime());
+        validateRuleRequest(request);
+        Specialist specialist = specialistRepository.findById(request.getSpecialistId())
+                .orElseThrow(() -> new EntityNotFoundException("Specialist not found with id: " + request.getSpecialistId()));
+        AvailabilityRule rule = AvailabilityRuleMapper.toEntity(request, specialist);
+        boolean overlapsExisting = availabilityRuleRepository
+                .findBySpecialistIdAndDayOfWeekAndActiveTrue(request.getSpecialistId(), request.getDayOfWeek())
+                .stream()
+                .anyMatch(existing -> AvailabilityRuleExpander.windowsOverlap(existing, rule));
+        if (overlapsExisting) {
+            throw new SlotConflictException("Availability rule overlaps an existing rule");
+        }
+        AvailabilityRule savedRule = availabilityRuleRepository.save(rule);
+        availabilityCache.invalidateSpecialist(specialist.getId());
+        log.info("Availability rule created successfully with id: {}", savedRule.getId());
+        return AvailabilityRuleMapper.toDto(savedRule);
+    }
+
+    @Override
+    public AvailabilityRuleDto getRuleById(Long id) {
+        log.info("Fetching availability rule with id: {}", id);
+        AvailabilityRule rule = availabilityRuleRepository.findById(id)
+                .orElseThrow(() -> new AvailabilityRuleNotFoundException("Availability rule not found with id: " + id));
+        return AvailabilityRuleMapper.toDto(rule);
+    }
+
+    @Override
+    public List<AvailabilityRuleDto> getRulesBySpecialistId(Long specialistId) {
+        log.info("Fetching availability rules for specialist: {}", specialistId);
+        if (!specialistRepository.existsById(specialistId)) {
+            throw new EntityNotFoundException("Specialist not found with id: " + specialistId);
+        }
+        List<AvailabilityRule> rules = availabilityRuleRepository.findBySpecialistId(specialistId);
+        return rules.stream().map(AvailabilityRuleMapper::toDto).collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public AvailabilityRuleDto deactivateRule(Long id) {
+        log.info("Deactivating availability rule: {}", id);
+        AvailabilityRule rule = availabilityRuleRepository.findById(id)
+                .orElseThrow(() -> new AvailabilityRuleNotFoundException("Availability rule not found with id: " + id));
+        if (!rule.isActive()) {
+            throw new IllegalStateException("Availability rule is already inactive");
+        }
+        rule.setActive(false);
+        AvailabilityRule updatedRule = availabilityRuleRepository.save(rule);
+        availabilityCache.invalidateSpecialist(rule.getSpecialist().getId());
+        log.info("Availability rule deactivated: {}", id);
+        return AvailabilityRuleMapper.toDto(updatedRule);
+    }
+
+    @Override
+    @Transactional
+    public void deleteRule(Long id) {
+        log.info("Deleting availability rule with id: {}", id);
+        AvailabilityRule rule = availabilityRuleRepository.findById(id)
+                .orElseThrow(() -> new AvailabilityRuleNotFoundException("Availability rule not found with id: " + id));
+        availabilityRuleRepository.delete(rule);
+        availabilityCache.invalidateSpecialist(rule.getSpecialist().getId());
+        log.info("Availability rule deleted successfully: {}", id);
+    }
+
+    private void validateRuleRequest(CreateAvailabilityRuleRequest request) {
+        if (!request.getStartTime().isBefore(request.getEndTime())) {
+            throw new IllegalArgumentException("Start time must be before end time");
+        }
+        if (Duration.between(request.getStartTime(), request.getEndTime()).toMinutes() < request.getSlotDurationMinutes()) {
+            throw new IllegalArgumentException("Time window is shorter than the slot duration");
+        }
+        if (request.getValidTo() != null && request.getValidTo().isBefore(request.getValidFrom())) {
+            throw new IllegalArgumentException("Valid to date cannot be before valid from date");
+        }
+    }
+}
@@ -2,25 +2,64 @@ package com.michallesiak.booking_system.booking_system.service.impl;
 
 import com.michallesiak.booking_system.booking_system.dto.AvailableSlotDto;
 import com.michallesiak.booking_system.booking_system.dto.CreateAvailableSlotRequest;
+import com.michallesiak.booking_system.booking_system.dto.CursorPage;
+import com.michallesiak.booking_system.booking_system.dto.SlotRangeDeletion;
 import com.michallesiak.booking_system.booking_system.exception.SlotConflictException;
+import com.michallesiak.booking_system.booking_system.exception.SlotNotAvailableException;
 import com.michallesiak.booking_system.booking_system.exception.SlotNotFoundException;
 import com.michallesiak.booking_system.booking_system.mapper.AvailableSlotMapper;
+import com.michallesiak.booking_system.booking_system.model.AvailabilityRule;
 import com.michallesiak.booking_system.booking_system.model.AvailableSlot;
 import com.michallesiak.booking_system.booking_system.model.Specialist;
+import com.michallesiak.booking_system.booking_system.model.enums.OutboxEventType;
+import com.michallesiak.booking_system.booking_system.model.enums.SlotEventType;
+import com.michallesiak.booking_system.booking_system.repository.AvailabilityRuleRepository;
 import com.michallesiak.booking_system.booking_system.repository.AvailableSlotRepository;
 import com.michallesiak.booking_system.booking_system.repository.SpecialistRepository;
+import com.michallesiak.booking_system.booking_system.repository.projection.SlotTimeView;
 import com.michallesiak.booking_system.booking_system.service.AvailableSlotService;
+import com.michallesiak.booking_system.booking_system.service.SlotHoldService;
+import com.michallesiak.booking_system.booking_system.service.WaitlistService;
+import com.michallesiak.booking_system.booking_system.service.support.AvailabilityCache;
+import com.michallesiak.booking_system.booking_system.service.support.BookingShards;
+import com.michallesiak.booking_system.booking_system.service.support.AvailabilityRuleExpander;
+import com.michallesiak.booking_system.booking_system.service.support.CursorPaging;
+import com.michallesiak.booking_system.booking_system.service.support.DayCalendar;
+import com.michallesiak.booking_system.booking_system.service.support.NdjsonExporter;
+import com.michallesiak.booking_system.booking_system.service.support.OptimisticRetryExecutor;
+import com.michallesiak.booking_system.booking_system.service.support.OutboxWriter;
+import com.michallesiak.booking_system.booking_system.service.support.PartitionMaintenance;
+import com.michallesiak.booking_system.booking_system.service.support.SlotEventHub;
+import com.michallesiak.booking_system.booking_system.service.support.SlotIntervalIndex;
+import com.michallesiak.booking_system.booking_system.service.support.SlotKeys;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.time.temporal.ChronoUnit;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,8 +67,33 @@ import java.util.stream.Collectors;
 @Slf4j
 @Transactional(readOnly = true)
 public class AvailableSlotServiceImpl implements AvailableSlotService {
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     private final AvailableSlotRepository availableSlotRepository;
     private final SpecialistRepository specialistRepository;
+    private final AvailabilityRuleRepository availabilityRuleRepository;
+    private final SlotIntervalIndex slotIntervalIndex;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+    private final SlotHoldService slotHoldService;
+    private final CursorPaging cursorPaging;
+    private final NdjsonExporter ndjsonExporter;
+    private final AvailabilityCache availabilityCache;
+
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxWriter outboxWriter;
+    private final SlotEventHub slotEventHub;
+    private final WaitlistService waitlistService;
+    private final BookingShards bookingShards;
+    private final PartitionMaintenance partitionMaintenance;
+    private final SlotKeys slotKeys;
+
+    @Value("${booking.availability-cache.max-range-days:31}")
+    private int maxCachedRangeDays;
+
+    @Value("${booking.slots.bulk-delete-chunk-size:5000}")
+    private int deleteChunkSize;
+
     @Override
     @Transactional
     public AvailableSlotDto createSlot(CreateAvailableSlotRequest request) {
@@ -38,61 +102,78 @@ public class AvailableSlotServiceImpl implements AvailableSlotService {
         validateSlotTimes(request.getStartTime(), request.getEndTime());
         Specialist specialist = specialistRepository.findById(request.getSpecialistId())
                 .orElseThrow(() -> new EntityNotFoundException("Specialist not found with id: " + request.getSpecialistId()));
-        if (isSlotConflicting(request.getSpecialistId(), request.getStartTime(), request.getEndTime(), null)) {
-            throw new SlotConflictException("Time slot conflicts with existing slots");
-        }
         AvailableSlot slot = AvailableSlotMapper.toEntity(request, specialist);
-        AvailableSlot savedSlot = availableSlotRepository.save(slot);
+        AvailableSlot savedSlot = insertSlot(slot);
+        slotIntervalIndex.slotAdded(specialist.getId(), savedSlot.getId(), savedSlot.getStartTime(), savedSlot.getEndTime());
+        availabilityCache.invalidate(specialist.getId(), savedSlot.getStartTime(), savedSlot.getEndTime());
+        AvailableSlotDto createdSlot = AvailableSlotMapper.toDto(savedSlot);
+        slotEventHub.publish(specialist.getId(), SlotEventType.CREATED, createdSlot);
         log.info("Slot created successfully with id: {}", savedSlot.getId());
-        return AvailableSlotMapper.toDto(savedSlot);
+        return createdSlot;
     }
 
     @Override
     public AvailableSlotDto getSlotById(Long id) {
         log.info("Fetching slot with id: {}", id);
-        AvailableSlot slot = availableSlotRepository.findById(id).orElseThrow(() -> new SlotNotFoundException("Slot not found with id: " + id));
-        return AvailableSlotMapper.toDto(slot);
+        return slotKeys.withStartTime(id, availableSlotRepository::findDtoByIdAndStartTime)
+                .orElseThrow(() -> new SlotNotFoundException("Slot not found with id: " + id));
     }
 
     @Override
-    public List<AvailableSlotDto> getAllSlots() {
-        log.info("Fetching all slots");
-        List<AvailableSlot> slots = availableSlotRepository.findAll();
-        return slots.stream().map(AvailableSlotMapper::toDto).collect(Collectors.toList());
+    public CursorPage<AvailableSlotDto> getSlotsPage(String cursor, Integer size) {
+        log.info("Fetching slots page after cursor: {}, size: {}", cursor, size);
+        int pageSize = cursorPaging.pageSize(size);
+        CursorPaging.SlotKey after = cursorPaging.decodeSlotKey(cursor);
+        List<AvailableSlotDto> slots = after == null ?
+                availableSlotRepository.findAllByOrderByStartTimeAscIdAsc(cursorPaging.probeLimit(pageSize)) :
+                availableSlotRepository.findPageAfter(after.startTime(), after.id(), cursorPaging.probeLimit(pageSize));
+        return cursorPaging.toPage(slots, pageSize, Function.identity(),
+                slot -> cursorPaging.encodeSlotKey(slot.getStartTime(), slot.getId()));
+    }
+
+    @Override
+    public long exportSlots(Long specialistId, Boolean booked, LocalDateTime from, LocalDateTime to, OutputStream out) {
+        log.info("Exporting slots for specialist: {}, booked: {}, between {} and {}", specialistId, booked, from, to);
+        long exported = ndjsonExporter.export(
+                availableSlotRepository.streamForExport(specialistId, booked, from, to), AvailableSlotMapper::toDto, out);
+        log.info("Exported {} slots", exported);
+        return exported;
     }
 
     @Override
     public List<AvailableSlotDto> getSlotsBySpecialistId(Long specialistId) {
         log.info("Fetching all slots for specialist: {}", specialistId);
-        if (!specialistRepository.existsById(specialistId)) {
+        List<AvailableSlotDto> slots = availableSlotRepository.findBySpecialistId(specialistId);
+        // istnienie specjalisty sprawdzamy tylko przy pustym wyniku
+        if (slots.isEmpty() && !specialistRepository.existsById(specialistId)) {
             throw new EntityNotFoundException("Specialist not found with id: " + specialistId);
         }
-        List<AvailableSlot> slots = availableSlotRepository.findBySpecialistId(specialistId);
-        return slots.stream().map(AvailableSlotMapper::toDto).collect(Collectors.toList());
+        return slots;
     }
 
     @Override
     public List<AvailableSlotDto> getAvailableSlotsBySpecialistId(Long specialistId) {
         log.info("Fetching available slots for specialist: {}", specialistId);
-        if (!specialistRepository.existsById(specialistId)) {
+        List<AvailableSlotDto> slots = availableSlotRepository.findBySpecialistIdAndBookedFalse(specialistId);
+        if (slots.isEmpty() && !specialistRepository.existsById(specialistId)) {
             throw new EntityNotFoundException("Specialist not found with id: " + specialistId);
         }
-
-        List<AvailableSlot> slots = availableSlotRepository.findBySpecialistIdAndBookedFalse(specialistId);
-        return slots.stream().map(AvailableSlotMapper::toDto).collect(Collectors.toList());
+        return slots;
     }
 
     @Override
     public List<AvailableSlotDto> getSlotsBySpecialistAndDateRange(Long specialistId, LocalDateTime start, LocalDateTime end) {
         log.info("Fetching slots for specialist: {} between {} and {}", specialistId, start, end);
-        if (!specialistRepository.existsById(specialistId)) {
-            throw new EntityNotFoundException("Specialist not found with id: " + specialistId);
-        }
         if (start.isAfter(end)) {
             throw new IllegalArgumentException("Start time cannot be after end time");
         }
-        List<AvailableSlot> slots = availableSlotRepository.findBySpecialistIdAndStartTimeBetween(specialistId, start, end);
-        return slots.stream().map(AvailableSlotMapper::toDto).collect(Collectors.toList());
+        if (ChronoUnit.DAYS.between(start.toLocalDate(), end.toLocalDate()) >= maxCachedRangeDays) {
+            if (!specialistRepository.existsById(specialistId)) {
+                throw new EntityNotFoundException("Specialist not found with id: " + specialistId);
+            }
+            return withRuleSlots(specialistId, start, end, false);
+        }
+        return cachedSlots(specialistId, start, end, false, true);
     }
 
     @Override
@@ -100,34 +181,130 @@ public class AvailableSlotServiceImpl implements AvailableSlotService {
         log.info("Fetching available slots for specialist: {} on date: {}", specialistId, date);
         LocalDateTime startOfDay = date.atStartOfDay();
         LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
-        List<AvailableSlot> slots = availableSlotRepository.findBySpecialistIdAndStartTimeBetweenAndBookedFalse(
-                specialistId, startOfDay, endOfDay);
-        return slots.stream().map(AvailableSlotMapper::toDto).collect(Collectors.toList());
+        return cachedSlots(specialistId, startOfDay, endOfDay, true, false);
+    }
+
+    @Override
+    public List<AvailableSlotDto> getAvailableSlotsBySpecialistAndDate(Long specialistId, LocalDate date, int minFreeMinutes) {
+        log.info("Fetching slots for specialist: {} on date: {} with at least {} free minutes", specialistId, date, minFreeMinutes);
+        return startingFreeRuns(getAvailableSlotsBySpecialistAndDate(specialistId, date), minFreeMinutes);
+    }
+
+    @Override
+    public List<AvailableSlotDto> getAvailableSlotsBySpecialistId(Long specialistId, int minFreeMinutes) {
+        log.info("Fetching slots for specialist: {} with at least {} free minutes", specialistId, minFreeMinutes);
+        return startingFreeRuns(getAvailableSlotsBySpecialistId(specialistId), minFreeMinutes);
+    }
+
+    @Override
+    @Transactional
+    public AvailableSlotDto materializeSlot(Long specialistId, LocalDateTime startTime) {
+        log.info("Materializing slot for specialist: {} at {}", specialistId, startTime);
+        Optional<AvailableSlot> existingSlot = availableSlotRepository.findBySpecialistIdAndStartTime(specialistId, startTime);
+        if (existingSlot.isPresent()) {
+            return AvailableSlotMapper.toDto(existingSlot.get());
+        }
+        Specialist specialist = specialistRepository.findById(specialistId)
+                .orElseThrow(() -> new EntityNotFoundException("Specialist not found with id: " + specialistId));
+        List<AvailabilityRule> rules = availabilityRuleRepository.findActiveRulesForDayOfWeek(
+                specialistId, startTime.getDayOfWeek(), startTime.toLocalDate(), startTime.toLocalDate());
+        LocalDateTime endTime = AvailabilityRuleExpander.findSlotEnd(rules, startTime)
+                .orElseThrow(() -> new SlotNotFoundException("No availability rule offers a slot starting at " + startTime));
+        validateSlotTimes(startTime, endTime);
+        AvailableSlot slot = new AvailableSlot();
+        slot.setSpecialist(specialist);
+        slot.setStartTime(startTime);
+        slot.setEndTime(endTime);
+        slot.setBooked(false);
+        AvailableSlot savedSlot = insertSlot(slot);
+        slotIntervalIndex.slotAdded(specialistId, savedSlot.getId(), startTime, endTime);
+        availabilityCache.invalidate(specialistId, startTime, endTime);
+        AvailableSlotDto materializedSlot = AvailableSlotMapper.toDto(savedSlot);
+        slotEventHub.publish(specialistId, SlotEventType.CREATED, materializedSlot);
+        log.info("Slot materialized with id: {}", savedSlot.getId());
+        return materializedSlot;
     }
 
     @Override
     @Transactional
+    public AvailableSlotDto bookFromWindow(Long specialistId, LocalDateTime startTime, int durationMinutes) {
+        log.info("Booking {} minutes from free window of specialist: {} at {}", durationMinutes, specialistId, startTime);
+        if (durationMinutes <= 0) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+        LocalDateTime endTime = startTime.plusMinutes(durationMinutes);
+        validateSlotTimes(startTime, endTime);
+        // sloty się nie nakładają (EXCLUDE) i nie przekraczają granicy miesiąca, więc jedynym kandydatem
+        // jest ostatni slot tego miesiąca zaczynający się nie później niż startTime - jedno zejście po indeksie
+        AvailableSlot window = availableSlotRepository.findFirstBySpecialistIdAndStartTimeBetweenOrderByStartTimeDesc(
+                        specialistId, startTime.toLocalDate().withDayOfMonth(1).atStartOfDay(), startTime)
+                .filter(slot -> !slot.isBooked() && !slot.getEndTime().isBefore(endTime))
+                .filter(slot -> !slotHoldService.isHeld(slot.getId()))
+                .orElseThrow(() -> new SlotNotAvailableException(
+                        "No free window of specialist " + specialistId + " covers " + startTime + " - " + endTime));
+        LocalDateTime windowStart = window.getStartTime();
+        LocalDateTime windowEnd = window.getEndTime();
+        // najpierw zwężamy okno do rezerwacji, dopiero potem wstawiamy resztki - EXCLUDE nie widzi nakładania
+        window.setStartTime(startTime);
+        window.setEndTime(endTime);
+        window.setBooked(true);
+        AvailableSlot bookedSlot = availableSlotRepository.saveAndFlush(window);
+        slotKeys.remember(bookedSlot.getId(), specialistId, startTime);
+        slotIntervalIndex.slotRemoved(specialistId, bookedSlot.getId(), windowStart);
+        slotIntervalIndex.slotAdded(specialistId, bookedSlot.getId(), startTime, endTime);
+        if (windowStart.isBefore(startTime)) {
+            insertRemainder(window.getSpecialist(), windowStart, startTime);
+        }
+        if (endTime.isBefore(windowEnd)) {
+            insertRemainder(window.getSpecialist(), endTime, windowEnd);
+        }
+        availabilityCache.invalidate(specialistId, windowStart, windowEnd);
+        AvailableSlotDto booked = AvailableSlotMapper.toDto(bookedSlot);
+        slotEventHub.publish(specialistId, SlotEventType.BOOKED, booked);
+        log.info("Booked slot {} carved from window {} - {}", bookedSlot.getId(), windowStart, windowEnd);
+        return booked;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public AvailableSlotDto markSlotAsBooked(Long id) {
         log.info("Marking slot as booked: {}", id);
-        AvailableSlot slot = availableSlotRepository.findById(id).orElseThrow(() -> new SlotNotFoundException("Slot not found with id: " + id));
-        if (slot.isBooked()) {
-            throw new IllegalStateException("Slot is already booked");
-        }
-        slot.setBooked(true);
-        AvailableSlot updatedSlot = availableSlotRepository.save(slot);
+        AvailableSlotDto bookedSlot = bookingShards.book(id, () -> transactionTemplate.execute(status -> {
+            // bez tokenu - zablokowany slot można zarezerwować tylko przez wizytę z holdToken
+            slotHoldService.consumeHold(id, null, null);
+            AvailableSlotDto booked = slotKeys.withStartTime(id,
+                    (slotId, startTime) -> availableSlotRepository.bookIfAvailable(slotId, startTime, Instant.now())).orElse(null);
+            if (booked == null) {
+                if (slotKeys.find(id).isEmpty()) {
+                    throw new SlotNotFoundException("Slot not found with id: " + id);
+                }
+                throw new IllegalStateException("Slot is already booked");
+            }
+            availabilityCache.invalidate(booked.getSpecialistId(), booked.getStartTime(), booked.getEndTime());
+            outboxWriter.append(OutboxEventType.SLOT_BOOKED, id, booked.getSpecialistId(), booked);
+            slotEventHub.publish(booked.getSpecialistId(), SlotEventType.BOOKED, booked);
+            return booked;
+        }), () -> new IllegalStateException("Slot is already booked"));
         log.info("Slot marked as booked: {}", id);
-        return AvailableSlotMapper.toDto(updatedSlot);
+        return bookedSlot;
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public AvailableSlotDto markSlotAsAvailable(Long id) {
         log.info("Marking slot as available: {}", id);
-        AvailableSlot slot = availableSlotRepository.findById(id).orElseThrow(() -> new SlotNotFoundException("Slot not found with id: " + id));
-        slot.setBooked(false);
-        AvailableSlot updatedSlot = availableSlotRepository.save(slot);
-        log.info("Slot marked as available: {}", id);
-        return AvailableSlotMapper.toDto(updatedSlot);
+        return optimisticRetryExecutor.execute("markSlotAsAvailable", () -> {
+            AvailableSlot slot = slotKeys.withStartTime(id, availableSlotRepository::findByIdAndStartTime)
+                    .orElseThrow(() -> new SlotNotFoundException("Slot not found with id: " + id));
+            slot.setBooked(false);
+            AvailableSlot updatedSlot = availableSlotRepository.saveAndFlush(slot);
+            availabilityCache.invalidate(updatedSlot.getSpecialist().getId(), updatedSlot.getStartTime(), updatedSlot.getEndTime());
+            AvailableSlotDto releasedSlot = AvailableSlotMapper.toDto(updatedSlot);
+            slotEventHub.publish(releasedSlot.getSpecialistId(), SlotEventType.RELEASED, releasedSlot);
+            waitlistService.slotReleased(id);
+            log.info("Slot marked as available: {}", id);
+            return releasedSlot;
+        });
     }
 
     @Override
@@ -142,73 +319,227 @@ public class AvailableSlotServiceImpl implements AvailableSlotService {
         if (startTime.isAfter(endTime)) {
             throw new IllegalArgumentException("Start time cannot be after end time");
         }
-        Specialist specialist = specialistRepository.findById(specialistId)
-                .orElseThrow(() -> new EntityNotFoundException("Specialist not found with id: " + specialistId));
-        List<AvailableSlot> slots = new ArrayList<>();
+        validateWithinHorizon(endTime);
+        if (!specialistRepository.existsById(specialistId)) {
+            throw new EntityNotFoundException("Specialist not found with id: " + specialistId);
+        }
+        List<SlotTimeView> existingSlots = availableSlotRepository
+                .findBySpecialistIdAndStartTimeLessThanEqualAndEndTimeAfterOrderByStartTime(specialistId, endTime, startTime);
+        List<LocalDateTime> startTimes = new ArrayList<>();
+        List<LocalDateTime> endTimes = new ArrayList<>();
+        int existingIndex = 0;
         LocalDateTime current = startTime;
-        while (current.plusMinutes(durationMinutes).isBefore(endTime) || current.plusMinutes(durationMinutes).equals(endTime)) {
+        while (!current.plusMinutes(durationMinutes).isAfter(endTime)) {
             LocalDateTime slotEnd = current.plusMinutes(durationMinutes);
-            if (!isSlotConflicting(specialistId, current, slotEnd, null)) {
-                AvailableSlot slot = new AvailableSlot();
-                slot.setSpecialist(specialist);
-                slot.setStartTime(current);
-                slot.setEndTime(slotEnd);
-                slot.setBooked(false);
-                slots.add(slot);
-            } else {
+            // both sequences are sorted, so slots ending before the candidate never matter again
+            while (existingIndex < existingSlots.size()
+                    && !existingSlots.get(existingIndex).getEndTime().isAfter(current)) {
+                existingIndex++;
+            }
+            if (existingIndex < existingSlots.size()
+                    && existingSlots.get(existingIndex).getStartTime().isBefore(slotEnd)) {
                 log.warn("Skipping conflicting slot from {} to {}", current, slotEnd);
+            } else if (crossesMonthBoundary(current, slotEnd)) {
+                log.warn("Skipping slot from {} to {} spanning a month boundary", current, slotEnd);
+            } else {
+                startTimes.add(current);
+                endTimes.add(slotEnd);
             }
-            current = current.plusMinutes(durationMinutes);
+            current = slotEnd;
         }
-        if (slots.isEmpty()) {
+        if (startTimes.isEmpty()) {
             throw new SlotConflictException("No slots could be created due to conflicts");
         }
-        List<AvailableSlot> savedSlots = availableSlotRepository.saveAll(slots);
+        List<AvailableSlotDto> savedSlots = availableSlotRepository.insertSlotsSkippingConflicts(specialistId, startTimes, endTimes);
+        if (savedSlots.isEmpty()) {
+            throw new SlotConflictException("No slots could be created due to conflicts");
+        }
+        savedSlots.sort(Comparator.comparing(AvailableSlotDto::getStartTime));
+        savedSlots.forEach(slot -> {
+            slotKeys.remember(slot.getId(), specialistId, slot.getStartTime());
+            slotIntervalIndex.slotAdded(specialistId, slot.getId(), slot.getStartTime(), slot.getEndTime());
+            slotEventHub.publish(specialistId, SlotEventType.CREATED, slot);
+        });
+        availabilityCache.invalidate(specialistId, startTime, endTime);
         log.info("Created {} slots successfully", savedSlots.size());
-        return savedSlots.stream()
-                .map(AvailableSlotMapper::toDto)
-                .collect(Collectors.toList());
+        return savedSlots;
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void deleteSlot(Long id) {
         log.info("Deleting slot with id: {}", id);
-        AvailableSlot slot = availableSlotRepository.findById(id).orElseThrow(() -> new SlotNotFoundException("Slot not found with id: " + id));
-        if (slot.isBooked()) {
-            throw new IllegalStateException("Cannot delete booked slot");
-        }
-        availableSlotRepository.deleteById(id);
+        optimisticRetryExecutor.run("deleteSlot", () -> {
+            AvailableSlot slot = slotKeys.withStartTime(id, availableSlotRepository::findByIdAndStartTime)
+                    .orElseThrow(() -> new SlotNotFoundException("Slot not found with id: " + id));
+            if (slot.isBooked()) {
+                throw new IllegalStateException("Cannot delete booked slot");
+            }
+            AvailableSlotDto deletedSlot = AvailableSlotMapper.toDto(slot);
+            availableSlotRepository.delete(slot);
+            availableSlotRepository.flush();
+            outboxWriter.append(OutboxEventType.SLOT_DELETED, id, deletedSlot.getSpecialistId(), deletedSlot);
+            slotEventHub.publish(deletedSlot.getSpecialistId(), SlotEventType.DELETED, deletedSlot);
+            slotIntervalIndex.slotRemoved(slot.getSpecialist().getId(), id, slot.getStartTime());
+            availabilityCache.invalidate(slot.getSpecialist().getId(), slot.getStartTime(), slot.getEndTime());
+        });
         log.info("Slot deleted successfully: {}", id);
     }
 
     @Override
-    @Transactional
-    public void deleteSlotsBySpecialistAndDateRange(Long specialistId, LocalDateTime start, LocalDateTime end) {
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public int deleteSlotsBySpecialistAndDateRange(Long specialistId, LocalDateTime start, LocalDateTime end) {
         log.info("Deleting slots for specialist: {} between {} and {}", specialistId, start, end);
-        List<AvailableSlot> slots = availableSlotRepository.findBySpecialistIdAndStartTimeBetween(specialistId, start, end);
-        List<AvailableSlot> bookedSlots = slots.stream()
-                .filter(AvailableSlot::isBooked)
-                .collect(Collectors.toList());
-        if (!bookedSlots.isEmpty()) {
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Start time cannot be after end time");
+        }
+        if (availableSlotRepository.existsBySpecialistIdAndStartTimeBetweenAndBookedTrue(specialistId, start, end)) {
             throw new IllegalStateException("Cannot delete slots - some slots are booked");
         }
-        availableSlotRepository.deleteAll(slots);
-        log.info("Deleted {} slots for specialist: {}", slots.size(), specialistId);
+        // każda porcja we własnej transakcji - blokady zwalniane między porcjami, a indeks i cache
+        // czyszczone po commicie każdej z nich, więc błąd w dalszej porcji nie zostawia usuniętych slotów
+        int deleted = 0;
+        int chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> {
+                int removed = availableSlotRepository.deleteFreeSlotsInRange(specialistId, start, end, deleteChunkSize);
+                if (removed > 0) {
+                    SlotRangeDeletion deletion = new SlotRangeDeletion(specialistId, start, end, removed);
+                    outboxWriter.append(OutboxEventType.SLOTS_DELETED, specialistId, specialistId, deletion);
+                    slotEventHub.publish(specialistId, SlotEventType.RANGE_DELETED, deletion);
+                    slotIntervalIndex.evict(specialistId);
+                    // slot zaczynający się ostatniego dnia może przesłaniać reguły dnia następnego
+                    availabilityCache.invalidate(specialistId, start, end.plusDays(1));
+                }
+                return removed;
+            });
+            deleted += chunk;
+        } while (chunk == deleteChunkSize);
+        log.info("Deleted {} slots for specialist: {}", deleted, specialistId);
+        return deleted;
     }
 
     @Override
     public boolean isSlotConflicting(Long specialistId, LocalDateTime startTime, LocalDateTime endTime, Long excludeSlotId) {
         log.debug("Checking slot conflicts for specialist: {} from {} to {}", specialistId, startTime, endTime);
-        List<AvailableSlot> existingSlots = availableSlotRepository.findBySpecialistIdAndStartTimeBetween(
-                specialistId, startTime.minusMinutes(1), endTime.plusMinutes(1));
-        return existingSlots.stream()
-                .filter(slot -> excludeSlotId == null || !slot.getId().equals(excludeSlotId))
-                .anyMatch(slot -> isTimeOverlapping(startTime, endTime, slot.getStartTime(), slot.getEndTime()));
+        return slotIntervalIndex.overlaps(specialistId, startTime, endTime, excludeSlotId)
+                .orElseGet(() -> availableSlotRepository.existsConflictingSlot(specialistId, startTime, endTime, excludeSlotId));
+    }
+
+    private List<AvailableSlotDto> startingFreeRuns(List<AvailableSlotDto> freeSlots, int minFreeMinutes) {
+        if (minFreeMinutes <= 0) {
+            throw new IllegalArgumentException("Minimum free minutes must be positive");
+        }
+        Map<LocalDate, DayCalendar> calendars = freeSlots.stream()
+                .collect(Collectors.groupingBy(slot -> slot.getStartTime().toLocalDate()))
+                .entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> DayCalendar.of(entry.getKey(), entry.getValue())));
+        return freeSlots.stream()
+                .filter(slot -> calendars.get(slot.getStartTime().toLocalDate()).isFree(slot.getStartTime(), minFreeMinutes))
+                .collect(Collectors.toList());
     }
 
-    private boolean isTimeOverlapping(LocalDateTime start1, LocalDateTime end1, LocalDateTime start2, LocalDateTime end2) {
-        return start1.isBefore(end2) && end1.isAfter(start2);
+    /**
+     * Serves a time range from cached day lists. Rule slots that already started are filtered
+     * here rather than at load time, so a cached day stays valid as the clock moves.
+     */
+    private List<AvailableSlotDto> cachedSlots(Long specialistId, LocalDateTime from, LocalDateTime to,
+                                               boolean availableOnly, boolean requireSpecialist) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<LocalDate, List<AvailableSlotDto>> days = availabilityCache.getDays(
+                specialistId, from.toLocalDate(), to.toLocalDate(), missingDays -> {
+                    // istnienie specjalisty sprawdzamy tylko przy chybieniu - trafienie oznacza, że już istniał
+                    if (requireSpecialist && !specialistRepository.existsById(specialistId)) {
+                        throw new EntityNotFoundException("Specialist not found with id: " + specialistId);
+                    }
+                    return loadDays(specialistId, missingDays);
+                });
+        List<AvailableSlotDto> result = new ArrayList<>();
+        for (List<AvailableSlotDto> daySlots : days.values()) {
+            for (AvailableSlotDto slot : daySlots) {
+                boolean inRange = !slot.getStartTime().isBefore(from) && !slot.getStartTime().isAfter(to);
+                boolean pastRuleSlot = slot.getId() == null && slot.getStartTime().isBefore(now);
+                if (inRange && !pastRuleSlot && !(availableOnly && slot.isBooked())) {
+                    result.add(slot);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Loads the given days with one slot query and one rule query spanning them, then splits
+     * the rows per day. A slot crossing midnight belongs to both days it touches.
+     */
+    private Map<LocalDate, List<AvailableSlotDto>> loadDays(Long specialistId, Set<LocalDate> dates) {
+        LocalDate first = Collections.min(dates);
+        LocalDate last = Collections.max(dates);
+        List<SlotTimeView> physicalSlots = availableSlotRepository
+                .findBySpecialistIdAndStartTimeLessThanEqualAndEndTimeAfterOrderByStartTime(
+                        specialistId, last.atTime(LocalTime.MAX), first.atStartOfDay());
+        List<AvailabilityRule> rules = availabilityRuleRepository.findActiveRulesForPeriod(specialistId, first, last);
+        Map<LocalDate, List<AvailableSlotDto>> days = new HashMap<>();
+        for (LocalDate date : dates) {
+            LocalDateTime startOfDay = date.atStartOfDay();
+            LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
+            List<SlotTimeView> daySlots = physicalSlots.stream()
+                    .filter(slot -> !slot.getStartTime().isAfter(endOfDay) && slot.getEndTime().isAfter(startOfDay))
+                    .collect(Collectors.toList());
+            List<AvailableSlotDto> virtualSlots = AvailabilityRuleExpander.expand(specialistId, rules, startOfDay, endOfDay);
+            days.put(date, AvailabilityRuleExpander.merge(specialistId, daySlots, virtualSlots, startOfDay, false));
+        }
+        return days;
+    }
+
+    private List<AvailableSlotDto> withRuleSlots(Long specialistId, LocalDateTime from, LocalDateTime to, boolean availableOnly) {
+        List<SlotTimeView> physicalSlots = availableSlotRepository
+                .findBySpecialistIdAndStartTimeLessThanEqualAndEndTimeAfterOrderByStartTime(specialistId, to, from);
+        LocalDateTime now = LocalDateTime.now();
+        List<AvailableSlotDto> virtualSlots = List.of();
+        if (!to.isBefore(now)) {
+            List<AvailabilityRule> rules = availabilityRuleRepository.findActiveRulesForPeriod(
+                    specialistId, from.toLocalDate(), to.toLocalDate());
+            virtualSlots = AvailabilityRuleExpander.expand(specialistId, rules, from.isBefore(now) ? now : from, to);
+        }
+        return AvailabilityRuleExpander.merge(specialistId, physicalSlots, virtualSlots, from, availableOnly);
+    }
+
+    /**
+     * Inserts without a conflict pre-check; the per-partition EXCLUDE constraint rejects
+     * overlapping slots and the violation is reported as a conflict.
+     */
+    private AvailableSlot insertSlot(AvailableSlot slot) {
+        try {
+            AvailableSlot savedSlot = availableSlotRepository.saveAndFlush(slot);
+            slotKeys.remember(savedSlot.getId(), savedSlot.getSpecialist().getId(), savedSlot.getStartTime());
+            return savedSlot;
+        } catch (DataIntegrityViolationException ex) {
+            if (isOverlapViolation(ex)) {
+                throw new SlotConflictException("Time slot conflicts with existing slots", ex);
+            }
+            throw ex;
+        }
+    }
+
+    private void insertRemainder(Specialist specialist, LocalDateTime startTime, LocalDateTime endTime) {
+        AvailableSlot remainder = new AvailableSlot();
+        remainder.setSpecialist(specialist);
+        remainder.setStartTime(startTime);
+        remainder.setEndTime(endTime);
+        remainder.setBooked(false);
+        AvailableSlot savedRemainder = insertSlot(remainder);
+        slotIntervalIndex.slotAdded(specialist.getId(), savedRemainder.getId(), startTime, endTime);
+        slotEventHub.publish(specialist.getId(), SlotEventType.CREATED, AvailableSlotMapper.toDto(savedRemainder));
+    }
+
+    private static boolean isOverlapViolation(DataIntegrityViolationException ex) {
+        return ex.getMostSpecificCause() instanceof SQLException sqlException
+                && (EXCLUSION_VIOLATION.equals(sqlException.getSQLState())
+                || UNIQUE_VIOLATION.equals(sqlException.getSQLState()));
+    }
+
+    private static boolean crossesMonthBoundary(LocalDateTime startTime, LocalDateTime endTime) {
+        return !YearMonth.from(startTime).equals(YearMonth.from(endTime.minusNanos(1)));
     }
 
     private void validateSlotTimes(LocalDateTime startTime, LocalDateTime endTime) {
@@ -224,14 +555,39 @@ public class AvailableSlotServiceImpl implements AvailableSlotService {
         if (startTime.isBefore(LocalDateTime.now())) {
             throw new IllegalArgumentException("Cannot create slots in the past");
         }
+        // sloty są partycjonowane miesięcznie, a wykluczanie nakładania działa w obrębie partycji
+        if (crossesMonthBoundary(startTime, endTime)) {
+            throw new IllegalArgumentException("Slot cannot span a month boundary");
+        }
+        validateWithinHorizon(endTime);
+    }
+
+    private void validateWithinHorizon(LocalDateTime endTime) {
+        // poza ostatnią partycją INSERT kończy się naruszeniem CHECK (23514), a nie konfliktem
+        LocalDateTime horizon = partitionMaintenance.horizon();
+        if (endTime.isAfter(horizon)) {
+            throw new IllegalArgumentException("Slots can only be created before " + horizon);
+        }
     }
     @Override
     public boolean isSlotAvailable(Long slotId) {
         log.info("Checking availability for slot: {}", slotId);
+        if (slotHoldService.isHeld(slotId)) {
+            return false;
+        }
 
-        AvailableSlot slot = availableSlotRepository.findById(slotId)
+        AvailableSlot slot = slotKeys.withStartTime(slotId, availableSlotRepository::findByIdAndStartTime)
                 .orElseThrow(() -> new SlotNotFoundException("Slot not found with id: " + slotId));
 
         return !slot.isBooked();
     }
+
+    @Override
+    public SseEmitter streamSlotChanges(Long specialistId, Long lastEventId) {
+        log.info("Opening slot stream for specialist: {}, last event: {}", specialistId, lastEventId);
+        if (!specialistRepository.existsById(specialistId)) {
+            throw new EntityNotFoundException("Specialist not found with id: " + specialistId);
+        }
+        return slotEventHub.subscribe(specialistId, lastEventId);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,246 @@
+package com.michallesiak.booking_system.booking_system.service.impl;
+
+import com.michallesiak.booking_system.booking_system.dto.AppointmentStatusChange;
+import com.michallesiak.booking_system.booking_system.dto.AvailableSlotDto;
+import com.michallesiak.booking_system.booking_system.dto.SweeperStatusDto;
+import com.michallesiak.booking_system.booking_system.mapper.AvailableSlotMapper;
+import com.michallesiak.booking_system.booking_system.model.enums.AppointmentStatus;
+import com.michallesiak.booking_system.booking_system.model.enums.OutboxEventType;
+import com.michallesiak.booking_system.booking_system.model.enums.SlotEventType;
+import com.michallesiak.booking_system.booking_system.repository.AppointmentRepository;
+import com.michallesiak.booking_system.booking_system.repository.AvailableSlotRepository;
+import com.michallesiak.booking_system.booking_system.repository.projection.AppointmentStatusView;
+import com.michallesiak.booking_system.booking_system.repository.projection.SpecialistSlotView;
+import com.michallesiak.booking_system.booking_system.service.LifecycleSweeperService;
+import com.michallesiak.booking_system.booking_system.service.support.AvailabilityCache;
+import com.michallesiak.booking_system.booking_system.service.support.OutboxWriter;
+import com.michallesiak.booking_system.booking_system.service.support.SlotEventHub;
+import com.michallesiak.booking_system.booking_system.service.support.SlotIntervalIndex;
+import com.michallesiak.booking_system.booking_system.service.support.SweepPolicy;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class LifecycleSweeperServiceImpl implements LifecycleSweeperService {
+
+    private static final String FREE_SLOTS_PASS = "free_slots";
+
+    private final AppointmentRepository appointmentRepository;
+    private final AvailableSlotRepository availableSlotRepository;
+    private final SlotIntervalIndex slotIntervalIndex;
+    private final AvailabilityCache availabilityCache;
+    private final OutboxWriter outboxWriter;
+    private final SlotEventHub slotEventHub;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final SweepPolicy policy;
+    private final Timer runTimer;
+    private final AtomicBoolean paused = new AtomicBoolean();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${booking.sweeper.enabled:true}")
+    private boolean enabled;
+
+    @Value("${booking.sweeper.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${booking.sweeper.chunk-pause-ms:50}")
+    private long chunkPauseMs;
+
+    @Value("${booking.sweeper.appointment-grace-minutes:60}")
+    private long appointmentGraceMinutes;
+
+    @Value("${booking.sweeper.slot-retention-hours:24}")
+    private long slotRetentionHours;
+
+    private volatile Instant lastRunStartedAt;
+    private volatile Instant lastRunFinishedAt;
+    private volatile Map<String, Long> lastRunRows = Map.of();
+
+    public LifecycleSweeperServiceImpl(AppointmentRepository appointmentRepository,
+                                       AvailableSlotRepository availableSlotRepository,
+                                       SlotIntervalIndex slotIntervalIndex,
+                                       AvailabilityCache availabilityCache,
+                                       OutboxWriter outboxWriter,
+                                       SlotEventHub slotEventHub,
+                                       TransactionTemplate transactionTemplate,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${booking.sweeper.booked-status:NO_SHOW}") String bookedTarget,
+                                       @Value("${booking.sweeper.confirmed-status:COMPLETED}") String confirmedTarget,
+                                       @Value("${booking.sweeper.in-progress-status:COMPLETED}") String inProgressTarget) {
+        this.appointmentRepository = appointmentRepository;
+        this.availableSlotRepository = availableSlotRepository;
+        this.slotIntervalIndex = slotIntervalIndex;
+        this.availabilityCache = availabilityCache;
+        this.outboxWriter = outboxWriter;
+        this.slotEventHub = slotEventHub;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.policy = SweepPolicy.of(bookedTarget, confirmedTarget, inProgressTarget);
+        this.runTimer = meterRegistry.timer("booking.sweeper.run");
+    }
+
+    @Scheduled(fixedDelayString = "${booking.sweeper.interval-ms:300000}",
+            initialDelayString = "${booking.sweeper.initial-delay-ms:60000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void scheduledSweep() {
+        if (enabled && !paused.get()) {
+            sweep();
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SweeperStatusDto sweep() {
+        log.info("Sweeping past appointments and free slots");
+        if (!running.compareAndSet(false, true)) {
+            log.info("Sweep already running, skipping");
+            return getStatus();
+        }
+        try {
+            lastRunStartedAt = Instant.now();
+            Map<String, Long> rows = new LinkedHashMap<>();
+            runTimer.record(() -> {
+                LocalDateTime appointmentCutoff = LocalDateTime.now().minusMinutes(appointmentGraceMinutes);
+                policy.targets().forEach((source, target) ->
+                        rows.put(passName(source), sweepAppointments(source, target, appointmentCutoff)));
+                rows.put(FREE_SLOTS_PASS, sweepFreeSlots(LocalDateTime.now().minusHours(slotRetentionHours)));
+            });
+            rows.forEach((pass, count) -> rowsSummary(pass).record(count));
+            lastRunRows = Map.copyOf(rows);
+            lastRunFinishedAt = Instant.now();
+            log.info("Sweep finished: {}{}", rows, paused.get() ? " (paused)" : "");
+        } finally {
+            running.set(false);
+        }
+        return getStatus();
+    }
+
+    @Override
+    public SweeperStatusDto pause() {
+        log.info("Pausing lifecycle sweeper");
+        paused.set(true);
+        return getStatus();
+    }
+
+    @Override
+    public SweeperStatusDto resume() {
+        log.info("Resuming lifecycle sweeper");
+        paused.set(false);
+        return getStatus();
+    }
+
+    @Override
+    public SweeperStatusDto getStatus() {
+        return new SweeperStatusDto(enabled, paused.get(), running.get(), lastRunStartedAt, lastRunFinishedAt, lastRunRows);
+    }
+
+    private long sweepAppointments(AppointmentStatus source, AppointmentStatus target, LocalDateTime cutoff) {
+        long swept = 0;
+        Long afterId = 0L;
+        while (!paused.get()) {
+            List<AppointmentStatusView> appointments =
+                    appointmentRepository.findPastByStatus(source, afterId, cutoff, Limit.of(chunkSize));
+            if (appointments.isEmpty()) {
+                break;
+            }
+            List<Long> ids = appointments.stream().map(AppointmentStatusView::getId).toList();
+            Integer updated = transactionTemplate.execute(status -> {
+                // status sprawdzany ponownie w UPDATE - wizyta mogła zmienić się od odczytu
+                int changed = appointmentRepository.updateStatusIn(ids, Set.of(source), target, Instant.now());
+                List<AppointmentStatusView> moved = appointments;
+                if (changed < ids.size()) {
+                    Set<Long> nowTarget = appointmentRepository.findStatusesByIdIn(ids).stream()
+                            .filter(view -> view.getStatus() == target)
+                            .map(AppointmentStatusView::getId)
+                            .collect(Collectors.toSet());
+                    moved = appointments.stream().filter(view -> nowTarget.contains(view.getId())).toList();
+                }
+                moved.forEach(view -> outboxWriter.append(OutboxEventType.APPOINTMENT_STATUS_CHANGED, view.getId(),
+                        view.getSpecialistId(), new AppointmentStatusChange(view.getId(), source, target)));
+                return changed;
+            });
+            swept += updated == null ? 0 : updated;
+            afterId = ids.get(ids.size() - 1);
+            if (appointments.size() < chunkSize || !pauseBetweenChunks()) {
+                break;
+            }
+        }
+        return swept;
+    }
+
+    private long sweepFreeSlots(LocalDateTime cutoff) {
+        long deleted = 0;
+        Long afterId = 0L;
+        while (!paused.get()) {
+            List<SpecialistSlotView> slots = availableSlotRepository.findPastFreeSlots(afterId, cutoff, Limit.of(chunkSize));
+            if (slots.isEmpty()) {
+                break;
+            }
+            List<Long> ids = slots.stream().map(SpecialistSlotView::getId).toList();
+            Integer removed = transactionTemplate.execute(status -> {
+                int count = availableSlotRepository.deleteFreeByIdIn(ids);
+                Set<Long> kept = count < ids.size() ? Set.copyOf(availableSlotRepository.findIdsByIdIn(ids)) : Set.of();
+                slots.stream().filter(slot -> !kept.contains(slot.getId())).forEach(slot -> {
+                    slotIntervalIndex.slotRemoved(slot.getSpecialistId(), slot.getId(), slot.getStartTime());
+                    availabilityCache.invalidate(slot.getSpecialistId(), slot.getStartTime(), slot.getEndTime());
+                    AvailableSlotDto deletedSlot = AvailableSlotMapper.toDto(slot);
+                    outboxWriter.append(OutboxEventType.SLOT_DELETED, slot.getId(), slot.getSpecialistId(), deletedSlot);
+                    slotEventHub.publish(slot.getSpecialistId(), SlotEventType.DELETED, deletedSlot);
+                });
+                return count;
+            });
+            deleted += removed == null ? 0 : removed;
+            afterId = ids.get(ids.size() - 1);
+            if (slots.size() < chunkSize || !pauseBetweenChunks()) {
+                break;
+            }
+        }
+        return deleted;
+    }
+
+    private boolean pauseBetweenChunks() {
+        if (chunkPauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(chunkPauseMs);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private DistributionSummary rowsSummary(String pass) {
+        return DistributionSummary.builder("booking.sweeper.rows")
+                .description("Rows processed by one lifecycle sweeper run")
+                .tag("pass", pass)
+                .register(meterRegistry);
+    }
+
+    private static String passName(AppointmentStatus source) {
+        return source.name().toLowerCase(Locale.ROOT);
+    }
+}
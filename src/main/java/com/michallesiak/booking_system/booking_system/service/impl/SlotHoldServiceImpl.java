@@ -0,0 +1,176 @@
+package com.michallesiak.booking_system.booking_system.service.impl;
+
+import com.michallesiak.booking_system.booking_system.dto.SlotHoldDto;
+import com.michallesiak.booking_system.booking_system.exception.SlotHoldNotFoundException;
+import com.michallesiak.booking_system.booking_system.exception.SlotNotAvailableException;
+import com.michallesiak.booking_system.booking_system.exception.SlotNotFoundException;
+import com.michallesiak.booking_system.booking_system.mapper.SlotHoldMapper;
+import com.michallesiak.booking_system.booking_system.model.AvailableSlot;
+import com.michallesiak.booking_system.booking_system.model.SlotHold;
+import com.michallesiak.booking_system.booking_system.model.User;
+import com.michallesiak.booking_system.booking_system.repository.AvailableSlotRepository;
+import com.michallesiak.booking_system.booking_system.repository.SlotHoldRepository;
+import com.michallesiak.booking_system.booking_system.repository.UserRepository;
+import com.michallesiak.booking_system.booking_system.service.SlotHoldService;
+import com.michallesiak.booking_system.booking_system.service.support.SlotHoldTable;
+import com.michallesiak.booking_system.booking_system.service.support.SlotKeys;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class SlotHoldServiceImpl implements SlotHoldService {
+
+    private final SlotHoldRepository slotHoldRepository;
+    private final AvailableSlotRepository availableSlotRepository;
+    private final UserRepository userRepository;
+    private final SlotHoldTable slotHoldTable;
+    private final SlotKeys slotKeys;
+    private final int defaultTtlMinutes;
+    private final int maxTtlMinutes;
+
+    public SlotHoldServiceImpl(SlotHoldRepository slotHoldRepository,
+                               AvailableSlotRepository availableSlotRepository,
+                               UserRepository userRepository,
+                               SlotHoldTable slotHoldTable,
+                               SlotKeys slotKeys,
+                               @Value("${booking.slots.hold.ttl-minutes:10}") int defaultTtlMinutes,
+                               @Value("${booking.slots.hold.max-ttl-minutes:30}") int maxTtlMinutes) {
+        this.slotHoldRepository = slotHoldRepository;
+        this.availableSlotRepository = availableSlotRepository;
+        this.userRepository = userRepository;
+        this.slotHoldTable = slotHoldTable;
+        this.slotKeys = slotKeys;
+        this.defaultTtlMinutes = defaultTtlMinutes;
+        this.maxTtlMinutes = maxTtlMinutes;
+    }
+
+    @Override
+    @Transactional
+    public SlotHoldDto holdSlot(Long slotId, Long userId, Integer minutes) {
+        log.info("Holding slot: {} for user: {}, minutes: {}", slotId, userId, minutes);
+        int ttlMinutes = minutes != null ? minutes : defaultTtlMinutes;
+        if (ttlMinutes < 1 || ttlMinutes > maxTtlMinutes) {
+            throw new IllegalArgumentException("Hold duration must be between 1 and " + maxTtlMinutes + " minutes");
+        }
+        AvailableSlot slot = slotKeys.withStartTime(slotId, availableSlotRepository::findByIdAndStartTime)
+                .orElseThrow(() -> new SlotNotFoundException("Slot not found with id: " + slotId));
+        if (slot.isBooked()) {
+            throw new SlotNotAvailableException("Slot with id " + slotId + " is not available");
+        }
+        User user = userId == null ? null : userRepository.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
+
+        Instant now = Instant.now();
+        SlotHoldTable.Hold hold = new SlotHoldTable.Hold(UUID.randomUUID(), slotId, userId, now.plus(Duration.ofMinutes(ttlMinutes)));
+        // rywalizacja o slot rozstrzyga się w pamięci, baza dostaje tylko zwycięzcę
+        if (!slotHoldTable.tryHold(hold)) {
+            throw new SlotNotAvailableException("Slot with id " + slotId + " is currently held");
+        }
+        releaseUnlessCommitted(hold);
+        slotHoldRepository.deleteExpiredBySlotId(slotId, now);
+        try {
+            slotHoldRepository.saveAndFlush(new SlotHold(hold.token(), slot, slot.getStartTime(), user, hold.expiresAt()));
+        } catch (DataIntegrityViolationException ex) {
+            throw new SlotNotAvailableException("Slot with id " + slotId + " is currently held", ex);
+        }
+        log.info("Slot {} held until {}", slotId, hold.expiresAt());
+        return SlotHoldMapper.toDto(hold);
+    }
+
+    @Override
+    @Transactional
+    public void releaseHold(UUID token) {
+        log.info("Releasing slot hold: {}", token);
+        SlotHoldTable.Hold hold = slotHoldTable.findByToken(token)
+                .orElseThrow(() -> new SlotHoldNotFoundException("Active hold not found with token: " + token));
+        slotHoldRepository.deleteByToken(token);
+        releaseAfterCommit(hold);
+        log.info("Slot hold released for slot: {}", hold.slotId());
+    }
+
+    @Override
+    @Transactional
+    public void consumeHold(Long slotId, Long userId, UUID token) {
+        SlotHoldTable.Hold hold = slotHoldTable.findBySlot(slotId).orElse(null);
+        if (hold == null) {
+            if (token != null) {
+                throw new SlotNotAvailableException("Hold " + token + " has expired or does not exist");
+            }
+            return;
+        }
+        if (!hold.token().equals(token) || (hold.userId() != null && !Objects.equals(hold.userId(), userId))) {
+            throw new SlotNotAvailableException("Slot with id " + slotId + " is held by another client");
+        }
+        slotHoldRepository.deleteByToken(token);
+        releaseAfterCommit(hold);
+    }
+
+    @Override
+    public boolean isHeld(Long slotId) {
+        // tylko pamięć - wyścigi między instancjami rozstrzyga UNIQUE(slot_id) w slot_holds przy zakładaniu blokady
+        return slotHoldTable.isHeld(slotId);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.slots.hold.tick-ms:1000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void expireHolds() {
+        slotHoldTable.expireDue();
+    }
+
+    @Scheduled(fixedDelayString = "${booking.slots.hold.purge-interval-ms:60000}")
+    @Transactional
+    public void purgeExpiredHolds() {
+        int purged = slotHoldRepository.deleteExpired(Instant.now());
+        if (purged > 0) {
+            log.info("Purged {} expired slot holds", purged);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreHolds() {
+        int restored = 0;
+        for (var view : slotHoldRepository.findActiveHolds(Instant.now())) {
+            if (slotHoldTable.tryHold(SlotHoldMapper.toHold(view))) {
+                restored++;
+            }
+        }
+        log.info("Restored {} slot holds", restored);
+    }
+
+    private void releaseAfterCommit(SlotHoldTable.Hold hold) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                slotHoldTable.release(hold);
+            }
+        });
+    }
+
+    private void releaseUnlessCommitted(SlotHoldTable.Hold hold) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    slotHoldTable.release(hold);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,102 @@
+package com.michallesiak.booking_system.booking_system.service.impl;
+
+import com.michallesiak.booking_system.booking_system.dto.AvailableSlotDto;
+import com.michallesiak.booking_system.booking_system.model.AvailabilityRule;
+import com.michallesiak.booking_system.booking_system.repository.AvailabilityRuleRepository;
+import com.michallesiak.booking_system.booking_system.repository.AvailableSlotRepository;
+import com.michallesiak.booking_system.booking_system.repository.SpecialistRepository;
+import com.michallesiak.booking_system.booking_system.repository.projection.SlotTimeView;
+import com.michallesiak.booking_system.booking_system.repository.projection.SpecialistSlotView;
+import com.michallesiak.booking_system.booking_system.service.SlotSearchService;
+import com.michallesiak.booking_system.booking_system.service.support.AvailabilityRuleExpander;
+import com.michallesiak.booking_system.booking_system.service.support.SlotMerger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class SlotSearchServiceImpl implements SlotSearchService {
+
+    private final SpecialistRepository specialistRepository;
+    private final AvailableSlotRepository availableSlotRepository;
+    private final AvailabilityRuleRepository availabilityRuleRepository;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final int horizonDays;
+
+    public SlotSearchServiceImpl(SpecialistRepository specialistRepository,
+                                 AvailableSlotRepository availableSlotRepository,
+                                 AvailabilityRuleRepository availabilityRuleRepository,
+                                 @Value("${booking.search.default-limit:20}") int defaultLimit,
+                                 @Value("${booking.search.max-limit:100}") int maxLimit,
+                                 @Value("${booking.search.horizon-days:30}") int horizonDays) {
+        this.specialistRepository = specialistRepository;
+        this.availableSlotRepository = availableSlotRepository;
+        this.availabilityRuleRepository = availabilityRuleRepository;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.horizonDays = horizonDays;
+    }
+
+    @Override
+    public List<AvailableSlotDto> findEarliestAvailableSlots(Long serviceId, String city, LocalDateTime from, Integer limit) {
+        log.info("Searching earliest available slots for service: {} in city: {} from {}", serviceId, city, from);
+        int k = limit != null ? limit : defaultLimit;
+        if (k < 1 || k > maxLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxLimit);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = from == null || from.isBefore(now) ? now : from;
+        LocalDateTime end = start.plusDays(horizonDays);
+
+        List<Long> specialistIds = city == null || city.isBlank() ?
+                specialistRepository.findIdsByServiceIdAndAcceptingAppointments(serviceId) :
+                specialistRepository.findIdsByServiceIdAndCityAndAcceptingAppointments(serviceId, city.trim());
+        if (specialistIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<List<AvailableSlotDto>> sortedLists = new ArrayList<>();
+        // fizyczne sloty: jedno zapytanie po wszystkich specjalistach, już posortowane i przycięte do k
+        sortedLists.add(availableSlotRepository.findEarliestFreeSlots(specialistIds, start, end, Limit.of(k)));
+        sortedLists.addAll(virtualSlotLists(specialistIds, start, end, k));
+
+        List<AvailableSlotDto> result = SlotMerger.earliest(sortedLists, k);
+        log.info("Found {} slots across {} specialists", result.size(), specialistIds.size());
+        return result;
+    }
+
+    private List<List<AvailableSlotDto>> virtualSlotLists(List<Long> specialistIds, LocalDateTime start, LocalDateTime end, int k) {
+        Map<Long, List<AvailabilityRule>> rulesBySpecialist = availabilityRuleRepository
+                .findActiveRulesForSpecialists(specialistIds, start.toLocalDate(), end.toLocalDate()).stream()
+                .collect(Collectors.groupingBy(rule -> rule.getSpecialist().getId()));
+        if (rulesBySpecialist.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<SlotTimeView>> physicalBySpecialist = availableSlotRepository
+                .findSlotViewsOverlapping(rulesBySpecialist.keySet(), start, end).stream()
+                .collect(Collectors.groupingBy(SpecialistSlotView::getSpecialistId, Collectors.toList()));
+        List<List<AvailableSlotDto>> lists = new ArrayList<>(rulesBySpecialist.size());
+        rulesBySpecialist.forEach((specialistId, rules) -> {
+            List<AvailableSlotDto> virtualSlots = AvailabilityRuleExpander.expand(specialistId, rules, start, end);
+            List<AvailableSlotDto> free = AvailabilityRuleExpander
+                    .merge(specialistId, physicalBySpecialist.getOrDefault(specialistId, List.of()), virtualSlots, start, true)
+                    .stream()
+                    .filter(slot -> slot.getId() == null)
+                    .limit(k)
+                    .toList();
+            lists.add(free);
+        });
+        return lists;
+    }
+}
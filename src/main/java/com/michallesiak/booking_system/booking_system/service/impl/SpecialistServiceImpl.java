@@ -1,6 +1,7 @@
 package com.michallesiak.booking_system.booking_system.service.impl;
 
 import com.michallesiak.booking_system.booking_system.dto.CreateSpecialistRequest;
+import com.michallesiak.booking_system.booking_system.dto.CursorPage;
 import com.michallesiak.booking_system.booking_system.dto.SpecialistDto;
 import com.michallesiak.booking_system.booking_system.exception.SpecialistAlreadyExistsException;
 import com.michallesiak.booking_system.booking_system.exception.SpecialistNotFoundException;
@@ -14,6 +15,9 @@ import com.michallesiak.booking_system.booking_system.repository.AppointmentRepo
 import com.michallesiak.booking_system.booking_system.repository.SpecialistRepository;
 import com.michallesiak.booking_system.booking_system.repository.UserRepository;
 import com.michallesiak.booking_system.booking_system.service.SpecialistService;
+import com.michallesiak.booking_system.booking_system.service.support.AvailabilityCache;
+import com.michallesiak.booking_system.booking_system.service.support.CursorPaging;
+import com.michallesiak.booking_system.booking_system.service.support.SlotIntervalIndex;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,7 +25,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -33,6 +37,9 @@ public class SpecialistServiceImpl implements SpecialistService {
     private final UserRepository userRepository;
     private final AddressRepository addressRepository;
     private final AppointmentRepository appointmentRepository;
+    private final SlotIntervalIndex slotIntervalIndex;
+    private final CursorPaging cursorPaging;
+    private final AvailabilityCache availabilityCache;
 
     @Override
     @Transactional
@@ -59,23 +66,25 @@ public class SpecialistServiceImpl implements SpecialistService {
     @Override
     public SpecialistDto getSpecialistById(Long id) {
         log.info("Fetching specialist with id: {}", id);
-        Specialist specialist = specialistRepository.findById(id)
+        return specialistRepository.findDtoById(id)
                 .orElseThrow(() -> new SpecialistNotFoundException("Specialist not found with id: " + id));
-        return SpecialistMapper.toDto(specialist);
     }
 
     @Override
-    public List<SpecialistDto> getAllSpecialists() {
-        log.info("Fetching all specialists");
-        List<Specialist> specialists = specialistRepository.findAll();
-        return specialists.stream().map(SpecialistMapper::toDto).collect(Collectors.toList());
+    public CursorPage<SpecialistDto> getSpecialistsPage(boolean activeOnly, String cursor, Integer size) {
+        log.info("Fetching specialists page after cursor: {}, size: {}, activeOnly: {}", cursor, size, activeOnly);
+        int pageSize = cursorPaging.pageSize(size);
+        Long afterId = cursorPaging.decodeId(cursor);
+        List<SpecialistDto> specialists = activeOnly ?
+                specialistRepository.findByAcceptingAppointmentsTrueAndIdGreaterThanOrderByIdAsc(afterId, cursorPaging.probeLimit(pageSize)) :
+                specialistRepository.findByIdGreaterThanOrderByIdAsc(afterId, cursorPaging.probeLimit(pageSize));
+        return cursorPaging.toPage(specialists, pageSize, Function.identity(), specialist -> cursorPaging.encodeId(specialist.getId()));
     }
 
     @Override
     public List<SpecialistDto> getActiveSpecialists() {
         log.info("Fetching active specialists");
-        List<Specialist> specialists = specialistRepository.findByAcceptingAppointmentsTrue();
-        return specialists.stream().map(SpecialistMapper::toDto).collect(Collectors.toList());
+        return specialistRepository.findByAcceptingAppointmentsTrue();
     }
 
     @Override
@@ -85,15 +94,13 @@ public class SpecialistServiceImpl implements SpecialistService {
             throw new IllegalArgumentException("Specialization cannot be empty");
         }
 
-        List<Specialist> specialists = specialistRepository.findBySpecializationContainingIgnoreCase(specialization);
-        return specialists.stream().map(SpecialistMapper::toDto).collect(Collectors.toList());
+        return specialistRepository.findBySpecializationContainingIgnoreCase(specialization);
     }
 
     @Override
     public List<SpecialistDto> getSpecialistsByServiceId(Long serviceId) {
         log.info("Fetching specialists offering service: {}", serviceId);
-        List<Specialist> specialists = specialistRepository.findByServicesIdAndAcceptingAppointmentsTrue(serviceId);
-        return specialists.stream().map(SpecialistMapper::toDto).collect(Collectors.toList());
+        return specialistRepository.findByServicesIdAndAcceptingAppointmentsTrue(serviceId);
     }
 
     @Override
@@ -102,8 +109,7 @@ public class SpecialistServiceImpl implements SpecialistService {
         if (city == null || city.trim().isEmpty()) {
             throw new IllegalArgumentException("City cannot be empty");
         }
-        List<Specialist> specialists = specialistRepository.findByWorkAddress_City(city);
-        return specialists.stream().map(SpecialistMapper::toDto).collect(Collectors.toList());
+        return specialistRepository.findByWorkAddress_City(city);
     }
 
     @Override
@@ -206,6 +212,8 @@ public class SpecialistServiceImpl implements SpecialistService {
             throw new IllegalStateException("Cannot delete specialist with active appointments. Disable appointments instead.");
         }
         specialistRepository.deleteById(id);
+        slotIntervalIndex.evict(id);
+        availabilityCache.invalidateSpecialist(id);
         log.info("Specialist deleted successfully: {}", id);
     }
 
@@ -218,9 +226,8 @@ public class SpecialistServiceImpl implements SpecialistService {
     @Override
     public SpecialistDto getSpecialistByUserId(Long userId) {
         log.info("Fetching specialist by user id: {}", userId);
-        Specialist specialist = specialistRepository.findByUserId(userId)
+        return specialistRepository.findByUserId(userId)
                 .orElseThrow(() -> new SpecialistNotFoundException("No specialist found for user with id: " + userId));
-        return SpecialistMapper.toDto(specialist);
     }
 
     private void validateSpecialistRequest(CreateSpecialistRequest request) {
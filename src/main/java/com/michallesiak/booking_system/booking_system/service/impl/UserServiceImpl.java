@@ -1,12 +1,14 @@
 package com.michallesiak.booking_system.booking_system.service.impl;
 
 import com.michallesiak.booking_system.booking_system.dto.CreateUserRequest;
+import com.michallesiak.booking_system.booking_system.dto.CursorPage;
 import com.michallesiak.booking_system.booking_system.dto.UserDto;
 import com.michallesiak.booking_system.booking_system.exception.UserAlreadyExistsException;
 import com.michallesiak.booking_system.booking_system.mapper.UserMapper;
 import com.michallesiak.booking_system.booking_system.model.User;
 import com.michallesiak.booking_system.booking_system.repository.UserRepository;
 import com.michallesiak.booking_system.booking_system.service.UserService;
+import com.michallesiak.booking_system.booking_system.service.support.CursorPaging;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,6 +26,7 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CursorPaging cursorPaging;
     @Override
     @Transactional
     public UserDto createUser(CreateUserRequest request) {
@@ -46,10 +49,12 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<UserDto> getAllUsers() {
-        log.info("Fetching all users");
-        List<User> users = userRepository.findAll();
-        return users.stream().map(UserMapper::toDto).collect(Collectors.toList());
+    public CursorPage<UserDto> getUsersPage(String cursor, Integer size) {
+        log.info("Fetching users page after cursor: {}, size: {}", cursor, size);
+        int pageSize = cursorPaging.pageSize(size);
+        List<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(
+                cursorPaging.decodeId(cursor), cursorPaging.probeLimit(pageSize));
+        return cursorPaging.toPage(users, pageSize, UserMapper::toDto, user -> cursorPaging.encodeId(user.getId()));
     }
 
     @Override
@@ -0,0 +1,275 @@
+package com.michallesiak.booking_system.booking_system.service.impl;
+
+import com.michallesiak.booking_system.booking_system.dto.AvailableSlotDto;
+import com.michallesiak.booking_system.booking_system.dto.CreateWaitlistEntryRequest;
+import com.michallesiak.booking_system.booking_system.dto.SlotHoldDto;
+import com.michallesiak.booking_system.booking_system.dto.WaitlistEntryDto;
+import com.michallesiak.booking_system.booking_system.exception.ServiceNotFoundException;
+import com.michallesiak.booking_system.booking_system.exception.SlotNotAvailableException;
+import com.michallesiak.booking_system.booking_system.exception.SlotNotFoundException;
+import com.michallesiak.booking_system.booking_system.exception.SpecialistNotFoundException;
+import com.michallesiak.booking_system.booking_system.exception.UserNotFoundException;
+import com.michallesiak.booking_system.booking_system.exception.WaitlistEntryNotFoundException;
+import com.michallesiak.booking_system.booking_system.mapper.WaitlistEntryMapper;
+import com.michallesiak.booking_system.booking_system.model.OfferedService;
+import com.michallesiak.booking_system.booking_system.model.Specialist;
+import com.michallesiak.booking_system.booking_system.model.User;
+import com.michallesiak.booking_system.booking_system.model.WaitlistEntry;
+import com.michallesiak.booking_system.booking_system.model.enums.OutboxEventType;
+import com.michallesiak.booking_system.booking_system.model.enums.WaitlistStatus;
+import com.michallesiak.booking_system.booking_system.repository.AvailableSlotRepository;
+import com.michallesiak.booking_system.booking_system.repository.OfferedServiceRepository;
+import com.michallesiak.booking_system.booking_system.repository.SpecialistRepository;
+import com.michallesiak.booking_system.booking_system.repository.UserRepository;
+import com.michallesiak.booking_system.booking_system.repository.WaitlistEntryRepository;
+import com.michallesiak.booking_system.booking_system.service.SlotHoldService;
+import com.michallesiak.booking_system.booking_system.service.WaitlistService;
+import com.michallesiak.booking_system.booking_system.service.support.OutboxWriter;
+import com.michallesiak.booking_system.booking_system.service.support.SlotHoldTable;
+import com.michallesiak.booking_system.booking_system.service.support.SlotKeys;
+import com.michallesiak.booking_system.booking_system.service.support.WaitlistIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class WaitlistServiceImpl implements WaitlistService {
+
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final UserRepository userRepository;
+    private final SpecialistRepository specialistRepository;
+    private final OfferedServiceRepository offeredServiceRepository;
+    private final AvailableSlotRepository availableSlotRepository;
+    private final SlotHoldService slotHoldService;
+    private final SlotHoldTable slotHoldTable;
+    private final SlotKeys slotKeys;
+    private final WaitlistIndex waitlistIndex;
+    private final OutboxWriter outboxWriter;
+    private final TransactionTemplate offerTransaction;
+    private final int offerMinutes;
+    private final int maxWindowDays;
+    private final int candidatesPerOffer;
+    private final int expiryBatchSize;
+
+    public WaitlistServiceImpl(WaitlistEntryRepository waitlistEntryRepository,
+                               UserRepository userRepository,
+                               SpecialistRepository specialistRepository,
+                               OfferedServiceRepository offeredServiceRepository,
+                               AvailableSlotRepository availableSlotRepository,
+                               SlotHoldService slotHoldService,
+                               SlotHoldTable slotHoldTable,
+                               SlotKeys slotKeys,
+                               WaitlistIndex waitlistIndex,
+                               OutboxWriter outboxWriter,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${booking.waitlist.offer-minutes:15}") int offerMinutes,
+                               @Value("${booking.waitlist.max-window-days:31}") int maxWindowDays,
+                               @Value("${booking.waitlist.candidates-per-offer:10}") int candidatesPerOffer,
+                               @Value("${booking.waitlist.expiry-batch-size:200}") int expiryBatchSize) {
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.userRepository = userRepository;
+        this.specialistRepository = specialistRepository;
+        this.offeredServiceRepository = offeredServiceRepository;
+        this.availableSlotRepository = availableSlotRepository;
+        this.slotHoldService = slotHoldService;
+        this.slotHoldTable = slotHoldTable;
+        this.slotKeys = slotKeys;
+        this.waitlistIndex = waitlistIndex;
+        this.outboxWriter = outboxWriter;
+        // oferty powstają także w afterCommit innej transakcji - zawsze we własnej
+        this.offerTransaction = new TransactionTemplate(transactionManager);
+        this.offerTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.offerMinutes = offerMinutes;
+        this.maxWindowDays = maxWindowDays;
+        this.candidatesPerOffer = candidatesPerOffer;
+        this.expiryBatchSize = expiryBatchSize;
+    }
+
+    @Override
+    @Transactional
+    public WaitlistEntryDto createEntry(CreateWaitlistEntryRequest request) {
+        log.info("Creating waitlist entry for user: {}, specialist: {}, from {} to {}",
+                request.getUserId(), request.getSpecialistId(), request.getDateFrom(), request.getDateTo());
+        if (request.getDateTo().isBefore(request.getDateFrom())) {
+            throw new IllegalArgumentException("Date to cannot be before date from");
+        }
+        if (ChronoUnit.DAYS.between(request.getDateFrom(), request.getDateTo()) >= maxWindowDays) {
+            throw new IllegalArgumentException("Waitlist window cannot exceed " + maxWindowDays + " days");
+        }
+        User user = userRepository.findById(request.getUserId())
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + request.getUserId()));
+        Specialist specialist = specialistRepository.findById(request.getSpecialistId())
+                .orElseThrow(() -> new SpecialistNotFoundException("Specialist not found with id: " + request.getSpecialistId()));
+        OfferedService service = request.getServiceId() == null ? null : offeredServiceRepository.findById(request.getServiceId())
+                .orElseThrow(() -> new ServiceNotFoundException("Service not found with id: " + request.getServiceId()));
+
+        WaitlistEntry saved = waitlistEntryRepository.save(WaitlistEntryMapper.toEntity(request, user, specialist, service));
+        waitlistIndex.added(specialist.getId(), new WaitlistIndex.Waiter(saved.getId(), user.getId(),
+                service != null ? service.getDurationMinutes() : null, saved.getDateFrom(), saved.getDateTo(), saved.getPriority()));
+        log.info("Waitlist entry created successfully with id: {}", saved.getId());
+        return WaitlistEntryMapper.toDto(saved);
+    }
+
+    @Override
+    public WaitlistEntryDto getEntryById(Long id) {
+        log.info("Fetching waitlist entry with id: {}", id);
+        return waitlistEntryRepository.findDtoById(id)
+                .orElseThrow(() -> new WaitlistEntryNotFoundException("Waitlist entry not found with id: " + id));
+    }
+
+    @Override
+    public List<WaitlistEntryDto> getEntriesByUserId(Long userId) {
+        log.info("Fetching waitlist entries for user: {}", userId);
+        return waitlistEntryRepository.findByUserId(userId);
+    }
+
+    @Override
+    @Transactional
+    public void cancelEntry(Long id) {
+        log.info("Cancelling waitlist entry with id: {}", id);
+        WaitlistEntryDto entry = getEntryById(id);
+        if (entry.getStatus() != WaitlistStatus.ACTIVE && entry.getStatus() != WaitlistStatus.OFFERED) {
+            throw new IllegalStateException("Waitlist entry is already " + entry.getStatus());
+        }
+        if (waitlistEntryRepository.updateStatusIf(id, entry.getStatus(), WaitlistStatus.CANCELLED, Instant.now()) == 0) {
+            throw new IllegalStateException("Waitlist entry with id " + id + " was changed concurrently");
+        }
+        waitlistIndex.removed(entry.getSpecialistId(), id);
+        if (entry.getStatus() == WaitlistStatus.OFFERED) {
+            // odrzucona oferta wraca do kolejki - slot dostaje następny oczekujący
+            releaseOfferHold(entry.getOfferToken());
+            slotReleased(entry.getOfferedSlotId());
+        }
+        log.info("Waitlist entry cancelled successfully with id: {}", id);
+    }
+
+    @Override
+    public void slotReleased(Long slotId) {
+        Runnable offer = () -> {
+            try {
+                offerFreedSlot(slotId);
+            } catch (RuntimeException ex) {
+                log.warn("Offering freed slot {} to the waitlist failed: {}", slotId, ex.getMessage());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer.run();
+                }
+            });
+        } else {
+            offer.run();
+        }
+    }
+
+    /**
+     * Offers a free future slot to the best-ranked matching waiter by holding it in their name.
+     * Each candidate is claimed with a conditional update, so a waiter served by another
+     * instance or cancelled meanwhile is skipped instead of getting a second offer.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<WaitlistEntryDto> offerFreedSlot(Long slotId) {
+        AvailableSlotDto slot = offerTransaction.execute(status -> slotKeys.withStartTime(slotId, availableSlotRepository::findDtoByIdAndStartTime)).orElse(null);
+        if (slot == null || slot.isBooked() || !slot.getStartTime().isAfter(LocalDateTime.now()) || slotHoldTable.isHeld(slotId)) {
+            return Optional.empty();
+        }
+        Long specialistId = slot.getSpecialistId();
+        waitlistIndex.warm(specialistId);
+        long slotMinutes = Duration.between(slot.getStartTime(), slot.getEndTime()).toMinutes();
+        List<WaitlistIndex.Waiter> candidates = waitlistIndex.candidates(specialistId,
+                slot.getStartTime().toLocalDate(), slotMinutes, candidatesPerOffer);
+        for (WaitlistIndex.Waiter waiter : candidates) {
+            Optional<WaitlistEntryDto> offered;
+            try {
+                offered = offerTransaction.execute(status -> offer(waiter, slotId, specialistId));
+            } catch (SlotNotAvailableException | SlotNotFoundException ex) {
+                log.info("Slot {} was taken before it could be offered: {}", slotId, ex.getMessage());
+                return Optional.empty();
+            }
+            if (offered.isPresent()) {
+                log.info("Offered slot {} to waitlist entry {} of user {}", slotId, waiter.entryId(), waiter.userId());
+                return offered;
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    @Transactional
+    public void offerAccepted(Long slotId, Long userId) {
+        if (waitlistEntryRepository.updateOfferStatus(userId, slotId, WaitlistStatus.OFFERED,
+                WaitlistStatus.FULFILLED, Instant.now()) > 0) {
+            log.info("Waitlist offer of slot {} accepted by user {}", slotId, userId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.waitlist.expiry-check-ms:10000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void expireOffers() {
+        List<WaitlistEntry> expired = offerTransaction.execute(status -> waitlistEntryRepository
+                .findByStatusAndOfferExpiresAtBeforeOrderByOfferExpiresAt(WaitlistStatus.OFFERED, Instant.now(), Limit.of(expiryBatchSize)));
+        for (WaitlistEntry entry : expired) {
+            Boolean claimed = offerTransaction.execute(status ->
+                    waitlistEntryRepository.updateStatusIf(entry.getId(), WaitlistStatus.OFFERED, WaitlistStatus.EXPIRED, Instant.now()) > 0);
+            if (Boolean.TRUE.equals(claimed)) {
+                log.info("Waitlist offer {} of slot {} expired", entry.getId(), entry.getOfferedSlotId());
+                offerTransaction.executeWithoutResult(status -> releaseOfferHold(entry.getOfferToken()));
+                slotReleased(entry.getOfferedSlotId());
+            }
+        }
+    }
+
+    @Scheduled(cron = "${booking.waitlist.cleanup-cron:0 15 3 * * *}")
+    @Transactional
+    public void closeEndedWindows() {
+        LocalDate today = LocalDate.now();
+        int closed = waitlistEntryRepository.updateStatusOfEndedWindows(WaitlistStatus.ACTIVE, WaitlistStatus.EXPIRED, today, Instant.now());
+        waitlistIndex.pruneBefore(today);
+        if (closed > 0) {
+            log.info("Closed {} waitlist entries with ended windows", closed);
+        }
+    }
+
+    private Optional<WaitlistEntryDto> offer(WaitlistIndex.Waiter waiter, Long slotId, Long specialistId) {
+        if (waitlistEntryRepository.updateStatusIf(waiter.entryId(), WaitlistStatus.ACTIVE, WaitlistStatus.OFFERED, Instant.now()) == 0) {
+            // wpis obsłużony gdzie indziej - indeks tej instancji był nieaktualny
+            waitlistIndex.removed(specialistId, waiter.entryId());
+            return Optional.empty();
+        }
+        SlotHoldDto hold = slotHoldService.holdSlot(slotId, waiter.userId(), offerMinutes);
+        waitlistEntryRepository.recordOffer(waiter.entryId(), slotId, hold.getToken(), hold.getExpiresAt());
+        waitlistIndex.removed(specialistId, waiter.entryId());
+        WaitlistEntryDto offered = waitlistEntryRepository.findDtoById(waiter.entryId()).orElseThrow();
+        outboxWriter.append(OutboxEventType.WAITLIST_OFFERED, offered.getId(), specialistId, offered);
+        return Optional.of(offered);
+    }
+
+    private void releaseOfferHold(UUID token) {
+        if (token != null && slotHoldTable.findByToken(token).isPresent()) {
+            slotHoldService.releaseHold(token);
+        }
+    }
+}
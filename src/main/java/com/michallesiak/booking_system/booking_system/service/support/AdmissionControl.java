@@ -0,0 +1,138 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets per client IP and per user id, with separate read and write budgets.
+ * Both tables are bounded and drop keys that stayed idle, so a flood of distinct clients
+ * cannot grow memory without limit. Decisions never touch the database.
+ */
+@Component
+@Slf4j
+public class AdmissionControl {
+
+    public enum Budget {
+        READ, WRITE
+    }
+
+    public enum Scope {
+        IP, USER
+    }
+
+    public record Limit(double perSecond, int burst) {
+    }
+
+    public record Decision(boolean admitted, Scope rejectedBy, long retryAfterNanos) {
+
+        static final Decision ADMITTED = new Decision(true, null, 0);
+    }
+
+    private final boolean enabled;
+    private final Map<Scope, Map<Budget, Limit>> limits = new EnumMap<>(Scope.class);
+    private final Map<Scope, Cache<String, TokenBucket>> buckets = new EnumMap<>(Scope.class);
+    private final Map<Budget, Counter> admitted = new EnumMap<>(Budget.class);
+    private final Map<Scope, Map<Budget, Counter>> rejected = new EnumMap<>(Scope.class);
+    private final LongSupplier nanoTime;
+
+    @Autowired
+    public AdmissionControl(MeterRegistry meterRegistry,
+                            @Value("${booking.admission.enabled:true}") boolean enabled,
+                            @Value("${booking.admission.ip.read-per-second:100}") double ipReadRate,
+                            @Value("${booking.admission.ip.read-burst:200}") int ipReadBurst,
+                            @Value("${booking.admission.ip.write-per-second:10}") double ipWriteRate,
+                            @Value("${booking.admission.ip.write-burst:20}") int ipWriteBurst,
+                            @Value("${booking.admission.user.read-per-second:20}") double userReadRate,
+                            @Value("${booking.admission.user.read-burst:40}") int userReadBurst,
+                            @Value("${booking.admission.user.write-per-second:2}") double userWriteRate,
+                            @Value("${booking.admission.user.write-burst:5}") int userWriteBurst,
+                            @Value("${booking.admission.max-keys:100000}") long maxKeys,
+                            @Value("${booking.admission.idle-minutes:10}") long idleMinutes) {
+        this(meterRegistry, enabled,
+                Map.of(Budget.READ, new Limit(ipReadRate, ipReadBurst), Budget.WRITE, new Limit(ipWriteRate, ipWriteBurst)),
+                Map.of(Budget.READ, new Limit(userReadRate, userReadBurst), Budget.WRITE, new Limit(userWriteRate, userWriteBurst)),
+                maxKeys, Duration.ofMinutes(idleMinutes), System::nanoTime);
+    }
+
+    AdmissionControl(MeterRegistry meterRegistry, boolean enabled, Map<Budget, Limit> ipLimits,
+                     Map<Budget, Limit> userLimits, long maxKeys, Duration idle, LongSupplier nanoTime) {
+        this.enabled = enabled;
+        this.nanoTime = nanoTime;
+        limits.put(Scope.IP, new EnumMap<>(ipLimits));
+        limits.put(Scope.USER, new EnumMap<>(userLimits));
+        for (Scope scope : Scope.values()) {
+            // wiadro nieużywane dłużej niż idle i tak byłoby już pełne - można je bezpiecznie zapomnieć
+            Cache<String, TokenBucket> cache = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(idle)
+                    .recordStats()
+                    .build();
+            buckets.put(scope, cache);
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "admission-" + scope.name().toLowerCase());
+            Map<Budget, Counter> scopeRejected = new EnumMap<>(Budget.class);
+            for (Budget budget : Budget.values()) {
+                scopeRejected.put(budget, Counter.builder("booking.admission.requests")
+                        .tag("outcome", "rejected")
+                        .tag("budget", budget.name().toLowerCase())
+                        .tag("scope", scope.name().toLowerCase())
+                        .register(meterRegistry));
+            }
+            rejected.put(scope, scopeRejected);
+        }
+        for (Budget budget : Budget.values()) {
+            admitted.put(budget, Counter.builder("booking.admission.requests")
+                    .tag("outcome", "admitted")
+                    .tag("budget", budget.name().toLowerCase())
+                    .tag("scope", "all")
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Takes a token from the client's IP bucket and, when the caller is identified, from the user's bucket.
+     */
+    public Decision admit(String clientIp, String userId, Budget budget) {
+        if (!enabled) {
+            return Decision.ADMITTED;
+        }
+        long now = nanoTime.getAsLong();
+        TokenBucket ipBucket = bucket(Scope.IP, clientIp, budget, now);
+        long wait = ipBucket.tryAcquire(now);
+        Decision decision = wait == 0 ? Decision.ADMITTED : new Decision(false, Scope.IP, wait);
+        if (decision.admitted() && userId != null) {
+            wait = bucket(Scope.USER, userId, budget, now).tryAcquire(now);
+            if (wait > 0) {
+                // odrzucony użytkownik nie może wyczerpywać budżetu innych klientów za tym samym IP
+                ipBucket.refund();
+                decision = new Decision(false, Scope.USER, wait);
+            }
+        }
+        if (decision.admitted()) {
+            admitted.get(budget).increment();
+        } else {
+            rejected.get(decision.rejectedBy()).get(budget).increment();
+        }
+        return decision;
+    }
+
+    public long trackedKeys(Scope scope) {
+        return buckets.get(scope).estimatedSize();
+    }
+
+    private TokenBucket bucket(Scope scope, String key, Budget budget, long now) {
+        Limit limit = limits.get(scope).get(budget);
+        return buckets.get(scope).get(budget.name() + ':' + key, k -> new TokenBucket(limit.perSecond(), limit.burst(), now));
+    }
+}
@@ -0,0 +1,44 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.michallesiak.booking_system.booking_system.model.enums.AppointmentStatus;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Statuses an appointment may move to in bulk, and the statuses it may come from.
+ * Cancellation releases the slot and is not a bulk transition.
+ */
+public final class AppointmentTransitions {
+
+    private static final Map<AppointmentStatus, Set<AppointmentStatus>> SOURCES = new EnumMap<>(AppointmentStatus.class);
+
+    static {
+        SOURCES.put(AppointmentStatus.CONFIRMED, EnumSet.of(AppointmentStatus.BOOKED));
+        SOURCES.put(AppointmentStatus.IN_PROGRESS, EnumSet.of(AppointmentStatus.BOOKED, AppointmentStatus.CONFIRMED));
+        SOURCES.put(AppointmentStatus.COMPLETED,
+                EnumSet.of(AppointmentStatus.BOOKED, AppointmentStatus.CONFIRMED, AppointmentStatus.IN_PROGRESS));
+        SOURCES.put(AppointmentStatus.NO_SHOW, EnumSet.of(AppointmentStatus.BOOKED, AppointmentStatus.CONFIRMED));
+    }
+
+    private AppointmentTransitions() {
+    }
+
+    public static boolean isBulkTarget(AppointmentStatus target) {
+        return SOURCES.containsKey(target);
+    }
+
+    public static Set<AppointmentStatus> sourcesOf(AppointmentStatus target) {
+        Set<AppointmentStatus> sources = SOURCES.get(target);
+        if (sources == null) {
+            throw new IllegalArgumentException("Status " + target + " cannot be set in bulk");
+        }
+        return sources;
+    }
+
+    public static boolean isAllowed(AppointmentStatus from, AppointmentStatus to) {
+        return isBulkTarget(to) && SOURCES.get(to).contains(from);
+    }
+}
@@ -0,0 +1,119 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.michallesiak.booking_system.booking_system.dto.AvailableSlotDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Per-specialist, per-day availability lists: physical slots starting that day merged with
+ * rule slots, booked ones included. The days of a range missing from the cache are loaded
+ * together in one call. Invalidation runs after commit and bumps the specialist's stamp; a load
+ * that saw the stamp change drops what it cached, so a committed change is never hidden by a
+ * stale entry.
+ */
+@Component
+public class AvailabilityCache {
+
+    public record DayKey(Long specialistId, LocalDate date) {
+    }
+
+    private final Cache<DayKey, List<AvailableSlotDto>> cache;
+    private final Map<Long, AtomicLong> stamps = new ConcurrentHashMap<>();
+
+    public AvailabilityCache(MeterRegistry meterRegistry,
+                             @Value("${booking.availability-cache.max-entries:50000}") long maxEntries,
+                             @Value("${booking.availability-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "slot-availability");
+    }
+
+    /**
+     * Days {@code first..last} in order. The loader runs at most once, with only the missing days;
+     * a day it leaves out is cached as empty.
+     */
+    public Map<LocalDate, List<AvailableSlotDto>> getDays(Long specialistId, LocalDate first, LocalDate last,
+                                                          Function<Set<LocalDate>, Map<LocalDate, List<AvailableSlotDto>>> loader) {
+        Map<LocalDate, List<AvailableSlotDto>> days = new LinkedHashMap<>();
+        Set<LocalDate> missing = new LinkedHashSet<>();
+        for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+            List<AvailableSlotDto> cached = cache.getIfPresent(new DayKey(specialistId, date));
+            if (cached == null) {
+                missing.add(date);
+            }
+            days.put(date, cached);
+        }
+        if (missing.isEmpty()) {
+            return days;
+        }
+        long stamp = stampOf(specialistId).get();
+        Map<LocalDate, List<AvailableSlotDto>> loaded = loader.apply(missing);
+        for (LocalDate date : missing) {
+            List<AvailableSlotDto> daySlots = List.copyOf(loaded.getOrDefault(date, List.of()));
+            days.put(date, daySlots);
+            cache.put(new DayKey(specialistId, date), daySlots);
+        }
+        // inwalidacja podbija znacznik przed usunięciem wpisów - sprawdzony po put nie przepuści starych dni
+        if (stampOf(specialistId).get() != stamp) {
+            missing.forEach(date -> cache.invalidate(new DayKey(specialistId, date)));
+        }
+        return days;
+    }
+
+    /**
+     * Drops every day a slot in {@code [start, end]} can appear in or shadow a rule slot on.
+     */
+    public void invalidate(Long specialistId, LocalDateTime start, LocalDateTime end) {
+        afterCommit(() -> {
+            stampOf(specialistId).incrementAndGet();
+            for (LocalDate date = start.toLocalDate(); !date.isAfter(end.toLocalDate()); date = date.plusDays(1)) {
+                cache.invalidate(new DayKey(specialistId, date));
+            }
+        });
+    }
+
+    public void invalidateSpecialist(Long specialistId) {
+        afterCommit(() -> {
+            stampOf(specialistId).incrementAndGet();
+            cache.asMap().keySet().removeIf(key -> key.specialistId().equals(specialistId));
+        });
+    }
+
+    private AtomicLong stampOf(Long specialistId) {
+        return stamps.computeIfAbsent(specialistId, id -> new AtomicLong());
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
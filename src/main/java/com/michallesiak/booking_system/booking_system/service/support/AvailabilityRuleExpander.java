@@ -0,0 +1,110 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.michallesiak.booking_system.booking_system.dto.AvailableSlotDto;
+import com.michallesiak.booking_system.booking_system.model.AvailabilityRule;
+import com.michallesiak.booking_system.booking_system.repository.projection.SlotTimeView;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Expands recurring availability rules into virtual slots (id == null) and merges them
+ * with physical rows. A physical slot always wins over a virtual slot it overlaps.
+ */
+public final class AvailabilityRuleExpander {
+
+    private AvailabilityRuleExpander() {
+    }
+
+    public static List<AvailableSlotDto> expand(Long specialistId, List<AvailabilityRule> rules,
+                                                LocalDateTime from, LocalDateTime to) {
+        List<AvailableSlotDto> slots = new ArrayList<>();
+        for (LocalDate date = from.toLocalDate(); !date.isAfter(to.toLocalDate()); date = date.plusDays(1)) {
+            for (AvailabilityRule rule : rules) {
+                if (!appliesTo(rule, date)) {
+                    continue;
+                }
+                LocalDateTime windowEnd = date.atTime(rule.getEndTime());
+                int duration = rule.getSlotDurationMinutes();
+                for (LocalDateTime start = date.atTime(rule.getStartTime());
+                     !start.plusMinutes(duration).isAfter(windowEnd);
+                     start = start.plusMinutes(duration)) {
+                    if (!start.isBefore(from) && !start.isAfter(to)) {
+                        slots.add(new AvailableSlotDto(null, specialistId, start, start.plusMinutes(duration), false));
+                    }
+                }
+            }
+        }
+        slots.sort(Comparator.comparing(AvailableSlotDto::getStartTime));
+        return slots;
+    }
+
+    public static Optional<LocalDateTime> findSlotEnd(List<AvailabilityRule> rules, LocalDateTime startTime) {
+        LocalDate date = startTime.toLocalDate();
+        for (AvailabilityRule rule : rules) {
+            if (!appliesTo(rule, date)) {
+                continue;
+            }
+            LocalDateTime windowStart = date.atTime(rule.getStartTime());
+            LocalDateTime slotEnd = startTime.plusMinutes(rule.getSlotDurationMinutes());
+            long offset = Duration.between(windowStart, startTime).toMinutes();
+            boolean aligned = offset >= 0
+                    && offset % rule.getSlotDurationMinutes() == 0
+                    && windowStart.plusMinutes(offset).equals(startTime);
+            if (aligned && !slotEnd.isAfter(date.atTime(rule.getEndTime()))) {
+                return Optional.of(slotEnd);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Both lists must be sorted by start time. Physical slots starting before {@code from}
+     * only suppress virtual ones and are not returned themselves.
+     */
+    public static List<AvailableSlotDto> merge(Long specialistId, List<SlotTimeView> physicalSlots,
+                                               List<AvailableSlotDto> virtualSlots,
+                                               LocalDateTime from, boolean availableOnly) {
+        List<AvailableSlotDto> merged = new ArrayList<>(physicalSlots.size() + virtualSlots.size());
+        for (SlotTimeView slot : physicalSlots) {
+            if (!slot.getStartTime().isBefore(from) && !(availableOnly && slot.isBooked())) {
+                merged.add(new AvailableSlotDto(slot.getId(), specialistId, slot.getStartTime(), slot.getEndTime(), slot.isBooked()));
+            }
+        }
+        int physicalIndex = 0;
+        for (AvailableSlotDto virtualSlot : virtualSlots) {
+            while (physicalIndex < physicalSlots.size()
+                    && !physicalSlots.get(physicalIndex).getEndTime().isAfter(virtualSlot.getStartTime())) {
+                physicalIndex++;
+            }
+            boolean overridden = physicalIndex < physicalSlots.size()
+                    && physicalSlots.get(physicalIndex).getStartTime().isBefore(virtualSlot.getEndTime());
+            if (!overridden) {
+                merged.add(virtualSlot);
+            }
+        }
+        merged.sort(Comparator.comparing(AvailableSlotDto::getStartTime));
+        return merged;
+    }
+
+    public static boolean windowsOverlap(AvailabilityRule first, AvailabilityRule second) {
+        boolean periodsOverlap = (first.getValidTo() == null || !first.getValidTo().isBefore(second.getValidFrom()))
+                && (second.getValidTo() == null || !second.getValidTo().isBefore(first.getValidFrom()));
+        return first.getDayOfWeek() == second.getDayOfWeek()
+                && periodsOverlap
+                && first.getStartTime().isBefore(second.getEndTime())
+                && second.getStartTime().isBefore(first.getEndTime());
+    }
+
+    private static boolean appliesTo(AvailabilityRule rule, LocalDate date) {
+        return rule.isActive()
+                && rule.getDayOfWeek() == date.getDayOfWeek()
+                && !date.isBefore(rule.getValidFrom())
+                && (rule.getValidTo() == null || !date.isAfter(rule.getValidTo()));
+    }
+}
@@ -0,0 +1,26 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.michallesiak.booking_system.booking_system.dto.OutboxEventDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts delivered booking events by type for analytics dashboards.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingEventMetricsConsumer implements OutboxEventConsumer {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public String name() {
+        return "metrics";
+    }
+
+    @Override
+    public void accept(OutboxEventDto event) {
+        meterRegistry.counter("booking.events", "type", event.getEventType().name()).increment();
+    }
+}
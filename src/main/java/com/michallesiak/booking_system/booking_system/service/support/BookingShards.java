@@ -0,0 +1,292 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.michallesiak.booking_system.booking_system.dto.AvailableSlotDto;
+import com.michallesiak.booking_system.booking_system.exception.BookingEngineBusyException;
+import com.michallesiak.booking_system.booking_system.exception.SlotNotAvailableException;
+import com.michallesiak.booking_system.booking_system.model.enums.SlotEventType;
+import com.michallesiak.booking_system.booking_system.repository.AvailableSlotRepository;
+import com.michallesiak.booking_system.booking_system.repository.projection.SlotTimeView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Optional single-writer booking engine. Specialists are hashed to one of N shards, each a single
+ * thread with a bounded queue, so bookings of one specialist run one after another and never
+ * race each other on the same rows. Every shard also owns the booked/free state of its
+ * specialists' future slots: a booking of a slot known to be taken is rejected in memory without
+ * opening a transaction.
+ * <p>
+ * Slot state is filled lazily from the database and follows committed changes through
+ * {@link SlotEventHub}; updates from other threads are queued to the owning shard, so they are
+ * applied in commit order before any later booking. The in-memory state is authoritative only
+ * while all writes for a specialist go through this instance - with several instances, route
+ * specialists to a fixed instance or keep the engine off.
+ */
+@Component
+@Slf4j
+public class BookingShards {
+
+    private final AvailableSlotRepository availableSlotRepository;
+    private final boolean enabled;
+    private final Shard[] shards;
+    private final SlotKeys slotKeys;
+    private final int maxSpecialistsPerShard;
+    private final long submitTimeoutMs;
+    private final Counter memoryRejections;
+    private final Counter busyRejections;
+
+    public BookingShards(AvailableSlotRepository availableSlotRepository,
+                         SlotKeys slotKeys,
+                         SlotEventHub slotEventHub,
+                         MeterRegistry meterRegistry,
+                         @Value("${booking.engine.sharded.enabled:false}") boolean enabled,
+                         @Value("${booking.engine.sharded.shards:8}") int shardCount,
+                         @Value("${booking.engine.sharded.queue-capacity:10000}") int queueCapacity,
+                         @Value("${booking.engine.sharded.max-specialists-per-shard:5000}") int maxSpecialistsPerShard,
+                         @Value("${booking.engine.sharded.submit-timeout-ms:5000}") long submitTimeoutMs) {
+        this.availableSlotRepository = availableSlotRepository;
+        this.enabled = enabled;
+        this.maxSpecialistsPerShard = maxSpecialistsPerShard;
+        this.submitTimeoutMs = submitTimeoutMs;
+        this.slotKeys = slotKeys;
+        this.memoryRejections = meterRegistry.counter("booking.engine.rejections", "reason", "booked");
+        this.busyRejections = meterRegistry.counter("booking.engine.rejections", "reason", "busy");
+        this.shards = new Shard[enabled ? shardCount : 0];
+        for (int i = 0; i < shards.length; i++) {
+            Shard shard = new Shard(i, queueCapacity);
+            shards[i] = shard;
+            Gauge.builder("booking.engine.shard.queue", shard.executor, executor -> executor.getQueue().size())
+                    .tag("shard", Integer.toString(i))
+                    .register(meterRegistry);
+        }
+        if (enabled) {
+            slotEventHub.addListener(this::slotChanged);
+            log.info("Sharded booking engine enabled with {} shards", shardCount);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Books a slot on the shard of its specialist. A slot the shard knows to be booked is rejected
+     * before {@code action} runs.
+     */
+    public <T> T book(Long slotId, Supplier<T> action) {
+        return book(slotId, action, () -> new SlotNotAvailableException("Slot with id " + slotId + " is not available"));
+    }
+
+    public <T> T book(Long slotId, Supplier<T> action, Supplier<? extends RuntimeException> whenBooked) {
+        if (!routable()) {
+            return action.get();
+        }
+        Long specialistId = specialistOf(slotId);
+        if (specialistId == null) {
+            // nieznany slot - odpowiedź (404) i tak da baza
+            return action.get();
+        }
+        Shard shard = shardOf(specialistId);
+        return run(shard, () -> {
+            Map<Long, Boolean> slots = shard.slots(specialistId);
+            if (Boolean.TRUE.equals(slots.get(slotId))) {
+                memoryRejections.increment();
+                throw whenBooked.get();
+            }
+            return action.get();
+        });
+    }
+
+    /**
+     * Runs a mutation of the specialist's slots on its shard.
+     */
+    public <T> T execute(Long specialistId, Supplier<T> action) {
+        if (!routable()) {
+            return action.get();
+        }
+        return run(shardOf(specialistId), action);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Shard shard : shards) {
+            shard.executor.shutdown();
+        }
+    }
+
+    void slotChanged(Long specialistId, SlotEventType type, Object data) {
+        Shard shard = shardOf(specialistId);
+        Runnable apply = () -> shard.apply(specialistId, type, data);
+        if (Thread.currentThread() == shard.thread) {
+            apply.run();
+            return;
+        }
+        try {
+            shard.executor.execute(apply);
+        } catch (RejectedExecutionException ex) {
+            // zmiana przepadła - stan shardu nie jest już pewny, więc zostanie wczytany od nowa
+            shard.resetPending.set(true);
+        }
+    }
+
+    private boolean routable() {
+        // transakcji wywołującego nie da się przenieść na wątek shardu
+        return enabled && !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    private Long specialistOf(Long slotId) {
+        // slot nie zmienia specjalisty, więc ewentualnie nieaktualny start_time tu nie przeszkadza
+        return slotKeys.find(slotId).map(SlotKeys.Key::specialistId).orElse(null);
+    }
+
+    private Shard shardOf(Long specialistId) {
+        long hash = specialistId * 0x9E3779B97F4A7C15L;
+        return shards[(int) Math.floorMod(hash ^ (hash >>> 32), (long) shards.length)];
+    }
+
+    private <T> T run(Shard shard, Supplier<T> action) {
+        if (Thread.currentThread() == shard.thread) {
+            return action.get();
+        }
+        Future<T> future;
+        try {
+            future = shard.executor.submit(action::get);
+        } catch (RejectedExecutionException ex) {
+            busyRejections.increment();
+            throw new BookingEngineBusyException("Booking queue is full, retry later", ex);
+        }
+        try {
+            return future.get(submitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            // zadanie, które już ruszyło, musi się dokończyć - klient dostaje jego prawdziwy wynik
+            if (future.cancel(false)) {
+                busyRejections.increment();
+                throw new BookingEngineBusyException("Booking was not started within " + submitTimeoutMs + " ms", ex);
+            }
+            return awaitStarted(future);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            if (future.cancel(false)) {
+                throw new BookingEngineBusyException("Interrupted while waiting for the booking queue", ex);
+            }
+            return awaitStarted(future);
+        } catch (ExecutionException ex) {
+            throw unwrap(ex);
+        }
+    }
+
+    private static <T> T awaitStarted(Future<T> future) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                } catch (ExecutionException ex) {
+                    throw unwrap(ex);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException ex) {
+        Throwable cause = ex.getCause();
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException("Booking failed", cause);
+    }
+
+    /**
+     * One writer thread and the slot state of its specialists. The maps are touched only by that thread.
+     */
+    private final class Shard {
+        private final ThreadPoolExecutor executor;
+        private final AtomicBoolean resetPending = new AtomicBoolean();
+        private final Map<Long, Map<Long, Boolean>> specialists = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Map<Long, Boolean>> eldest) {
+                return size() > maxSpecialistsPerShard;
+            }
+        };
+        private volatile Thread thread;
+
+        private Shard(int index, int queueCapacity) {
+            this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread worker = new Thread(runnable, "booking-shard-" + index);
+                worker.setDaemon(true);
+                thread = worker;
+                return worker;
+            });
+            this.executor.prestartCoreThread();
+        }
+
+        Map<Long, Boolean> slots(Long specialistId) {
+            resetIfPending();
+            Map<Long, Boolean> slots = specialists.get(specialistId);
+            if (slots == null) {
+                slots = new HashMap<>();
+                for (SlotTimeView slot : availableSlotRepository
+                        .findBySpecialistIdAndEndTimeAfterOrderByStartTime(specialistId, LocalDateTime.now())) {
+                    slots.put(slot.getId(), slot.isBooked());
+                }
+                specialists.put(specialistId, slots);
+            }
+            return slots;
+        }
+
+        void apply(Long specialistId, SlotEventType type, Object data) {
+            resetIfPending();
+            Map<Long, Boolean> slots = specialists.get(specialistId);
+            if (slots == null) {
+                return;
+            }
+            if (!(data instanceof AvailableSlotDto slot)) {
+                // zmiana zakresu - prościej wczytać specjalistę od nowa przy następnej rezerwacji
+                specialists.remove(specialistId);
+                return;
+            }
+            switch (type) {
+                case CREATED -> slots.put(slot.getId(), slot.isBooked());
+                case BOOKED -> slots.put(slot.getId(), true);
+                case RELEASED -> slots.put(slot.getId(), false);
+                case DELETED, RANGE_DELETED -> slots.remove(slot.getId());
+            }
+        }
+
+        private void resetIfPending() {
+            if (resetPending.compareAndSet(true, false)) {
+                specialists.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.michallesiak.booking_system.booking_system.dto.CursorPage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination helpers. Cursors are opaque to clients: a versioned, URL-safe Base64
+ * encoding of the sort key of the last row on the page.
+ */
+@Component
+public class CursorPaging {
+
+    public record SlotKey(LocalDateTime startTime, Long id) {
+    }
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public CursorPaging(@Value("${booking.pagination.default-page-size:50}") int defaultPageSize,
+                        @Value("${booking.pagination.max-page-size:500}") int maxPageSize) {
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public int pageSize(Integer requested) {
+        if (requested == null) {
+            return defaultPageSize;
+        }
+        if (requested < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        return Math.min(requested, maxPageSize);
+    }
+
+    /**
+     * One row more than the page, so the presence of a next page is known without a count query.
+     */
+    public Limit probeLimit(int pageSize) {
+        return Limit.of(pageSize + 1);
+    }
+
+    public Long decodeId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        String[] parts = decode(cursor, 1);
+        try {
+            return Long.parseLong(parts[0]);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+
+    public SlotKey decodeSlotKey(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String[] parts = decode(cursor, 2);
+        try {
+            return new SlotKey(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (DateTimeParseException | NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+
+    public String encodeId(Long id) {
+        return encode(String.valueOf(id));
+    }
+
+    public String encodeSlotKey(LocalDateTime startTime, Long id) {
+        return encode(startTime + SEPARATOR + id);
+    }
+
+    public <E, D> CursorPage<D> toPage(List<E> rows, int pageSize, Function<E, D> mapper, Function<E, String> cursorOf) {
+        boolean hasMore = rows.size() > pageSize;
+        List<E> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(pageRows.get(pageRows.size() - 1)) : null;
+        return new CursorPage<>(pageRows.stream().map(mapper).toList(), nextCursor, hasMore);
+    }
+
+    private String encode(String key) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((VERSION + SEPARATOR + key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decode(String cursor, int keyParts) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+        String[] parts = raw.split("\\" + SEPARATOR, -1);
+        if (parts.length != keyParts + 1 || !VERSION.equals(parts[0])) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        String[] key = new String[keyParts];
+        System.arraycopy(parts, 1, key, 0, keyParts);
+        return key;
+    }
+}
@@ -0,0 +1,45 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+/**
+ * One day at five-minute granularity: 288 bits packed into five longs.
+ * All ranges are half-open bit indexes {@code [from, to)}.
+ */
+public final class DayBitmap {
+
+    public static final int MINUTES_PER_BIT = 5;
+    public static final int BITS = 24 * 60 / MINUTES_PER_BIT;
+    private static final int WORDS = (BITS + 63) >>> 6;
+
+    private final long[] words = new long[WORDS];
+
+    public void set(int from, int to) {
+        checkRange(from, to);
+        for (int w = from >>> 6; from < to && w <= (to - 1) >>> 6; w++) {
+            words[w] |= mask(w, from, to);
+        }
+    }
+
+    public boolean allSet(int from, int to) {
+        checkRange(from, to);
+        for (int w = from >>> 6; from < to && w <= (to - 1) >>> 6; w++) {
+            long mask = mask(w, from, to);
+            if ((words[w] & mask) != mask) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long mask(int w, int from, int to) {
+        int low = Math.max(from - (w << 6), 0);
+        int high = Math.min(to - (w << 6), 64);
+        long upper = high == 64 ? -1L : (1L << high) - 1;
+        return upper & (-1L << low);
+    }
+
+    private static void checkRange(int from, int to) {
+        if (from < 0 || to > BITS || from > to) {
+            throw new IndexOutOfBoundsException("Invalid bit range [" + from + ", " + to + ")");
+        }
+    }
+}
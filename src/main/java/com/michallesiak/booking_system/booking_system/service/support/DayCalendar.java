@@ -0,0 +1,72 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.michallesiak.booking_system.booking_system.dto.AvailableSlotDto;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Free-time bitmap of a specialist's day, built per request to answer the {@code minFreeMinutes}
+ * filter. Only five-minute cells fully covered by unbooked slots are set, so boundaries that are
+ * not five-minute aligned are always resolved conservatively.
+ */
+public final class DayCalendar {
+
+    private static final int SECONDS_PER_BIT = DayBitmap.MINUTES_PER_BIT * 60;
+    private static final long SECONDS_PER_DAY = 24 * 60 * 60;
+
+    private final LocalDate date;
+    private final DayBitmap free = new DayBitmap();
+
+    public DayCalendar(LocalDate date) {
+        this.date = date;
+    }
+
+    public static DayCalendar of(LocalDate date, Collection<AvailableSlotDto> slots) {
+        DayCalendar calendar = new DayCalendar(date);
+        slots.forEach(slot -> calendar.add(slot.getStartTime(), slot.getEndTime(), slot.isBooked()));
+        return calendar;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void add(LocalDateTime start, LocalDateTime end, boolean booked) {
+        long startSecond = clampedSecond(start);
+        long endSecond = clampedSecond(end);
+        if (startSecond >= endSecond) {
+            return;
+        }
+        if (!booked && ceilBit(startSecond) < floorBit(endSecond)) {
+            free.set(ceilBit(startSecond), floorBit(endSecond));
+        }
+    }
+
+    public boolean isFree(LocalDateTime start, int minutes) {
+        long startSecond = clampedSecond(start);
+        long endSecond = clampedSecond(start.plusMinutes(minutes));
+        if (endSecond - startSecond < minutes * 60L) {
+            return false;  // nie mieści się w tym dniu
+        }
+        return free.allSet(floorBit(startSecond), ceilBit(endSecond));
+    }
+
+    private long clampedSecond(LocalDateTime time) {
+        LocalDateTime dayStart = date.atStartOfDay();
+        if (time.isBefore(dayStart)) {
+            return 0;
+        }
+        return Math.min(Duration.between(dayStart, time).getSeconds(), SECONDS_PER_DAY);
+    }
+
+    private static int floorBit(long second) {
+        return (int) (second / SECONDS_PER_BIT);
+    }
+
+    private static int ceilBit(long second) {
+        return (int) ((second + SECONDS_PER_BIT - 1) / SECONDS_PER_BIT);
+    }
+}
@@ -0,0 +1,68 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel: scheduling is a lock-free append to the bucket of the deadline tick,
+ * advancing visits only the buckets passed since the previous call. Entries are never
+ * cancelled - callers ignore expirations that no longer apply.
+ */
+public final class HashedTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final Queue<Entry<T>>[] buckets;
+    private volatile long processedTick;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(int ticksPerWheel, long tickMillis, long startMillis) {
+        if (ticksPerWheel <= 0 || Integer.bitCount(ticksPerWheel) != 1) {
+            throw new IllegalArgumentException("Ticks per wheel must be a positive power of two");
+        }
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.mask = ticksPerWheel - 1;
+        this.buckets = new Queue[ticksPerWheel];
+        for (int i = 0; i < ticksPerWheel; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.processedTick = startMillis / tickMillis;
+    }
+
+    public void schedule(T item, long deadlineMillis) {
+        long tick = Math.max(ceilTick(deadlineMillis), processedTick + 1);
+        buckets[(int) (tick & mask)].add(new Entry<>(item, deadlineMillis));
+    }
+
+    /**
+     * Hands every entry whose deadline is at or before {@code nowMillis} to {@code onExpired}.
+     * Entries due in a later rotation stay in their bucket.
+     */
+    public synchronized void advance(long nowMillis, Consumer<T> onExpired) {
+        long currentTick = nowMillis / tickMillis;
+        long from = Math.max(processedTick + 1, currentTick - mask);
+        for (long tick = from; tick <= currentTick; tick++) {
+            Iterator<Entry<T>> it = buckets[(int) (tick & mask)].iterator();
+            while (it.hasNext()) {
+                Entry<T> entry = it.next();
+                if (entry.deadlineMillis() <= nowMillis) {
+                    it.remove();
+                    onExpired.accept(entry.item());
+                }
+            }
+        }
+        processedTick = Math.max(processedTick, currentTick);
+    }
+
+    private long ceilTick(long millis) {
+        return (millis + tickMillis - 1) / tickMillis;
+    }
+
+    private record Entry<T>(T item, long deadlineMillis) {
+    }
+}
@@ -0,0 +1,167 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.michallesiak.booking_system.booking_system.dto.AppointmentDto;
+import com.michallesiak.booking_system.booking_system.exception.IdempotencyKeyConflictException;
+import com.michallesiak.booking_system.booking_system.model.IdempotencyKey;
+import com.michallesiak.booking_system.booking_system.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recorded responses of appointment creation keyed by the client's Idempotency-Key.
+ * Lookups hit an in-memory tier first and fall back to the {@code idempotency_keys} table,
+ * which is written in the booking transaction and survives restarts.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    public record Entry(String requestHash, AppointmentDto response, Instant expiresAt) {
+    }
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Entry> cache;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Duration ttl;
+    private final Clock clock;
+
+    @Autowired
+    public IdempotencyStore(IdempotencyKeyRepository idempotencyKeyRepository,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${booking.idempotency.max-entries:100000}") long maxEntries,
+                            @Value("${booking.idempotency.ttl-hours:24}") long ttlHours) {
+        this(idempotencyKeyRepository, objectMapper, meterRegistry, maxEntries, ttlHours, Clock.systemUTC());
+    }
+
+    IdempotencyStore(IdempotencyKeyRepository idempotencyKeyRepository, ObjectMapper objectMapper,
+                     MeterRegistry meterRegistry, long maxEntries, long ttlHours, Clock clock) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "idempotency-keys");
+    }
+
+    /**
+     * Returns the response recorded for the key, or empty when the key is new or expired.
+     * A key reused with a different request is rejected instead of replayed.
+     */
+    public Optional<AppointmentDto> find(String key, String requestHash) {
+        Instant now = clock.instant();
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null || !entry.expiresAt().isAfter(now)) {
+            entry = idempotencyKeyRepository.findByIdempotencyKeyAndExpiresAtAfter(key, now)
+                    .map(this::toEntry)
+                    .orElse(null);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            cache.put(key, entry);
+        }
+        if (!entry.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyConflictException("Idempotency-Key was already used for a different request");
+        }
+        return Optional.of(entry.response());
+    }
+
+    /**
+     * Claims the key for one request on this instance; concurrent retries across instances
+     * are settled by the unique key column.
+     */
+    public boolean tryBegin(String key) {
+        return inFlight.add(key);
+    }
+
+    public void end(String key) {
+        inFlight.remove(key);
+    }
+
+    /**
+     * Must run inside the transaction that creates the appointment, so the key and the booking
+     * commit together. The in-memory tier is filled only after commit.
+     */
+    public void record(String key, String requestHash, AppointmentDto response) {
+        Instant expiresAt = clock.instant().plus(ttl);
+        idempotencyKeyRepository.saveAndFlush(new IdempotencyKey(key, requestHash, write(response), expiresAt));
+        Entry entry = new Entry(requestHash, response, expiresAt);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.put(key, entry);
+                }
+            });
+        } else {
+            cache.put(key, entry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.idempotency.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = idempotencyKeyRepository.deleteExpired(clock.instant());
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    public static String fingerprint(Object... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object part : parts) {
+                digest.update(Objects.toString(part, "").getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private Entry toEntry(IdempotencyKey row) {
+        try {
+            return new Entry(row.getRequestHash(), objectMapper.readValue(row.getResponseBody(), AppointmentDto.class), row.getExpiresAt());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored response for idempotency key is unreadable", ex);
+        }
+    }
+
+    private String write(AppointmentDto response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Response cannot be serialized", ex);
+        }
+    }
+}
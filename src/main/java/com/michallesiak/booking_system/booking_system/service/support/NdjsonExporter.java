@@ -0,0 +1,62 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes a stream of entities as newline-delimited JSON. Each entity is mapped, written and
+ * detached; the persistence context is cleared and the output flushed every batch, so memory
+ * stays flat regardless of the number of rows.
+ */
+@Component
+public class NdjsonExporter {
+
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public NdjsonExporter(ObjectMapper objectMapper,
+                          @Value("${booking.export.fetch-size:1000}") int batchSize) {
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    public <E> long export(Stream<E> rows, Function<E, ?> mapper, OutputStream out) {
+        long written = 0;
+        try (rows; JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<E> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                E row = iterator.next();
+                generator.writeObject(mapper.apply(row));
+                entityManager.detach(row);
+                if (++written % batchSize == 0) {
+                    // proxy powiązań zostają w kontekście mimo detach - czyścimy cały
+                    entityManager.clear();
+                    generator.flush();
+                }
+            }
+            if (written > 0) {
+                generator.writeRaw('\n');
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Export interrupted after " + written + " rows", ex);
+        }
+        return written;
+    }
+}
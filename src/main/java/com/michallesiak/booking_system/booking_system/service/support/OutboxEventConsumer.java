@@ -0,0 +1,21 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.michallesiak.booking_system.booking_system.dto.OutboxEventDto;
+import com.michallesiak.booking_system.booking_system.model.enums.OutboxEventType;
+
+/**
+ * In-process receiver of booking lifecycle events drained from the outbox. Every bean of this type
+ * is picked up by {@link OutboxRelay}. Delivery is at-least-once: an event is redelivered to all
+ * consumers when any of them throws, so {@link #accept} must tolerate duplicates
+ * ({@link OutboxEventDto#getId()} is stable across attempts).
+ */
+public interface OutboxEventConsumer {
+
+    String name();
+
+    default boolean supports(OutboxEventType type) {
+        return true;
+    }
+
+    void accept(OutboxEventDto event);
+}
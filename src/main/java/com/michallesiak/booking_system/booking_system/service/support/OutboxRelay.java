@@ -0,0 +1,224 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.michallesiak.booking_system.booking_system.dto.OutboxEventDto;
+import com.michallesiak.booking_system.booking_system.mapper.OutboxEventMapper;
+import com.michallesiak.booking_system.booking_system.model.OutboxEvent;
+import com.michallesiak.booking_system.booking_system.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox in batches and hands each event to every {@link OutboxEventConsumer}.
+ * Events of one specialist are delivered in id order; after a failure the rest of that
+ * specialist's events wait while other specialists carry on. A failed event is retried after an
+ * exponential backoff ({@code retry-base-ms} doubling up to {@code retry-max-ms}); until then its
+ * specialist is left out of every read. An event that keeps failing is parked after
+ * {@code max-attempts} so it stops blocking its specialist. A run ends early once a batch
+ * delivers nothing, so a downstream outage is not hammered within one run.
+ * <p>
+ * Ids come from a sequence, so a transaction that commits late can surface an older id after
+ * newer ones were relayed. Only events older than {@code settle-ms} are read to leave room for that.
+ * One instance relays at a time, guarded by a transaction-scoped advisory lock.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private static final long RELAY_LOCK_KEY = 0x6F7574626F78L;
+
+    record BatchResult(int read, int settled) {
+    }
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxEventConsumer> consumers;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final boolean enabled;
+    private final boolean leaderLock;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration settle;
+    private final int maxAttempts;
+    private final long retryBaseMs;
+    private final long retryMaxMs;
+    private final long highWaterThreshold;
+
+    private final Timer deliveryLag;
+    private final Counter delivered;
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong backlogHighWater = new AtomicLong();
+    private final AtomicLong oldestPendingSeconds = new AtomicLong();
+    private final AtomicLong parked = new AtomicLong();
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       List<OutboxEventConsumer> consumers,
+                       TransactionTemplate transactionTemplate,
+                       JdbcTemplate jdbcTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${booking.outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${booking.outbox.relay.leader-lock:true}") boolean leaderLock,
+                       @Value("${booking.outbox.relay.batch-size:200}") int batchSize,
+                       @Value("${booking.outbox.relay.max-batches-per-run:20}") int maxBatchesPerRun,
+                       @Value("${booking.outbox.relay.settle-ms:1000}") long settleMs,
+                       @Value("${booking.outbox.relay.max-attempts:10}") int maxAttempts,
+                       @Value("${booking.outbox.relay.retry-base-ms:1000}") long retryBaseMs,
+                       @Value("${booking.outbox.relay.retry-max-ms:300000}") long retryMaxMs,
+                       @Value("${booking.outbox.backlog-high-water:10000}") long highWaterThreshold) {
+        this(outboxEventRepository, consumers, transactionTemplate, jdbcTemplate, meterRegistry, enabled, leaderLock,
+                batchSize, maxBatchesPerRun, settleMs, maxAttempts, retryBaseMs, retryMaxMs, highWaterThreshold,
+                Clock.systemUTC());
+    }
+
+    OutboxRelay(OutboxEventRepository outboxEventRepository, List<OutboxEventConsumer> consumers,
+                TransactionTemplate transactionTemplate, JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                boolean enabled, boolean leaderLock, int batchSize, int maxBatchesPerRun, long settleMs,
+                int maxAttempts, long retryBaseMs, long retryMaxMs, long highWaterThreshold, Clock clock) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.consumers = List.copyOf(consumers);
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.leaderLock = leaderLock;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.settle = Duration.ofMillis(settleMs);
+        this.maxAttempts = maxAttempts;
+        this.retryBaseMs = retryBaseMs;
+        this.retryMaxMs = retryMaxMs;
+        this.highWaterThreshold = highWaterThreshold;
+        this.clock = clock;
+        this.deliveryLag = Timer.builder("booking.outbox.delivery.lag")
+                .description("Time from writing an event to delivering it")
+                .register(meterRegistry);
+        this.delivered = meterRegistry.counter("booking.outbox.delivered");
+        meterRegistry.gauge("booking.outbox.backlog", backlog);
+        meterRegistry.gauge("booking.outbox.backlog.high-water", backlogHighWater);
+        meterRegistry.gauge("booking.outbox.lag.seconds", oldestPendingSeconds);
+        meterRegistry.gauge("booking.outbox.parked", parked);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.outbox.relay.poll-interval-ms:500}")
+    public void drain() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                BatchResult result = transactionTemplate.execute(status -> relayBatch());
+                // bez postępu kolejna partia trafiłaby tylko w tę samą awarię odbiorcy
+                if (result == null || result.read() < batchSize || result.settled() == 0) {
+                    break;
+                }
+            }
+            refreshBacklog();
+        } catch (DataAccessException ex) {
+            log.warn("Outbox relay failed: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Relays one batch inside the caller's transaction and reports how many events were read and
+     * how many of them left the queue, delivered or parked.
+     */
+    BatchResult relayBatch() {
+        if (leaderLock && !Boolean.TRUE.equals(
+                jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, RELAY_LOCK_KEY))) {
+            return new BatchResult(0, 0);
+        }
+        Instant now = clock.instant();
+        List<OutboxEvent> events = outboxEventRepository.findPending(now.minus(settle), now, Limit.of(batchSize));
+        Map<Long, List<OutboxEvent>> bySpecialist = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            bySpecialist.computeIfAbsent(event.getSpecialistId(), id -> new ArrayList<>()).add(event);
+        }
+        List<OutboxEvent> done = new ArrayList<>();
+        int parkedNow = 0;
+        for (List<OutboxEvent> specialistEvents : bySpecialist.values()) {
+            for (OutboxEvent event : specialistEvents) {
+                if (deliver(event, now)) {
+                    done.add(event);
+                } else if (event.isParked()) {
+                    parkedNow++;
+                } else {
+                    // kolejne zdarzenia tego specjalisty czekają, aż to przejdzie albo zostanie odłożone
+                    break;
+                }
+            }
+        }
+        if (!done.isEmpty()) {
+            outboxEventRepository.deleteAllInBatch(done);
+        }
+        return new BatchResult(events.size(), done.size() + parkedNow);
+    }
+
+    private boolean deliver(OutboxEvent event, Instant now) {
+        OutboxEventDto dto = OutboxEventMapper.toDto(event);
+        for (OutboxEventConsumer consumer : consumers) {
+            if (!consumer.supports(event.getEventType())) {
+                continue;
+            }
+            try {
+                consumer.accept(dto);
+            } catch (RuntimeException ex) {
+                meterRegistry.counter("booking.outbox.failures", "consumer", consumer.name()).increment();
+                event.setAttempts(event.getAttempts() + 1);
+                event.setLastError(consumer.name() + ": " + ex.getMessage());
+                if (event.getAttempts() >= maxAttempts) {
+                    event.setParked(true);
+                    log.error("Parking outbox event {} ({}) after {} attempts: {}",
+                            event.getId(), event.getEventType(), event.getAttempts(), event.getLastError());
+                    return false;
+                }
+                event.setNextAttemptAt(now.plusMillis(backoffMillis(event.getAttempts())));
+                log.warn("Delivery of outbox event {} to {} failed (attempt {}), retrying at {}: {}",
+                        event.getId(), consumer.name(), event.getAttempts(), event.getNextAttemptAt(), ex.getMessage());
+                return false;
+            }
+        }
+        delivered.increment();
+        deliveryLag.record(Duration.between(event.getCreatedAt(), clock.instant()));
+        return true;
+    }
+
+    private long backoffMillis(int attempts) {
+        // przesunięcie ograniczone, żeby przy wielu próbach nie przepełnić longa
+        long backoff = retryBaseMs << Math.min(attempts - 1, 30);
+        return Math.min(backoff, retryMaxMs);
+    }
+
+    private void refreshBacklog() {
+        long pending = outboxEventRepository.countByParkedFalse();
+        long previous = backlog.getAndSet(pending);
+        backlogHighWater.accumulateAndGet(pending, Math::max);
+        parked.set(outboxEventRepository.countByParkedTrue());
+        oldestPendingSeconds.set(outboxEventRepository.findOldestPendingCreatedAt()
+                .map(createdAt -> Duration.between(createdAt, clock.instant()).toSeconds())
+                .orElse(0L));
+        if (pending > highWaterThreshold && previous <= highWaterThreshold) {
+            log.warn("Outbox backlog crossed high-water mark: {} pending events", pending);
+        }
+    }
+}
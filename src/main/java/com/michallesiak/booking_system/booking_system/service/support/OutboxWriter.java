@@ -0,0 +1,36 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.michallesiak.booking_system.booking_system.model.OutboxEvent;
+import com.michallesiak.booking_system.booking_system.model.enums.OutboxEventType;
+import com.michallesiak.booking_system.booking_system.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Appends booking lifecycle events to the {@code outbox_events} table. Runs only inside the caller's
+ * transaction, so an event exists exactly when the change it describes was committed.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(OutboxEventType type, Long aggregateId, Long specialistId, Object payload) {
+        outboxEventRepository.save(new OutboxEvent(type, aggregateId, specialistId, write(payload)));
+    }
+
+    private String write(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Outbox payload cannot be serialized", ex);
+        }
+    }
+}
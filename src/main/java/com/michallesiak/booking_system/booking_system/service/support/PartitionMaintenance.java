@@ -0,0 +1,79 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keeps the monthly partitions of {@code available_slots} and {@code appointments} ahead of
+ * the calendar and moves months past the retention window to the {@code archive} schema.
+ * The work itself lives in the SQL functions created by the V7 migration.
+ */
+@Component
+@Slf4j
+public class PartitionMaintenance {
+
+    private static final List<String> PARTITIONED_TABLES = List.of("available_slots", "appointments");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public PartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                @Value("${booking.partitioning.enabled:true}") boolean enabled,
+                                @Value("${booking.partitioning.months-ahead:24}") int monthsAhead,
+                                @Value("${booking.partitioning.retention-months:24}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    /**
+     * First instant without a partition: {@link #maintain()} keeps the current month and
+     * {@code months-ahead} further months, and there is no DEFAULT partition to catch the rest.
+     */
+    public LocalDateTime horizon() {
+        return LocalDate.now().withDayOfMonth(1).plusMonths(monthsAhead + 1L).atStartOfDay();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${booking.partitioning.cron:0 30 3 * * *}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        try {
+            for (String table : PARTITIONED_TABLES) {
+                Integer created = jdbcTemplate.queryForObject("SELECT ensure_monthly_partitions(?, ?, ?)",
+                        Integer.class, table, Date.valueOf(currentMonth), monthsAhead + 1);
+                if (created != null && created > 0) {
+                    log.info("Created {} monthly partitions for {}", created, table);
+                }
+            }
+            if (retentionMonths > 0) {
+                LocalDate cutoff = currentMonth.minusMonths(retentionMonths);
+                Integer archived = jdbcTemplate.queryForObject("SELECT archive_partitions_before(?)",
+                        Integer.class, Date.valueOf(cutoff));
+                if (archived != null && archived > 0) {
+                    log.info("Archived {} partitions older than {}", archived, cutoff);
+                }
+            }
+        } catch (DataAccessException ex) {
+            // inna instancja mogła właśnie tworzyć te same partycje - następny przebieg dokończy
+            log.warn("Partition maintenance failed: {}", ex.getMessage());
+        }
+    }
+}
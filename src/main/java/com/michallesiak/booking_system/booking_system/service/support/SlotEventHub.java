@@ -0,0 +1,340 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.michallesiak.booking_system.booking_system.exception.StreamCapacityExceededException;
+import com.michallesiak.booking_system.booking_system.model.enums.SlotEventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans slot changes out to Server-Sent Events subscribers of each specialist.
+ * <p>
+ * Connections are servlet async requests, so an idle subscriber holds no thread. Every subscriber
+ * has a bounded frame queue drained by a small shared dispatcher pool; a subscriber whose queue
+ * overflows is disconnected and is expected to reconnect with {@code Last-Event-ID}. Writes block,
+ * so a client that stops reading would hold a dispatcher thread; a write running longer than
+ * {@code write-timeout-ms} gets its subscriber evicted and its connection aborted. The last
+ * {@code replay-size} events per specialist are kept for such resumes. When the requested id is
+ * no longer covered, the client gets a {@code reset} event and should reload the calendar.
+ * <p>
+ * Event ids are seeded from the clock so they keep increasing across restarts. Each instance
+ * streams only the changes committed through it.
+ */
+@Component
+@Slf4j
+public class SlotEventHub {
+
+    static final String RESET_EVENT = "reset";
+
+    private record SlotEvent(long id, Set<DataWithMediaType> frame) {
+    }
+
+    /**
+     * In-process observer of committed slot changes, called on the committing thread.
+     */
+    public interface Listener {
+        void slotChanged(Long specialistId, SlotEventType type, Object data);
+    }
+
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequence;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ExecutorService dispatcher;
+    private final Counter evictions;
+    private final Counter writeTimeouts;
+    private final Clock clock;
+    private final int bufferSize;
+    private final int replaySize;
+    private final int maxConnections;
+    private final long timeoutMs;
+    private final long reconnectMs;
+    private final Duration idleRetention;
+    private final long writeTimeoutMs;
+
+    @Autowired
+    public SlotEventHub(MeterRegistry meterRegistry,
+                        @Value("${booking.slots.stream.buffer-size:64}") int bufferSize,
+                        @Value("${booking.slots.stream.replay-size:256}") int replaySize,
+                        @Value("${booking.slots.stream.max-connections:50000}") int maxConnections,
+                        @Value("${booking.slots.stream.timeout-ms:1800000}") long timeoutMs,
+                        @Value("${booking.slots.stream.reconnect-ms:3000}") long reconnectMs,
+                        @Value("${booking.slots.stream.idle-retention-minutes:10}") long idleRetentionMinutes,
+                        @Value("${booking.slots.stream.write-timeout-ms:5000}") long writeTimeoutMs,
+                        @Value("${booking.slots.stream.dispatch-threads:4}") int dispatchThreads) {
+        this(meterRegistry, bufferSize, replaySize, maxConnections, timeoutMs, reconnectMs, idleRetentionMinutes, writeTimeoutMs,
+                Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+                    Thread thread = new Thread(runnable, "slot-stream-dispatch");
+                    thread.setDaemon(true);
+                    return thread;
+                }), Clock.systemUTC());
+    }
+
+    SlotEventHub(MeterRegistry meterRegistry, int bufferSize, int replaySize, int maxConnections, long timeoutMs,
+                 long reconnectMs, long idleRetentionMinutes, long writeTimeoutMs, ExecutorService dispatcher, Clock clock) {
+        this.bufferSize = bufferSize;
+        this.replaySize = replaySize;
+        this.maxConnections = maxConnections;
+        this.timeoutMs = timeoutMs;
+        this.reconnectMs = reconnectMs;
+        this.idleRetention = Duration.ofMinutes(idleRetentionMinutes);
+        this.writeTimeoutMs = writeTimeoutMs;
+        this.dispatcher = dispatcher;
+        this.clock = clock;
+        this.sequence = new AtomicLong(clock.millis() * 1000);
+        this.evictions = meterRegistry.counter("booking.slots.stream.evictions");
+        this.writeTimeouts = meterRegistry.counter("booking.slots.stream.write-timeouts");
+        meterRegistry.gauge("booking.slots.stream.connections", connections);
+        meterRegistry.gauge("booking.slots.stream.channels", channels, Map::size);
+    }
+
+    /**
+     * Streams the specialist's slot changes after the current transaction commits.
+     */
+    public void publish(Long specialistId, SlotEventType type, Object data) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(specialistId, type, data);
+                }
+            });
+        } else {
+            dispatch(specialistId, type, data);
+        }
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public SseEmitter subscribe(Long specialistId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        subscribe(specialistId, lastEventId, emitter);
+        return emitter;
+    }
+
+    void subscribe(Long specialistId, Long lastEventId, SseEmitter emitter) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            throw new StreamCapacityExceededException("Too many open slot streams, retry later");
+        }
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(ex -> subscriber.close());
+        subscriber.offer(SseEmitter.event().reconnectTime(reconnectMs).comment("connected").build());
+        // kanał mógł zostać właśnie usunięty jako bezczynny - wtedy tworzymy nowy
+        Channel channel;
+        do {
+            channel = channels.computeIfAbsent(specialistId, id -> new Channel());
+        } while (!channel.join(subscriber, lastEventId));
+    }
+
+    @Scheduled(fixedDelayString = "${booking.slots.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        Set<DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        long idleBefore = clock.millis() - idleRetention.toMillis();
+        channels.forEach((specialistId, channel) -> {
+            channel.subscribers.forEach(subscriber -> subscriber.offer(ping));
+            channels.computeIfPresent(specialistId, (id, current) -> current.retire(idleBefore) ? null : current);
+        });
+    }
+
+    /**
+     * Evicts subscribers stuck in a write for longer than {@code write-timeout-ms}. Completing the
+     * emitter with an error aborts the connection, which fails the blocked write and frees its thread.
+     */
+    @Scheduled(fixedDelayString = "${booking.slots.stream.write-check-ms:1000}")
+    public void evictStalledWriters() {
+        long stalledBefore = clock.millis() - writeTimeoutMs;
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.evictIfStalled(stalledBefore)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        dispatcher.shutdownNow();
+    }
+
+    private void dispatch(Long specialistId, SlotEventType type, Object data) {
+        for (Listener listener : listeners) {
+            try {
+                listener.slotChanged(specialistId, type, data);
+            } catch (RuntimeException ex) {
+                log.warn("Slot change listener failed for specialist {}: {}", specialistId, ex.getMessage());
+            }
+        }
+        Channel channel = channels.get(specialistId);
+        if (channel != null) {
+            channel.publish(type, data);
+        }
+    }
+
+    private final class Channel {
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private final ArrayDeque<SlotEvent> history = new ArrayDeque<>();
+        // każde zdarzenie o id większym niż completeAfter wciąż jest w historii
+        private long completeAfter = sequence.get();
+        private long lastActivity = clock.millis();
+        private boolean retired;
+
+        synchronized boolean join(Subscriber subscriber, Long lastEventId) {
+            if (retired) {
+                return false;
+            }
+            subscriber.channel = this;
+            subscribers.add(subscriber);
+            lastActivity = clock.millis();
+            if (lastEventId != null) {
+                if (lastEventId < completeAfter || lastEventId > sequence.get()) {
+                    subscriber.offer(SseEmitter.event().name(RESET_EVENT).data("{}", MediaType.APPLICATION_JSON).build());
+                } else {
+                    history.stream().filter(event -> event.id() > lastEventId)
+                            .forEach(event -> subscriber.offer(event.frame()));
+                }
+            }
+            return true;
+        }
+
+        synchronized void publish(SlotEventType type, Object data) {
+            long id = sequence.incrementAndGet();
+            SlotEvent event = new SlotEvent(id, SseEmitter.event()
+                    .id(Long.toString(id))
+                    .name(type.getEventName())
+                    .data(data, MediaType.APPLICATION_JSON)
+                    .build());
+            history.addLast(event);
+            if (history.size() > replaySize) {
+                completeAfter = history.removeFirst().id();
+            }
+            lastActivity = clock.millis();
+            subscribers.forEach(subscriber -> subscriber.offer(event.frame()));
+        }
+
+        synchronized boolean retire(long idleBefore) {
+            retired = subscribers.isEmpty() && lastActivity < idleBefore;
+            return retired;
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final ArrayDeque<Set<DataWithMediaType>> queue = new ArrayDeque<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile Channel channel;
+        // początek trwającego zapisu, 0 gdy nic nie jest wysyłane
+        private volatile long sendStartedAt;
+        private boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Set<DataWithMediaType> frame) {
+            boolean overflow;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                overflow = queue.size() >= bufferSize;
+                if (!overflow) {
+                    queue.addLast(frame);
+                }
+            }
+            if (overflow) {
+                // wolny klient nie może wstrzymywać pozostałych - rozłączamy, wróci z Last-Event-ID
+                evictions.increment();
+                log.debug("Evicting slow slot stream subscriber");
+                close();
+                emitter.complete();
+                return;
+            }
+            if (scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Set<DataWithMediaType> frame;
+                synchronized (this) {
+                    frame = closed ? null : queue.pollFirst();
+                }
+                if (frame == null) {
+                    scheduled.set(false);
+                    synchronized (this) {
+                        if (closed || queue.isEmpty()) {
+                            return;
+                        }
+                    }
+                    if (!scheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                try {
+                    sendStartedAt = clock.millis();
+                    emitter.send(frame);
+                } catch (IOException | IllegalStateException ex) {
+                    close();
+                    emitter.completeWithError(ex);
+                    return;
+                } finally {
+                    sendStartedAt = 0;
+                }
+            }
+        }
+
+        void evictIfStalled(long stalledBefore) {
+            long startedAt = sendStartedAt;
+            if (startedAt == 0 || startedAt >= stalledBefore) {
+                return;
+            }
+            writeTimeouts.increment();
+            log.debug("Evicting slot stream subscriber stuck in a write since {}", startedAt);
+            close();
+            emitter.completeWithError(new IOException("Slot stream write timed out after " + writeTimeoutMs + " ms"));
+        }
+
+        void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                queue.clear();
+            }
+            Channel joined = channel;
+            if (joined != null) {
+                joined.subscribers.remove(this);
+            }
+            connections.decrementAndGet();
+        }
+    }
+}
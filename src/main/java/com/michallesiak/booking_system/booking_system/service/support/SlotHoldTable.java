@@ -0,0 +1,100 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory table of active slot holds, indexed by slot and by token. Lookups compare the
+ * deadline themselves, so an entry the wheel has not reached yet is already treated as gone;
+ * the wheel only reclaims memory.
+ */
+@Component
+@Slf4j
+public class SlotHoldTable {
+
+    public record Hold(UUID token, Long slotId, Long userId, Instant expiresAt) {
+    }
+
+    private final Map<Long, Hold> holdsBySlot = new ConcurrentHashMap<>();
+    private final Map<UUID, Hold> holdsByToken = new ConcurrentHashMap<>();
+    private final HashedTimingWheel<Hold> wheel;
+    private final Clock clock;
+
+    @Autowired
+    public SlotHoldTable(@Value("${booking.slots.hold.wheel-size:512}") int wheelSize,
+                         @Value("${booking.slots.hold.tick-ms:1000}") long tickMillis) {
+        this(wheelSize, tickMillis, Clock.systemUTC());
+    }
+
+    SlotHoldTable(int wheelSize, long tickMillis, Clock clock) {
+        this.clock = clock;
+        this.wheel = new HashedTimingWheel<>(wheelSize, tickMillis, clock.millis());
+    }
+
+    /**
+     * Claims the slot unless another unexpired hold owns it.
+     */
+    public boolean tryHold(Hold hold) {
+        Instant now = clock.instant();
+        Hold[] replaced = new Hold[1];
+        Hold winner = holdsBySlot.compute(hold.slotId(), (slotId, existing) -> {
+            if (existing != null && existing.expiresAt().isAfter(now)) {
+                return existing;
+            }
+            replaced[0] = existing;
+            return hold;
+        });
+        if (winner != hold) {
+            return false;
+        }
+        if (replaced[0] != null) {
+            holdsByToken.remove(replaced[0].token(), replaced[0]);
+        }
+        holdsByToken.put(hold.token(), hold);
+        wheel.schedule(hold, hold.expiresAt().toEpochMilli());
+        return true;
+    }
+
+    public boolean isHeld(Long slotId) {
+        return findBySlot(slotId).isPresent();
+    }
+
+    public Optional<Hold> findBySlot(Long slotId) {
+        return live(holdsBySlot.get(slotId));
+    }
+
+    public Optional<Hold> findByToken(UUID token) {
+        return live(holdsByToken.get(token));
+    }
+
+    public void release(Hold hold) {
+        holdsBySlot.remove(hold.slotId(), hold);
+        holdsByToken.remove(hold.token(), hold);
+    }
+
+    public int size() {
+        return holdsByToken.size();
+    }
+
+    public void expireDue() {
+        int before = size();
+        wheel.advance(clock.millis(), this::release);
+        int expired = before - size();
+        if (expired > 0) {
+            log.debug("Expired {} slot holds", expired);
+        }
+    }
+
+    private Optional<Hold> live(Hold hold) {
+        return hold != null && hold.expiresAt().isAfter(clock.instant()) ? Optional.of(hold) : Optional.empty();
+    }
+}
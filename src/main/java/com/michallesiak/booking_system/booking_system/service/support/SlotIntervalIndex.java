@@ -0,0 +1,227 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.michallesiak.booking_system.booking_system.repository.AvailableSlotRepository;
+import com.michallesiak.booking_system.booking_system.repository.projection.SlotTimeView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * In-memory per-specialist index of slot intervals used for overlap checks.
+ * A specialist is "warm" once its future slots were loaded; cold specialists
+ * and queries before the load horizon are answered by the database instead.
+ * Mutations are applied after commit, so rolled back writes never reach the index.
+ */
+@Component
+@Slf4j
+public class SlotIntervalIndex {
+
+    private final AvailableSlotRepository availableSlotRepository;
+    private final Map<Long, SpecialistIntervals> intervals;
+    private final Map<Long, AtomicLong> stamps = new ConcurrentHashMap<>();
+
+    public SlotIntervalIndex(AvailableSlotRepository availableSlotRepository,
+                             @Value("${booking.slot-index.max-specialists:10000}") int maxSpecialists) {
+        this.availableSlotRepository = availableSlotRepository;
+        this.intervals = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, SpecialistIntervals> eldest) {
+                return size() > maxSpecialists;
+            }
+        });
+    }
+
+    public Optional<Boolean> overlaps(Long specialistId, LocalDateTime startTime, LocalDateTime endTime, Long excludeSlotId) {
+        SpecialistIntervals entry = intervals.get(specialistId);
+        long start = toSeconds(startTime);
+        if (entry == null || start < entry.horizon) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.overlaps(start, toSeconds(endTime), excludeSlotId));
+    }
+
+    public boolean isWarm(Long specialistId) {
+        return intervals.containsKey(specialistId);
+    }
+
+    public void warm(Long specialistId) {
+        if (intervals.containsKey(specialistId)) {
+            return;
+        }
+        long stamp = stampOf(specialistId).get();
+        LocalDateTime horizon = LocalDateTime.now();
+        List<SlotTimeView> slots = availableSlotRepository
+                .findBySpecialistIdAndEndTimeAfterOrderByStartTime(specialistId, horizon);
+        SpecialistIntervals entry = new SpecialistIntervals(toSeconds(horizon), slots.size());
+        for (SlotTimeView slot : slots) {
+            entry.add(slot.getId(), toSeconds(slot.getStartTime()), toSeconds(slot.getEndTime()));
+        }
+        // a slot committed while we were loading may be missing from the snapshot
+        if (stampOf(specialistId).get() == stamp) {
+            intervals.putIfAbsent(specialistId, entry);
+            log.debug("Warmed slot index for specialist: {} with {} slots", specialistId, slots.size());
+        }
+    }
+
+    public void slotAdded(Long specialistId, Long slotId, LocalDateTime startTime, LocalDateTime endTime) {
+        long start = toSeconds(startTime);
+        long end = toSeconds(endTime);
+        afterCommit(specialistId, entry -> entry.add(slotId, start, end));
+    }
+
+    public void slotRemoved(Long specialistId, Long slotId, LocalDateTime startTime) {
+        long start = toSeconds(startTime);
+        afterCommit(specialistId, entry -> entry.remove(slotId, start));
+    }
+
+    public void evict(Long specialistId) {
+        afterCommit(specialistId, entry -> intervals.remove(specialistId));
+    }
+
+    private void afterCommit(Long specialistId, Consumer<SpecialistIntervals> mutation) {
+        Runnable apply = () -> {
+            stampOf(specialistId).incrementAndGet();
+            SpecialistIntervals entry = intervals.get(specialistId);
+            if (entry != null) {
+                mutation.accept(entry);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private AtomicLong stampOf(Long specialistId) {
+        return stamps.computeIfAbsent(specialistId, id -> new AtomicLong());
+    }
+
+    static long toSeconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Slots sorted by start time in parallel primitive arrays. {@code maxEnds[i]} is the
+     * largest end among the first i + 1 slots, which bounds the backwards scan even when
+     * legacy rows overlap each other.
+     */
+    static final class SpecialistIntervals {
+        private final long horizon;
+        private long[] ids;
+        private long[] starts;
+        private long[] ends;
+        private long[] maxEnds;
+        private int size;
+
+        SpecialistIntervals(long horizon, int capacity) {
+            this.horizon = horizon;
+            int initial = Math.max(capacity, 16);
+            this.ids = new long[initial];
+            this.starts = new long[initial];
+            this.ends = new long[initial];
+            this.maxEnds = new long[initial];
+        }
+
+        synchronized boolean overlaps(long start, long end, Long excludeSlotId) {
+            // every slot at index >= i starts at or after the queried end
+            int i = lowerBound(end) - 1;
+            while (i >= 0 && maxEnds[i] > start) {
+                if (ends[i] > start && (excludeSlotId == null || ids[i] != excludeSlotId)) {
+                    return true;
+                }
+                i--;
+            }
+            return false;
+        }
+
+        synchronized void add(long id, long start, long end) {
+            int pos = lowerBound(start);
+            for (int i = pos; i < size && starts[i] == start; i++) {
+                if (ids[i] == id) {
+                    return;
+                }
+            }
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                maxEnds = Arrays.copyOf(maxEnds, capacity);
+            }
+            int tail = size - pos;
+            System.arraycopy(ids, pos, ids, pos + 1, tail);
+            System.arraycopy(starts, pos, starts, pos + 1, tail);
+            System.arraycopy(ends, pos, ends, pos + 1, tail);
+            ids[pos] = id;
+            starts[pos] = start;
+            ends[pos] = end;
+            size++;
+            recomputeMaxEnds(pos);
+        }
+
+        synchronized void remove(long id, long start) {
+            int pos = -1;
+            for (int i = lowerBound(start); i < size && starts[i] == start; i++) {
+                if (ids[i] == id) {
+                    pos = i;
+                    break;
+                }
+            }
+            if (pos < 0) {
+                return;
+            }
+            int tail = size - pos - 1;
+            System.arraycopy(ids, pos + 1, ids, pos, tail);
+            System.arraycopy(starts, pos + 1, starts, pos, tail);
+            System.arraycopy(ends, pos + 1, ends, pos, tail);
+            size--;
+            recomputeMaxEnds(pos);
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private void recomputeMaxEnds(int from) {
+            long max = from == 0 ? Long.MIN_VALUE : maxEnds[from - 1];
+            for (int i = from; i < size; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnds[i] = max;
+            }
+        }
+
+        private int lowerBound(long start) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < start) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.michallesiak.booking_system.booking_system.repository.AvailableSlotRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+/**
+ * Slot id to partition key ({@code start_time}) and owner, so lookups by slot id can name the
+ * one partition they need instead of probing every month. Slots created here are remembered
+ * as they are inserted; any other id costs one unpruned lookup the first time it is seen.
+ * An entry can go stale when a window slot is narrowed, possibly on another instance, so a
+ * query that finds nothing is retried once with the key read back from the database.
+ */
+@Component
+public class SlotKeys {
+
+    public record Key(Long specialistId, LocalDateTime startTime) {
+    }
+
+    private final AvailableSlotRepository availableSlotRepository;
+    private final Cache<Long, Key> keys;
+
+    public SlotKeys(AvailableSlotRepository availableSlotRepository,
+                    @Value("${booking.slot-keys.max-entries:200000}") long maxEntries) {
+        this.availableSlotRepository = availableSlotRepository;
+        this.keys = Caffeine.newBuilder().maximumSize(maxEntries).build();
+    }
+
+    public Optional<Key> find(Long slotId) {
+        return Optional.ofNullable(keys.get(slotId, id -> availableSlotRepository.findSlotViewById(id)
+                .map(view -> new Key(view.getSpecialistId(), view.getStartTime()))
+                .orElse(null)));
+    }
+
+    public void remember(Long slotId, Long specialistId, LocalDateTime startTime) {
+        keys.put(slotId, new Key(specialistId, startTime));
+    }
+
+    /**
+     * Runs a lookup restricted to the slot's partition. Empty when the slot does not exist.
+     */
+    public <T> Optional<T> withStartTime(Long slotId, BiFunction<Long, LocalDateTime, Optional<T>> query) {
+        Optional<Key> key = find(slotId);
+        if (key.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<T> result = query.apply(slotId, key.get().startTime());
+        if (result.isPresent()) {
+            return result;
+        }
+        keys.invalidate(slotId);
+        Optional<Key> fresh = find(slotId);
+        if (fresh.isEmpty() || fresh.get().startTime().equals(key.get().startTime())) {
+            return result;
+        }
+        return query.apply(slotId, fresh.get().startTime());
+    }
+}
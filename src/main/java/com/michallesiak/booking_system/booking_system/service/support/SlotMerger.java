@@ -0,0 +1,60 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.michallesiak.booking_system.booking_system.dto.AvailableSlotDto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * K-way merge of slot lists that are each sorted by start time. The heap holds one cursor per
+ * list, so taking the first {@code limit} slots costs O(limit log lists) after the lists exist.
+ */
+public final class SlotMerger {
+
+    public static final Comparator<AvailableSlotDto> EARLIEST_FIRST = Comparator
+            .comparing(AvailableSlotDto::getStartTime)
+            .thenComparing(AvailableSlotDto::getSpecialistId)
+            .thenComparing(AvailableSlotDto::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private SlotMerger() {
+    }
+
+    public static List<AvailableSlotDto> earliest(Collection<List<AvailableSlotDto>> sortedLists, int limit) {
+        PriorityQueue<Cursor> heap = new PriorityQueue<>(Math.max(1, sortedLists.size()),
+                (first, second) -> EARLIEST_FIRST.compare(first.current(), second.current()));
+        for (List<AvailableSlotDto> list : sortedLists) {
+            if (!list.isEmpty()) {
+                heap.add(new Cursor(list));
+            }
+        }
+        List<AvailableSlotDto> result = new ArrayList<>(Math.min(limit, 64));
+        while (result.size() < limit && !heap.isEmpty()) {
+            Cursor cursor = heap.poll();
+            result.add(cursor.current());
+            if (cursor.advance()) {
+                heap.add(cursor);
+            }
+        }
+        return result;
+    }
+
+    private static final class Cursor {
+        private final List<AvailableSlotDto> slots;
+        private int position;
+
+        private Cursor(List<AvailableSlotDto> slots) {
+            this.slots = slots;
+        }
+
+        private AvailableSlotDto current() {
+            return slots.get(position);
+        }
+
+        private boolean advance() {
+            return ++position < slots.size();
+        }
+    }
+}
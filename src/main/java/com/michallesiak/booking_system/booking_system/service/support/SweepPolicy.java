@@ -0,0 +1,44 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.michallesiak.booking_system.booking_system.model.enums.AppointmentStatus;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Status a past appointment is moved to by the lifecycle sweeper, per status it was left in.
+ * A blank target turns the pass off for that status.
+ */
+public final class SweepPolicy {
+
+    private final Map<AppointmentStatus, AppointmentStatus> targets;
+
+    private SweepPolicy(Map<AppointmentStatus, AppointmentStatus> targets) {
+        this.targets = Collections.unmodifiableMap(targets);
+    }
+
+    public static SweepPolicy of(String bookedTarget, String confirmedTarget, String inProgressTarget) {
+        Map<AppointmentStatus, AppointmentStatus> targets = new EnumMap<>(AppointmentStatus.class);
+        put(targets, AppointmentStatus.BOOKED, bookedTarget);
+        put(targets, AppointmentStatus.CONFIRMED, confirmedTarget);
+        put(targets, AppointmentStatus.IN_PROGRESS, inProgressTarget);
+        return new SweepPolicy(targets);
+    }
+
+    public Map<AppointmentStatus, AppointmentStatus> targets() {
+        return targets;
+    }
+
+    private static void put(Map<AppointmentStatus, AppointmentStatus> targets, AppointmentStatus source, String target) {
+        if (target == null || target.isBlank()) {
+            return;
+        }
+        AppointmentStatus status = AppointmentStatus.valueOf(target.trim().toUpperCase(Locale.ROOT));
+        if (!AppointmentTransitions.isAllowed(source, status)) {
+            throw new IllegalArgumentException("Past " + source + " appointments cannot be swept to " + status);
+        }
+        targets.put(source, status);
+    }
+}
@@ -0,0 +1,190 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.michallesiak.booking_system.booking_system.model.enums.WaitlistStatus;
+import com.michallesiak.booking_system.booking_system.repository.WaitlistEntryRepository;
+import com.michallesiak.booking_system.booking_system.repository.projection.WaiterView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * In-memory per-specialist index of active waitlist subscriptions. Every window is bucketed
+ * under each day it covers and every bucket is kept in rank order, so matching a freed slot
+ * reads one bucket from the top instead of scanning all waiters of the specialist.
+ * Like {@link SlotIntervalIndex} it is filled lazily from the database and mutated after commit;
+ * the conditional status update on the entry stays the authority on who gets an offer.
+ */
+@Component
+@Slf4j
+public class WaitlistIndex {
+
+    public record Waiter(Long entryId, Long userId, Integer durationMinutes,
+                         LocalDate dateFrom, LocalDate dateTo, int priority) {
+
+        boolean fits(long slotMinutes) {
+            return durationMinutes == null || durationMinutes <= slotMinutes;
+        }
+    }
+
+    // najwyższy priorytet pierwszy, przy remisie wcześniejszy zapis
+    static final Comparator<Waiter> RANK = Comparator.comparingInt(Waiter::priority).reversed()
+            .thenComparing(Waiter::entryId);
+
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final Map<Long, SpecialistWaiters> waiters;
+    private final Map<Long, AtomicLong> stamps = new ConcurrentHashMap<>();
+
+    public WaitlistIndex(WaitlistEntryRepository waitlistEntryRepository,
+                         @Value("${booking.waitlist.max-specialists:10000}") int maxSpecialists) {
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.waiters = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, SpecialistWaiters> eldest) {
+                return size() > maxSpecialists;
+            }
+        });
+    }
+
+    /**
+     * Best-ranked waiters whose window covers the day and whose service fits into the slot.
+     * A cold specialist has no candidates; callers warm it first.
+     */
+    public List<Waiter> candidates(Long specialistId, LocalDate date, long slotMinutes, int limit) {
+        SpecialistWaiters entry = waiters.get(specialistId);
+        return entry == null ? List.of() : entry.candidates(date, slotMinutes, limit);
+    }
+
+    public boolean isWarm(Long specialistId) {
+        return waiters.containsKey(specialistId);
+    }
+
+    public void warm(Long specialistId) {
+        if (waiters.containsKey(specialistId)) {
+            return;
+        }
+        long stamp = stampOf(specialistId).get();
+        List<WaiterView> views = waitlistEntryRepository.findWaiters(specialistId, WaitlistStatus.ACTIVE, LocalDate.now());
+        SpecialistWaiters entry = new SpecialistWaiters();
+        for (WaiterView view : views) {
+            entry.add(new Waiter(view.getId(), view.getUserId(), view.getDurationMinutes(),
+                    view.getDateFrom(), view.getDateTo(), view.getPriority()));
+        }
+        // wpis zatwierdzony w trakcie ładowania mógł nie trafić do migawki
+        if (stampOf(specialistId).get() == stamp) {
+            waiters.putIfAbsent(specialistId, entry);
+            log.debug("Warmed waitlist index for specialist: {} with {} waiters", specialistId, views.size());
+        }
+    }
+
+    public void added(Long specialistId, Waiter waiter) {
+        afterCommit(specialistId, entry -> entry.add(waiter));
+    }
+
+    public void removed(Long specialistId, Long entryId) {
+        afterCommit(specialistId, entry -> entry.remove(entryId));
+    }
+
+    public void pruneBefore(LocalDate today) {
+        synchronized (waiters) {
+            waiters.values().forEach(entry -> entry.pruneBefore(today));
+        }
+    }
+
+    private void afterCommit(Long specialistId, Consumer<SpecialistWaiters> mutation) {
+        Runnable apply = () -> {
+            stampOf(specialistId).incrementAndGet();
+            SpecialistWaiters entry = waiters.get(specialistId);
+            if (entry != null) {
+                mutation.accept(entry);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private AtomicLong stampOf(Long specialistId) {
+        return stamps.computeIfAbsent(specialistId, id -> new AtomicLong());
+    }
+
+    /**
+     * Day buckets of rank-ordered waiters. Windows are capped by {@code booking.waitlist.max-window-days},
+     * so a subscription touches a bounded number of buckets.
+     */
+    static final class SpecialistWaiters {
+        private final Map<Long, Waiter> byId = new HashMap<>();
+        private final TreeMap<LocalDate, NavigableSet<Waiter>> byDay = new TreeMap<>();
+
+        synchronized List<Waiter> candidates(LocalDate date, long slotMinutes, int limit) {
+            NavigableSet<Waiter> bucket = byDay.get(date);
+            if (bucket == null) {
+                return List.of();
+            }
+            List<Waiter> result = new ArrayList<>(Math.min(limit, bucket.size()));
+            for (Waiter waiter : bucket) {
+                if (waiter.fits(slotMinutes)) {
+                    result.add(waiter);
+                    if (result.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            return result;
+        }
+
+        synchronized void add(Waiter waiter) {
+            if (byId.putIfAbsent(waiter.entryId(), waiter) != null) {
+                return;
+            }
+            for (LocalDate day = waiter.dateFrom(); !day.isAfter(waiter.dateTo()); day = day.plusDays(1)) {
+                byDay.computeIfAbsent(day, d -> new TreeSet<>(RANK)).add(waiter);
+            }
+        }
+
+        synchronized void remove(Long entryId) {
+            Waiter waiter = byId.remove(entryId);
+            if (waiter == null) {
+                return;
+            }
+            for (LocalDate day = waiter.dateFrom(); !day.isAfter(waiter.dateTo()); day = day.plusDays(1)) {
+                NavigableSet<Waiter> bucket = byDay.get(day);
+                if (bucket != null && bucket.remove(waiter) && bucket.isEmpty()) {
+                    byDay.remove(day);
+                }
+            }
+        }
+
+        synchronized void pruneBefore(LocalDate today) {
+            byDay.headMap(today).clear();
+            byId.values().removeIf(waiter -> waiter.dateTo().isBefore(today));
+        }
+
+        synchronized int size() {
+            return byId.size();
+        }
+    }
+}
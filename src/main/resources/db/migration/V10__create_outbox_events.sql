@@ -0,0 +1,21 @@
+-- ========================================
+-- Flyway Migration: Transactional outbox for booking lifecycle events
+-- ========================================
+
+-- Zdarzenie zapisywane w tej samej transakcji co zmiana wizyty lub slotu.
+-- Relay czyta po id, dostarcza w kolejności per specjalista i usuwa dostarczone wiersze.
+CREATE TABLE outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    specialist_id BIGINT NOT NULL,
+    payload TEXT NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    last_error TEXT,
+    parked BOOLEAN NOT NULL DEFAULT FALSE
+);
+
+-- Relay i metryki zaległości patrzą tylko na niezaparkowane wiersze
+CREATE INDEX idx_outbox_events_pending ON outbox_events (id) WHERE parked = FALSE;
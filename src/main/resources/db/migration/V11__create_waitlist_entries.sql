@@ -0,0 +1,33 @@
+-- ========================================
+-- Flyway Migration: Waitlist with time-boxed slot offers
+-- ========================================
+
+-- Zapis na listę oczekujących na termin u specjalisty w oknie dat.
+-- Zwolniony slot trafia do najlepiej sklasyfikowanego oczekującego jako oferta z blokadą slotu (slot_holds).
+CREATE TABLE waitlist_entries (
+    id BIGSERIAL PRIMARY KEY,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    specialist_id BIGINT NOT NULL REFERENCES specialists(id) ON DELETE CASCADE,
+    service_id BIGINT REFERENCES services(id) ON DELETE CASCADE,
+    date_from DATE NOT NULL,
+    date_to DATE NOT NULL,
+    priority INT NOT NULL DEFAULT 0,
+    status VARCHAR(20) NOT NULL,
+    -- slot jest partycjonowany, więc oferta wskazuje go samym id bez klucza obcego
+    offered_slot_id BIGINT,
+    offer_token UUID,
+    offer_expires_at TIMESTAMP,
+    CONSTRAINT chk_waitlist_window CHECK (date_to >= date_from)
+);
+
+-- Ładowanie aktywnych zapisów specjalisty do indeksu w pamięci
+CREATE INDEX idx_waitlist_entries_specialist_active ON waitlist_entries (specialist_id, date_to)
+    WHERE status = 'ACTIVE';
+
+-- Wygasanie ofert
+CREATE INDEX idx_waitlist_entries_offer_expiry ON waitlist_entries (offer_expires_at)
+    WHERE status = 'OFFERED';
+
+CREATE INDEX idx_waitlist_entries_user ON waitlist_entries (user_id);
@@ -0,0 +1,11 @@
+-- ========================================
+-- Flyway Migration: Retry backoff for outbox events
+-- ========================================
+
+-- Po nieudanej dostawie zdarzenie czeka do next_attempt_at (wykładniczo rosnąca przerwa),
+-- a do tego czasu relay pomija też późniejsze zdarzenia tego samego specjalisty.
+ALTER TABLE outbox_events ADD COLUMN next_attempt_at TIMESTAMP;
+
+-- Sprawdzenie, czy specjalista ma wcześniejsze zdarzenie w trakcie przerwy
+CREATE INDEX idx_outbox_events_backoff ON outbox_events (specialist_id, id)
+    WHERE parked = FALSE AND next_attempt_at IS NOT NULL;
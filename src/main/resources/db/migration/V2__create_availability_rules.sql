@@ -0,0 +1,22 @@
+-- ========================================
+-- Flyway Migration: Recurring availability rules
+-- ========================================
+
+-- Reguły dostępności - sloty generowane w locie, fizyczny wiersz w available_slots
+-- powstaje dopiero przy rezerwacji lub nadpisaniu
+CREATE TABLE availability_rules (
+    id BIGSERIAL PRIMARY KEY,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    specialist_id BIGINT NOT NULL REFERENCES specialists(id) ON DELETE CASCADE,
+    day_of_week VARCHAR(20) NOT NULL,
+    start_time TIME NOT NULL,
+    end_time TIME NOT NULL,
+    slot_duration_minutes INT NOT NULL,
+    valid_from DATE NOT NULL,
+    valid_to DATE,
+    active BOOLEAN NOT NULL,
+    CONSTRAINT chk_availability_rule_window CHECK (start_time < end_time)
+);
+
+CREATE INDEX idx_availability_rules_specialist ON availability_rules (specialist_id, day_of_week);
@@ -0,0 +1,11 @@
+-- ========================================
+-- Flyway Migration: One active appointment per slot
+-- ========================================
+
+-- Anulowana wizyta nie blokuje ponownej rezerwacji slotu - unikalność tylko dla aktywnych statusów
+ALTER TABLE appointments DROP CONSTRAINT appointments_slot_id_key;
+
+CREATE UNIQUE INDEX uq_appointments_active_slot ON appointments (slot_id)
+    WHERE status IN ('BOOKED', 'CONFIRMED', 'IN_PROGRESS');
+
+CREATE INDEX idx_appointments_slot ON appointments (slot_id);
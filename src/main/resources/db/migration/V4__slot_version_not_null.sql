@@ -0,0 +1,9 @@
+-- ========================================
+-- Flyway Migration: Optimistic locking for slots
+-- ========================================
+
+UPDATE available_slots SET version = 0 WHERE version IS NULL;
+
+ALTER TABLE available_slots
+    ALTER COLUMN version SET DEFAULT 0,
+    ALTER COLUMN version SET NOT NULL;
@@ -0,0 +1,16 @@
+-- ========================================
+-- Flyway Migration: Slot holds (reservation leases)
+-- ========================================
+
+-- Trwała kopia blokad z pamięci - odczytywana tylko przy starcie aplikacji
+CREATE TABLE slot_holds (
+    id BIGSERIAL PRIMARY KEY,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    token UUID NOT NULL UNIQUE,
+    slot_id BIGINT NOT NULL UNIQUE REFERENCES available_slots(id) ON DELETE CASCADE,
+    user_id BIGINT REFERENCES users(id) ON DELETE CASCADE,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_slot_holds_expires_at ON slot_holds (expires_at);
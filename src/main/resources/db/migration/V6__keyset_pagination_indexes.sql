@@ -0,0 +1,10 @@
+-- ========================================
+-- Flyway Migration: Keyset pagination indexes
+-- ========================================
+
+-- Stronicowanie po kluczu (start_time, id) oraz (status, id) - bez OFFSET i bez sortowania całej tabeli
+CREATE INDEX idx_available_slots_start_time_id ON available_slots (start_time, id);
+
+CREATE INDEX idx_appointments_status_id ON appointments (status, id);
+
+CREATE INDEX idx_specialists_accepting_id ON specialists (id) WHERE accepting_appointments;
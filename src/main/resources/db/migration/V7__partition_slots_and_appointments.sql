@@ -0,0 +1,172 @@
+-- ========================================
+-- Flyway Migration: Monthly range partitioning for slots and appointments
+-- ========================================
+
+-- Partycje miesięczne po start_time. Wizyty dostają kopię czasu slotu (slot_start_time),
+-- dzięki czemu obie tabele dzielą się identycznie i stare miesiące można archiwizować parami.
+
+-- Tworzy brakujące partycje <parent>_pYYYYMM dla kolejnych miesięcy, zwraca liczbę nowych
+CREATE OR REPLACE FUNCTION ensure_monthly_partitions(parent TEXT, from_month DATE, months INT)
+RETURNS INT LANGUAGE plpgsql AS $$
+DECLARE
+    month_start DATE;
+    partition_name TEXT;
+    created INT := 0;
+BEGIN
+    FOR i IN 0 .. months - 1 LOOP
+        month_start := (date_trunc('month', from_month) + make_interval(months => i))::date;
+        partition_name := format('%s_p%s', parent, to_char(month_start, 'YYYYMM'));
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                           partition_name, parent, month_start, (month_start + INTERVAL '1 month')::date);
+            created := created + 1;
+        END IF;
+    END LOOP;
+    RETURN created;
+END;
+$$;
+
+-- Odłącza partycje kończące się przed cutoff i przenosi je do schematu archive.
+-- Wizyty idą pierwsze - slot z tego samego miesiąca nie ma już wtedy odwołań.
+CREATE SCHEMA IF NOT EXISTS archive;
+
+CREATE OR REPLACE FUNCTION archive_partitions_before(cutoff DATE)
+RETURNS INT LANGUAGE plpgsql AS $$
+DECLARE
+    part RECORD;
+    fk RECORD;
+    archived INT := 0;
+BEGIN
+    DELETE FROM slot_holds WHERE slot_start_time < cutoff;
+    FOR part IN
+        SELECT child.relname AS name, parent.relname AS parent_name
+        FROM pg_inherits inh
+        JOIN pg_class child ON child.oid = inh.inhrelid
+        JOIN pg_class parent ON parent.oid = inh.inhparent
+        WHERE parent.relname IN ('appointments', 'available_slots')
+          AND parent.relnamespace = 'public'::regnamespace
+          AND child.relname ~ '_p[0-9]{6}$'
+          AND to_date(right(child.relname, 6), 'YYYYMM') + INTERVAL '1 month' <= cutoff
+        ORDER BY parent.relname = 'appointments' DESC, child.relname
+    LOOP
+        EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', part.parent_name, part.name);
+        -- odłączona tabela zachowuje klucze obce - archiwum ma być niezależne od tabel bieżących
+        FOR fk IN
+            SELECT conname FROM pg_constraint
+            WHERE conrelid = format('%I', part.name)::regclass AND contype = 'f'
+        LOOP
+            EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', part.name, fk.conname);
+        END LOOP;
+        EXECUTE format('ALTER TABLE %I SET SCHEMA archive', part.name);
+        archived := archived + 1;
+    END LOOP;
+    RETURN archived;
+END;
+$$;
+
+-- Stare klucze obce na available_slots(id) nie przetrwają zmiany klucza głównego
+ALTER TABLE appointments DROP CONSTRAINT appointments_slot_id_fkey;
+ALTER TABLE slot_holds DROP CONSTRAINT slot_holds_slot_id_fkey;
+
+ALTER TABLE available_slots RENAME TO available_slots_legacy;
+ALTER TABLE appointments RENAME TO appointments_legacy;
+ALTER SEQUENCE available_slots_id_seq OWNED BY NONE;
+ALTER SEQUENCE appointments_id_seq OWNED BY NONE;
+
+CREATE TABLE available_slots (
+    id BIGINT NOT NULL DEFAULT nextval('available_slots_id_seq'),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    specialist_id BIGINT NOT NULL,
+    start_time TIMESTAMP NOT NULL,
+    end_time TIMESTAMP NOT NULL,
+    booked BOOLEAN NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0
+) PARTITION BY RANGE (start_time);
+
+CREATE TABLE appointments (
+    id BIGINT NOT NULL DEFAULT nextval('appointments_id_seq'),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    user_id BIGINT NOT NULL,
+    slot_id BIGINT NOT NULL,
+    slot_start_time TIMESTAMP NOT NULL,
+    service_id BIGINT NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    notes TEXT
+) PARTITION BY RANGE (slot_start_time);
+
+-- Partycje od najstarszych danych do co najmniej 24 miesięcy naprzód; dalsze tworzy PartitionMaintenance
+DO $$
+DECLARE
+    first_month DATE;
+    last_month DATE;
+    months INT;
+BEGIN
+    SELECT date_trunc('month', LEAST(COALESCE(MIN(start_time), now()), now()))::date,
+           date_trunc('month', GREATEST(COALESCE(MAX(start_time), now()), now() + INTERVAL '24 months'))::date
+    INTO first_month, last_month
+    FROM available_slots_legacy;
+    months := ((EXTRACT(YEAR FROM last_month) - EXTRACT(YEAR FROM first_month)) * 12
+               + EXTRACT(MONTH FROM last_month) - EXTRACT(MONTH FROM first_month))::int + 1;
+    PERFORM ensure_monthly_partitions('available_slots', first_month, months);
+    PERFORM ensure_monthly_partitions('appointments', first_month, months);
+END;
+$$;
+
+INSERT INTO available_slots (id, created_at, updated_at, specialist_id, start_time, end_time, booked, version)
+SELECT id, created_at, updated_at, specialist_id, start_time, end_time, booked, version
+FROM available_slots_legacy;
+
+INSERT INTO appointments (id, created_at, updated_at, user_id, slot_id, slot_start_time, service_id, status, notes)
+SELECT a.id, a.created_at, a.updated_at, a.user_id, a.slot_id, s.start_time, a.service_id, a.status, a.notes
+FROM appointments_legacy a
+JOIN available_slots s ON s.id = a.slot_id;
+
+DROP TABLE appointments_legacy;
+DROP TABLE available_slots_legacy;
+
+ALTER SEQUENCE available_slots_id_seq OWNED BY available_slots.id;
+ALTER SEQUENCE appointments_id_seq OWNED BY appointments.id;
+
+-- Klucz partycjonowania musi wchodzić w każdy klucz unikalny
+ALTER TABLE available_slots
+    ADD CONSTRAINT available_slots_pkey PRIMARY KEY (id, start_time),
+    ADD CONSTRAINT unique_specialist_slot UNIQUE (specialist_id, start_time),
+    ADD CONSTRAINT available_slots_specialist_id_fkey FOREIGN KEY (specialist_id)
+        REFERENCES specialists(id) ON DELETE CASCADE;
+
+CREATE INDEX idx_available_slots_start_time_id ON available_slots (start_time, id);
+
+ALTER TABLE appointments
+    ADD CONSTRAINT appointments_pkey PRIMARY KEY (id, slot_start_time),
+    ADD CONSTRAINT appointments_user_id_fkey FOREIGN KEY (user_id)
+        REFERENCES users(id) ON DELETE CASCADE,
+    ADD CONSTRAINT appointments_service_id_fkey FOREIGN KEY (service_id)
+        REFERENCES services(id) ON DELETE CASCADE,
+    ADD CONSTRAINT appointments_slot_fkey FOREIGN KEY (slot_id, slot_start_time)
+        REFERENCES available_slots(id, start_time) ON DELETE CASCADE ON UPDATE CASCADE;
+
+CREATE UNIQUE INDEX uq_appointments_active_slot ON appointments (slot_id, slot_start_time)
+    WHERE status IN ('BOOKED', 'CONFIRMED', 'IN_PROGRESS');
+
+CREATE INDEX idx_appointments_slot ON appointments (slot_id);
+
+CREATE INDEX idx_appointments_status_id ON appointments (status, id);
+
+-- Blokady slotów wskazują slot tym samym złożonym kluczem
+ALTER TABLE slot_holds ADD COLUMN slot_start_time TIMESTAMP;
+
+UPDATE slot_holds h SET slot_start_time = s.start_time
+FROM available_slots s
+WHERE s.id = h.slot_id;
+
+DELETE FROM slot_holds WHERE slot_start_time IS NULL;
+
+ALTER TABLE slot_holds
+    ALTER COLUMN slot_start_time SET NOT NULL,
+    ADD CONSTRAINT slot_holds_slot_fkey FOREIGN KEY (slot_id, slot_start_time)
+        REFERENCES available_slots(id, start_time) ON DELETE CASCADE ON UPDATE CASCADE;
+
+ANALYZE available_slots;
+ANALYZE appointments;
@@ -0,0 +1,52 @@
+-- ========================================
+-- Flyway Migration: Database-enforced slot overlap exclusion
+-- ========================================
+
+-- btree_gist pozwala łączyć równość na specialist_id z nakładaniem zakresów w jednym indeksie GiST
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- EXCLUDE nie może być zdefiniowane na tabeli partycjonowanej (klucz partycji nie jest porównywany przez =),
+-- więc ograniczenie dostaje każda partycja miesięczna. Slot nie przekracza granicy miesiąca,
+-- dlatego nakładające się sloty zawsze trafiają do tej samej partycji.
+DO $$
+DECLARE
+    part RECORD;
+BEGIN
+    FOR part IN
+        SELECT child.relname AS name
+        FROM pg_inherits inh
+        JOIN pg_class child ON child.oid = inh.inhrelid
+        WHERE inh.inhparent = 'available_slots'::regclass
+    LOOP
+        EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING gist '
+                       '(specialist_id WITH =, tsrange(start_time, end_time) WITH &&)',
+                       part.name, part.name || '_no_overlap');
+    END LOOP;
+END;
+$$;
+
+-- Nowe partycje slotów od razu dostają to samo ograniczenie
+CREATE OR REPLACE FUNCTION ensure_monthly_partitions(parent TEXT, from_month DATE, months INT)
+RETURNS INT LANGUAGE plpgsql AS $$
+DECLARE
+    month_start DATE;
+    partition_name TEXT;
+    created INT := 0;
+BEGIN
+    FOR i IN 0 .. months - 1 LOOP
+        month_start := (date_trunc('month', from_month) + make_interval(months => i))::date;
+        partition_name := format('%s_p%s', parent, to_char(month_start, 'YYYYMM'));
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                           partition_name, parent, month_start, (month_start + INTERVAL '1 month')::date);
+            IF parent = 'available_slots' THEN
+                EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING gist '
+                               '(specialist_id WITH =, tsrange(start_time, end_time) WITH &&)',
+                               partition_name, partition_name || '_no_overlap');
+            END IF;
+            created := created + 1;
+        END IF;
+    END LOOP;
+    RETURN created;
+END;
+$$;
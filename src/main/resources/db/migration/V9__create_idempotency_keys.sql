@@ -0,0 +1,17 @@
+-- ========================================
+-- Flyway Migration: Idempotency keys for appointment creation
+-- ========================================
+
+-- Zapamiętana odpowiedź na pierwsze żądanie z danym kluczem - powtórki dostają ją bez ponownej rezerwacji.
+-- Wiersz powstaje w tej samej transakcji co wizyta, więc unikalność klucza rozstrzyga wyścig między instancjami.
+CREATE TABLE idempotency_keys (
+    id BIGSERIAL PRIMARY KEY,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL UNIQUE,
+    request_hash VARCHAR(64) NOT NULL,
+    response_body TEXT NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,114 @@
+package com.michallesiak.booking_system.booking_system.benchmark;
+
+import com.michallesiak.booking_system.booking_system.dto.AvailableSlotDto;
+import com.michallesiak.booking_system.booking_system.repository.AvailableSlotRepository;
+import com.michallesiak.booking_system.booking_system.service.support.DayCalendar;
+import com.michallesiak.booking_system.booking_system.service.support.SlotIntervalIndex;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares ways of answering "is the range starting here covered by free slots" for one day:
+ * a stream/filter over the slot list, the bitmap day calendar - built per call, as the service
+ * builds it per request - and the warm {@link SlotIntervalIndex} lookup behind
+ * {@code isSlotConflicting}. The {@code day*} benchmarks run the whole {@code minFreeMinutes}
+ * filter, where one calendar serves every slot of the day.
+ * Run with {@code mvn -P benchmark test-compile exec:exec -Dbenchmark.args=SlotConflictBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SlotConflictBenchmark {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 7);
+    private static final Long SPECIALIST_ID = 1L;
+
+    @Param({"15", "30", "60"})
+    private int slotMinutes;
+
+    private List<AvailableSlotDto> freeSlots;
+    private SlotIntervalIndex slotIntervalIndex;
+    private LocalDateTime[] probeStarts;
+    private int probe;
+
+    @Setup
+    public void setUp() {
+        freeSlots = new ArrayList<>();
+        // indeks trzyma wszystkie sloty, więc pytamy go o zajęte okna, a kalendarz o wolne
+        slotIntervalIndex = new SlotIntervalIndex(Mockito.mock(AvailableSlotRepository.class), 16);
+        slotIntervalIndex.warm(SPECIALIST_ID);
+        long id = 1;
+        for (LocalDateTime start = DAY.atTime(8, 0); start.isBefore(DAY.atTime(18, 0)); start = start.plusMinutes(slotMinutes)) {
+            LocalDateTime end = start.plusMinutes(slotMinutes);
+            if ((id % 4) == 0) {
+                slotIntervalIndex.slotAdded(SPECIALIST_ID, id++, start, end);
+                continue;  // co czwarte okno jest zajęte
+            }
+            freeSlots.add(new AvailableSlotDto(id++, SPECIALIST_ID, start, end, false));
+        }
+        probeStarts = new LocalDateTime[64];
+        for (int i = 0; i < probeStarts.length; i++) {
+            probeStarts[i] = DAY.atTime(7, 0).plusMinutes(i * 11L);
+        }
+    }
+
+    @Benchmark
+    public boolean streamFilter() {
+        LocalDateTime start = nextProbe();
+        return coveredByStream(start, 2 * slotMinutes);
+    }
+
+    @Benchmark
+    public boolean bitmap() {
+        return DayCalendar.of(DAY, freeSlots).isFree(nextProbe(), 2 * slotMinutes);
+    }
+
+    @Benchmark
+    public boolean intervalIndex() {
+        LocalDateTime start = nextProbe();
+        return slotIntervalIndex.overlaps(SPECIALIST_ID, start, start.plusMinutes(2L * slotMinutes), null).orElseThrow();
+    }
+
+    @Benchmark
+    public List<AvailableSlotDto> dayStreamFilter() {
+        return freeSlots.stream()
+                .filter(slot -> coveredByStream(slot.getStartTime(), 2 * slotMinutes))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<AvailableSlotDto> dayBitmap() {
+        DayCalendar calendar = DayCalendar.of(DAY, freeSlots);
+        return freeSlots.stream()
+                .filter(slot -> calendar.isFree(slot.getStartTime(), 2 * slotMinutes))
+                .collect(Collectors.toList());
+    }
+
+    private boolean coveredByStream(LocalDateTime start, int minutes) {
+        LocalDateTime end = start.plusMinutes(minutes);
+        // sloty się nie nakładają, więc pokryte minuty sumują się wprost
+        long covered = freeSlots.stream()
+                .filter(slot -> slot.getStartTime().isBefore(end) && slot.getEndTime().isAfter(start))
+                .mapToLong(slot -> Duration.between(
+                        slot.getStartTime().isAfter(start) ? slot.getStartTime() : start,
+                        slot.getEndTime().isBefore(end) ? slot.getEndTime() : end).toMinutes())
+                .sum();
+        return covered >= minutes;
+    }
+
+    private LocalDateTime nextProbe() {
+        probe = (probe + 1) & (probeStarts.length - 1);
+        return probeStarts[probe];
+    }
+}
@@ -0,0 +1,103 @@
+package com.michallesiak.booking_system.booking_system.benchmark;
+
+import com.michallesiak.booking_system.booking_system.BookingSystemApplication;
+import com.michallesiak.booking_system.booking_system.dto.AvailableSlotDto;
+import com.michallesiak.booking_system.booking_system.dto.CreateSpecialistRequest;
+import com.michallesiak.booking_system.booking_system.dto.CreateUserRequest;
+import com.michallesiak.booking_system.booking_system.service.AvailableSlotService;
+import com.michallesiak.booking_system.booking_system.service.SpecialistService;
+import com.michallesiak.booking_system.booking_system.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * End-to-end comparison of request handling on Tomcat's platform thread pool and on virtual
+ * threads. The application runs against a PostgreSQL container and 5000 concurrent clients read
+ * slots over HTTP; JMH reports throughput and, in sample mode, the p99 latency.
+ * Needs Docker and JDK 21. Run with
+ * {@code mvn -P benchmark test-compile exec:exec -Dbenchmark.args=VirtualThreadBenchmark}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Fork(value = 1, jvmArgsAppend = "-Xss512k")
+@Threads(5000)
+@State(Scope.Benchmark)
+public class VirtualThreadBenchmark {
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI[] slotUris;
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+        context = new SpringApplicationBuilder(BookingSystemApplication.class)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword(),
+                        "spring.threads.virtual.enabled=" + "virtual".equals(threads),
+                        "server.port=0",
+                        "server.tomcat.max-connections=10000",
+                        // benchmark mierzy wątki, nie limity klientów ani logowanie
+                        "booking.admission.enabled=false",
+                        "logging.level.com.michallesiak=WARN",
+                        "spring.main.banner-mode=off")
+                .run();
+
+        CreateUserRequest user = new CreateUserRequest();
+        user.setEmail("benchmark@example.com");
+        user.setPassword("benchmark-password");
+        user.setFirstname("Bench");
+        user.setLastname("Mark");
+        Long userId = context.getBean(UserService.class).createUser(user).getId();
+        CreateSpecialistRequest specialist = new CreateSpecialistRequest();
+        specialist.setUserId(userId);
+        specialist.setSpecialization("Benchmark");
+        Long specialistId = context.getBean(SpecialistService.class).createSpecialist(specialist).getId();
+        LocalDate day = LocalDate.now().plusDays(7);
+        List<AvailableSlotDto> slots = context.getBean(AvailableSlotService.class)
+                .createMultipleSlots(specialistId, day.atTime(8, 0), day.atTime(18, 0), 15);
+
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        slotUris = slots.stream()
+                .map(slot -> URI.create("http://localhost:" + port + "/api/slots/" + slot.getId()))
+                .toArray(URI[]::new);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public int readSlot() throws Exception {
+        URI uri = slotUris[Math.floorMod(next.getAndIncrement(), slotUris.length)];
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode() + " for " + uri);
+        }
+        return response.statusCode();
+    }
+}
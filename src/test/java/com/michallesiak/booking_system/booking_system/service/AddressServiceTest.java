@@ -2,9 +2,11 @@ package com.michallesiak.booking_system.booking_system.service;
 
 import com.michallesiak.booking_system.booking_system.dto.AddressDto;
 import com.michallesiak.booking_system.booking_system.dto.CreateAddressRequest;
+import com.michallesiak.booking_system.booking_system.dto.CursorPage;
 import com.michallesiak.booking_system.booking_system.model.Address;
 import com.michallesiak.booking_system.booking_system.repository.AddressRepository;
 import com.michallesiak.booking_system.booking_system.service.impl.AddressServiceImpl;
+import com.michallesiak.booking_system.booking_system.service.support.CursorPaging;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -12,7 +14,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.util.Arrays;
 import java.util.List;
@@ -30,6 +34,9 @@ class AddressServiceTest {
     @Mock
     private AddressRepository addressRepository;
 
+    @Spy
+    private CursorPaging cursorPaging = new CursorPaging(2, 5);
+
     @InjectMocks
     private AddressServiceImpl addressService;
 
@@ -91,19 +98,36 @@ class AddressServiceTest {
     }
 
     @Test
-    @DisplayName("Should get all addresses successfully")
-    void shouldGetAllAddressesSuccessfully() {
+    @DisplayName("Should get addresses page with continuation cursor")
+    void shouldGetAddressesPageSuccessfully() {
         Address address2 = new Address();
         address2.setId(2L);
         address2.setCountry("Germany");
         address2.setCity("Berlin");
-        List<Address> addresses = Arrays.asList(address, address2);
-        when(addressRepository.findAll()).thenReturn(addresses);
-        List<AddressDto> result = addressService.getAllAddresses();
-        assertThat(result).hasSize(2);
-        assertThat(result.get(0).getCountry()).isEqualTo("Poland");
-        assertThat(result.get(1).getCountry()).isEqualTo("Germany");
-        verify(addressRepository).findAll();
+        Address address3 = new Address();
+        address3.setId(3L);
+        List<Address> addresses = Arrays.asList(address, address2, address3);
+        when(addressRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3))).thenReturn(addresses);
+        CursorPage<AddressDto> result = addressService.getAddressesPage(null, 2);
+        assertThat(result.getItems()).hasSize(2);
+        assertThat(result.getItems().get(0).getCountry()).isEqualTo("Poland");
+        assertThat(result.getItems().get(1).getCountry()).isEqualTo("Germany");
+        assertThat(result.isHasMore()).isTrue();
+
+        when(addressRepository.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(3))).thenReturn(List.of(address3));
+        CursorPage<AddressDto> next = addressService.getAddressesPage(result.getNextCursor(), 2);
+        assertThat(next.getItems()).extracting(AddressDto::getId).containsExactly(3L);
+        assertThat(next.isHasMore()).isFalse();
+        assertThat(next.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should cap page size and reject malformed cursor")
+    void shouldCapPageSizeAndRejectMalformedCursor() {
+        when(addressRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(6))).thenReturn(List.of(address));
+        assertThat(addressService.getAddressesPage(null, 1000).getItems()).hasSize(1);
+        assertThatThrownBy(() -> addressService.getAddressesPage("not-a-cursor", 2))
+                .isInstanceOf(IllegalArgumentException.class);
     }
 
     @Test
@@ -0,0 +1,284 @@
+package com.michallesiak.booking_system.booking_system.service;
+
+import com.michallesiak.booking_system.booking_system.dto.AppointmentDto;
+import com.michallesiak.booking_system.booking_system.dto.AvailableSlotDto;
+import com.michallesiak.booking_system.booking_system.dto.CreateAppointmentRequest;
+import com.michallesiak.booking_system.booking_system.dto.CreateWindowAppointmentRequest;
+import com.michallesiak.booking_system.booking_system.exception.SlotNotAvailableException;
+import com.michallesiak.booking_system.booking_system.exception.SlotNotFoundException;
+import com.michallesiak.booking_system.booking_system.model.Appointment;
+import com.michallesiak.booking_system.booking_system.model.AvailableSlot;
+import com.michallesiak.booking_system.booking_system.model.OfferedService;
+import com.michallesiak.booking_system.booking_system.model.User;
+import com.michallesiak.booking_system.booking_system.model.enums.AppointmentStatus;
+import com.michallesiak.booking_system.booking_system.model.enums.OutboxEventType;
+import com.michallesiak.booking_system.booking_system.model.enums.SlotEventType;
+import com.michallesiak.booking_system.booking_system.repository.AppointmentRepository;
+import com.michallesiak.booking_system.booking_system.repository.AvailableSlotRepository;
+import com.michallesiak.booking_system.booking_system.repository.OfferedServiceRepository;
+import com.michallesiak.booking_system.booking_system.repository.UserRepository;
+import com.michallesiak.booking_system.booking_system.service.impl.AppointmentServiceImpl;
+import com.michallesiak.booking_system.booking_system.service.support.AvailabilityCache;
+import com.michallesiak.booking_system.booking_system.service.support.BookingShards;
+import com.michallesiak.booking_system.booking_system.service.support.CursorPaging;
+import com.michallesiak.booking_system.booking_system.service.support.IdempotencyStore;
+import com.michallesiak.booking_system.booking_system.service.support.NdjsonExporter;
+import com.michallesiak.booking_system.booking_system.service.support.OptimisticRetryExecutor;
+import com.michallesiak.booking_system.booking_system.service.support.OutboxWriter;
+import com.michallesiak.booking_system.booking_system.service.support.SlotEventHub;
+import com.michallesiak.booking_system.booking_system.service.support.SlotKeys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Appointment Service Tests")
+class AppointmentServiceTest {
+
+    private static final LocalDateTime START = LocalDate.now().plusMonths(1).withDayOfMonth(15).atTime(10, 0);
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private AvailableSlotRepository availableSlotRepository;
+
+    @Mock
+    private OfferedServiceRepository offeredServiceRepository;
+
+    @Mock
+    private SlotHoldService slotHoldService;
+
+    @Mock
+    private CursorPaging cursorPaging;
+
+    @Mock
+    private NdjsonExporter ndjsonExporter;
+
+    @Mock
+    private AvailabilityCache availabilityCache;
+
+    @Mock
+    private AvailableSlotService availableSlotService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // prawdziwe ponawianie na atrapie menedżera transakcji, bez pauz między próbami
+    @Spy
+    private OptimisticRetryExecutor optimisticRetryExecutor =
+            new OptimisticRetryExecutor(mock(PlatformTransactionManager.class), meterRegistry, 3, 0, 0);
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @Mock
+    private SlotEventHub slotEventHub;
+
+    @Mock
+    private WaitlistService waitlistService;
+
+    @Mock
+    private BookingShards bookingShards;
+
+    @Mock
+    private SlotKeys slotKeys;
+
+    @InjectMocks
+    private AppointmentServiceImpl appointmentService;
+
+    private CreateAppointmentRequest createRequest;
+    private AvailableSlotDto bookedSlot;
+    private User user;
+    private AvailableSlot slot;
+    private OfferedService service;
+
+    @BeforeEach
+    void setUp() {
+        createRequest = new CreateAppointmentRequest(2L, 10L, 5L, "First visit", null);
+        bookedSlot = new AvailableSlotDto(10L, 1L, START, START.plusMinutes(30), true);
+
+        user = new User();
+        user.setId(2L);
+        slot = new AvailableSlot();
+        slot.setId(10L);
+        service = new OfferedService();
+        service.setId(5L);
+        service.setDurationMinutes(30);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenSlotStartsAt(LocalDateTime startTime) {
+        when(slotKeys.withStartTime(eq(10L), any())).thenAnswer(invocation ->
+                invocation.getArgument(1, BiFunction.class).apply(10L, startTime));
+    }
+
+    private void givenReferences() {
+        when(userRepository.getReferenceById(2L)).thenReturn(user);
+        when(availableSlotRepository.getReferenceById(10L)).thenReturn(slot);
+        when(offeredServiceRepository.getReferenceById(5L)).thenReturn(service);
+    }
+
+    private void givenSavedAppointmentGetsId() {
+        when(appointmentRepository.saveAndFlush(any(Appointment.class))).thenAnswer(invocation -> {
+            Appointment appointment = invocation.getArgument(0);
+            appointment.setId(50L);
+            return appointment;
+        });
+    }
+
+    @Test
+    @DisplayName("Should create appointment when the conditional booking succeeds")
+    void shouldCreateAppointmentSuccessfully() {
+        givenSlotStartsAt(START);
+        when(availableSlotRepository.bookIfAvailable(eq(10L), eq(START), any())).thenReturn(Optional.of(bookedSlot));
+        givenReferences();
+        givenSavedAppointmentGetsId();
+
+        AppointmentDto result = appointmentService.createAppointment(createRequest);
+
+        assertThat(result.getId()).isEqualTo(50L);
+        assertThat(result.getSlotId()).isEqualTo(10L);
+        assertThat(result.getStatus()).isEqualTo(AppointmentStatus.BOOKED);
+        verify(slotHoldService).consumeHold(10L, 2L, null);
+        verify(availabilityCache).invalidate(1L, START, START.plusMinutes(30));
+        verify(slotEventHub).publish(1L, SlotEventType.BOOKED, bookedSlot);
+        verify(outboxWriter).append(eq(OutboxEventType.APPOINTMENT_CREATED), eq(50L), eq(1L), any());
+    }
+
+    @Test
+    @DisplayName("Should throw SlotNotAvailableException when the slot is already booked")
+    void shouldRejectBookedSlot() {
+        givenSlotStartsAt(START);
+        when(availableSlotRepository.bookIfAvailable(eq(10L), eq(START), any())).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> appointmentService.createAppointment(createRequest))
+                .isInstanceOf(SlotNotAvailableException.class)
+                .hasMessageContaining("Slot with id 10 is not available");
+        verify(appointmentRepository, never()).saveAndFlush(any(Appointment.class));
+        verifyNoInteractions(availabilityCache, slotEventHub, outboxWriter);
+    }
+
+    @Test
+    @DisplayName("Should throw SlotNotAvailableException when the slot does not exist")
+    void shouldRejectMissingSlot() {
+        when(slotKeys.withStartTime(eq(10L), any())).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> appointmentService.createAppointment(createRequest))
+                .isInstanceOf(SlotNotAvailableException.class);
+        verify(availableSlotRepository, never()).bookIfAvailable(any(), any(), any());
+        verify(appointmentRepository, never()).saveAndFlush(any(Appointment.class));
+    }
+
+    @Test
+    @DisplayName("Should map a user foreign key violation to EntityNotFoundException")
+    void shouldMapMissingUser() {
+        givenSlotStartsAt(START);
+        when(availableSlotRepository.bookIfAvailable(eq(10L), eq(START), any())).thenReturn(Optional.of(bookedSlot));
+        givenReferences();
+        when(appointmentRepository.saveAndFlush(any(Appointment.class))).thenThrow(new DataIntegrityViolationException(
+                "insert failed", new ConstraintViolationException("fk", new SQLException(), "appointments_user_id_fkey")));
+
+        assertThatThrownBy(() -> appointmentService.createAppointment(createRequest))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining("User not found with id: 2");
+    }
+
+    @Test
+    @DisplayName("Should map a service foreign key violation to EntityNotFoundException")
+    void shouldMapMissingService() {
+        givenSlotStartsAt(START);
+        when(availableSlotRepository.bookIfAvailable(eq(10L), eq(START), any())).thenReturn(Optional.of(bookedSlot));
+        givenReferences();
+        when(appointmentRepository.saveAndFlush(any(Appointment.class))).thenThrow(new DataIntegrityViolationException(
+                "insert failed", new ConstraintViolationException("fk", new SQLException(), "appointments_service_id_fkey")));
+
+        assertThatThrownBy(() -> appointmentService.createAppointment(createRequest))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining("Service not found with id: 5");
+    }
+
+    @Test
+    @DisplayName("Should map other insert failures to SlotNotAvailableException")
+    void shouldMapOtherInsertFailures() {
+        givenSlotStartsAt(START);
+        when(availableSlotRepository.bookIfAvailable(eq(10L), eq(START), any())).thenReturn(Optional.of(bookedSlot));
+        givenReferences();
+        when(appointmentRepository.saveAndFlush(any(Appointment.class))).thenThrow(new DataIntegrityViolationException(
+                "insert failed", new ConstraintViolationException("unique", new SQLException(), "idx_appointments_active_slot")));
+
+        assertThatThrownBy(() -> appointmentService.createAppointment(createRequest))
+                .isInstanceOf(SlotNotAvailableException.class)
+                .hasCauseInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Should retry a window booking that lost a version race")
+    void shouldRetryWindowAppointmentOnVersionConflict() {
+        CreateWindowAppointmentRequest request = new CreateWindowAppointmentRequest(2L, 1L, 5L, START, "Window visit");
+        when(bookingShards.execute(eq(1L), any())).thenAnswer(invocation -> invocation.getArgument(1, Supplier.class).get());
+        when(offeredServiceRepository.findById(5L)).thenReturn(Optional.of(service));
+        when(availableSlotService.bookFromWindow(1L, START, 30))
+                .thenThrow(new ObjectOptimisticLockingFailureException(AvailableSlot.class, 10L))
+                .thenReturn(bookedSlot);
+        when(userRepository.getReferenceById(2L)).thenReturn(user);
+        when(availableSlotRepository.getReferenceById(10L)).thenReturn(slot);
+        givenSavedAppointmentGetsId();
+
+        AppointmentDto result = appointmentService.createWindowAppointment(request);
+
+        assertThat(result.getId()).isEqualTo(50L);
+        assertThat(result.getNotes()).isEqualTo("Window visit");
+        verify(availableSlotService, times(2)).bookFromWindow(1L, START, 30);
+        verify(appointmentRepository).saveAndFlush(any(Appointment.class));
+        verify(outboxWriter).append(eq(OutboxEventType.APPOINTMENT_CREATED), eq(50L), eq(1L), any());
+        assertThat(meterRegistry.counter("booking.slot.optimistic.retries", "operation", "createWindowAppointment").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should report availability from the slot service and treat a missing slot as unavailable")
+    void shouldCheckAvailabilityThroughSlotService() {
+        when(availableSlotService.isSlotAvailable(10L)).thenReturn(false);
+        when(availableSlotService.isSlotAvailable(11L)).thenReturn(true);
+        when(availableSlotService.isSlotAvailable(999L)).thenThrow(new SlotNotFoundException("Slot not found with id: 999"));
+
+        assertThat(appointmentService.isSlotAvailable(10L)).isFalse();
+        assertThat(appointmentService.isSlotAvailable(11L)).isTrue();
+        assertThat(appointmentService.isSlotAvailable(999L)).isFalse();
+        verifyNoInteractions(appointmentRepository);
+    }
+}
@@ -0,0 +1,268 @@
+package com.michallesiak.booking_system.booking_system.service;
+
+import com.michallesiak.booking_system.booking_system.dto.AvailableSlotDto;
+import com.michallesiak.booking_system.booking_system.dto.CreateAvailableSlotRequest;
+import com.michallesiak.booking_system.booking_system.exception.SlotConflictException;
+import com.michallesiak.booking_system.booking_system.exception.SlotNotAvailableException;
+import com.michallesiak.booking_system.booking_system.model.AvailableSlot;
+import com.michallesiak.booking_system.booking_system.model.Specialist;
+import com.michallesiak.booking_system.booking_system.model.enums.OutboxEventType;
+import com.michallesiak.booking_system.booking_system.repository.AvailabilityRuleRepository;
+import com.michallesiak.booking_system.booking_system.repository.AvailableSlotRepository;
+import com.michallesiak.booking_system.booking_system.repository.SpecialistRepository;
+import com.michallesiak.booking_system.booking_system.service.impl.AvailableSlotServiceImpl;
+import com.michallesiak.booking_system.booking_system.service.support.AvailabilityCache;
+import com.michallesiak.booking_system.booking_system.service.support.BookingShards;
+import com.michallesiak.booking_system.booking_system.service.support.CursorPaging;
+import com.michallesiak.booking_system.booking_system.service.support.NdjsonExporter;
+import com.michallesiak.booking_system.booking_system.service.support.OptimisticRetryExecutor;
+import com.michallesiak.booking_system.booking_system.service.support.OutboxWriter;
+import com.michallesiak.booking_system.booking_system.service.support.PartitionMaintenance;
+import com.michallesiak.booking_system.booking_system.service.support.SlotEventHub;
+import com.michallesiak.booking_system.booking_system.service.support.SlotIntervalIndex;
+import com.michallesiak.booking_system.booking_system.service.support.SlotKeys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Available Slot Service Tests")
+class AvailableSlotServiceTest {
+
+    // środek przyszłego miesiąca - okna i resztki nie przekraczają granicy partycji
+    private static final LocalDateTime BASE = LocalDate.now().plusMonths(1).withDayOfMonth(15).atTime(9, 0);
+
+    @Mock
+    private AvailableSlotRepository availableSlotRepository;
+
+    @Mock
+    private SpecialistRepository specialistRepository;
+
+    @Mock
+    private AvailabilityRuleRepository availabilityRuleRepository;
+
+    @Mock
+    private SlotIntervalIndex slotIntervalIndex;
+
+    @Mock
+    private OptimisticRetryExecutor optimisticRetryExecutor;
+
+    @Mock
+    private SlotHoldService slotHoldService;
+
+    @Mock
+    private CursorPaging cursorPaging;
+
+    @Mock
+    private NdjsonExporter ndjsonExporter;
+
+    @Mock
+    private AvailabilityCache availabilityCache;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @Mock
+    private SlotEventHub slotEventHub;
+
+    @Mock
+    private WaitlistService waitlistService;
+
+    @Mock
+    private BookingShards bookingShards;
+
+    @Mock
+    private PartitionMaintenance partitionMaintenance;
+
+    @Mock
+    private SlotKeys slotKeys;
+
+    @InjectMocks
+    private AvailableSlotServiceImpl availableSlotService;
+
+    private Specialist specialist;
+    private final AtomicLong ids = new AtomicLong(100);
+
+    @BeforeEach
+    void setUp() {
+        specialist = new Specialist();
+        specialist.setId(1L);
+        lenient().when(partitionMaintenance.horizon()).thenReturn(BASE.plusMonths(6));
+    }
+
+    private AvailableSlot window(LocalDateTime start, LocalDateTime end) {
+        AvailableSlot window = new AvailableSlot();
+        window.setId(10L);
+        window.setSpecialist(specialist);
+        window.setStartTime(start);
+        window.setEndTime(end);
+        window.setBooked(false);
+        return window;
+    }
+
+    private void givenWindow(AvailableSlot window) {
+        when(availableSlotRepository.findFirstBySpecialistIdAndStartTimeBetweenOrderByStartTimeDesc(eq(1L), any(), any()))
+                .thenReturn(Optional.of(window));
+    }
+
+    private void givenInsertsAssignIds() {
+        when(availableSlotRepository.saveAndFlush(any(AvailableSlot.class))).thenAnswer(invocation -> {
+            AvailableSlot slot = invocation.getArgument(0);
+            if (slot.getId() == null) {
+                slot.setId(ids.incrementAndGet());
+            }
+            return slot;
+        });
+    }
+
+    private List<AvailableSlot> savedSlots(int times) {
+        ArgumentCaptor<AvailableSlot> saved = ArgumentCaptor.forClass(AvailableSlot.class);
+        verify(availableSlotRepository, times(times)).saveAndFlush(saved.capture());
+        return saved.getAllValues();
+    }
+
+    @Test
+    @DisplayName("Should book a whole window without leaving remainders")
+    void shouldBookWholeWindow() {
+        AvailableSlot window = window(BASE, BASE.plusMinutes(30));
+        givenWindow(window);
+        givenInsertsAssignIds();
+
+        AvailableSlotDto result = availableSlotService.bookFromWindow(1L, BASE, 30);
+
+        assertThat(result.getId()).isEqualTo(10L);
+        assertThat(result.isBooked()).isTrue();
+        assertThat(result.getStartTime()).isEqualTo(BASE);
+        assertThat(result.getEndTime()).isEqualTo(BASE.plusMinutes(30));
+        assertThat(savedSlots(1)).containsExactly(window);
+        verify(slotKeys).remember(10L, 1L, BASE);
+    }
+
+    @Test
+    @DisplayName("Should narrow the window and insert free leading and trailing remainders")
+    void shouldSplitWindowIntoRemainders() {
+        AvailableSlot window = window(BASE, BASE.plusHours(3));
+        givenWindow(window);
+        givenInsertsAssignIds();
+
+        AvailableSlotDto result = availableSlotService.bookFromWindow(1L, BASE.plusHours(1), 60);
+
+        assertThat(result.getId()).isEqualTo(10L);
+        assertThat(result.getStartTime()).isEqualTo(BASE.plusHours(1));
+        assertThat(result.getEndTime()).isEqualTo(BASE.plusHours(2));
+        List<AvailableSlot> saved = savedSlots(3);
+        // okno zwężone przed wstawieniem resztek - inaczej EXCLUDE odrzuciłby wstawienie
+        assertThat(saved.get(0)).isSameAs(window);
+        List<AvailableSlot> remainders = saved.subList(1, 3).stream()
+                .sorted(Comparator.comparing(AvailableSlot::getStartTime))
+                .toList();
+        assertThat(remainders).extracting(AvailableSlot::getStartTime).containsExactly(BASE, BASE.plusHours(2));
+        assertThat(remainders).extracting(AvailableSlot::getEndTime).containsExactly(BASE.plusHours(1), BASE.plusHours(3));
+        assertThat(remainders).noneMatch(AvailableSlot::isBooked);
+        verify(availabilityCache).invalidate(1L, BASE, BASE.plusHours(3));
+    }
+
+    @Test
+    @DisplayName("Should reject a booking no free window covers")
+    void shouldRejectUncoveredBooking() {
+        givenWindow(window(BASE, BASE.plusMinutes(30)));
+
+        assertThatThrownBy(() -> availableSlotService.bookFromWindow(1L, BASE, 45))
+                .isInstanceOf(SlotNotAvailableException.class)
+                .hasMessageContaining("No free window of specialist 1");
+        verify(availableSlotRepository, never()).saveAndFlush(any(AvailableSlot.class));
+    }
+
+    @Test
+    @DisplayName("Should reject a window that is held by another user")
+    void shouldRejectHeldWindow() {
+        givenWindow(window(BASE, BASE.plusHours(1)));
+        when(slotHoldService.isHeld(10L)).thenReturn(true);
+
+        assertThatThrownBy(() -> availableSlotService.bookFromWindow(1L, BASE, 30))
+                .isInstanceOf(SlotNotAvailableException.class);
+        verify(availableSlotRepository, never()).saveAndFlush(any(AvailableSlot.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Should delete a range in chunks, each in its own transaction")
+    void shouldDeleteRangeInChunks() {
+        ReflectionTestUtils.setField(availableSlotService, "deleteChunkSize", 2);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.getArgument(0, TransactionCallback.class).doInTransaction(null));
+        when(availableSlotRepository.deleteFreeSlotsInRange(1L, BASE, BASE.plusDays(1), 2)).thenReturn(2, 2, 1);
+
+        int deleted = availableSlotService.deleteSlotsBySpecialistAndDateRange(1L, BASE, BASE.plusDays(1));
+
+        assertThat(deleted).isEqualTo(5);
+        verify(transactionTemplate, times(3)).execute(any());
+        verify(outboxWriter, times(3)).append(eq(OutboxEventType.SLOTS_DELETED), eq(1L), eq(1L), any());
+        verify(slotIntervalIndex, times(3)).evict(1L);
+        verify(availabilityCache, times(3)).invalidate(1L, BASE, BASE.plusDays(2));
+    }
+
+    @Test
+    @DisplayName("Should refuse to delete a range containing booked slots")
+    void shouldNotDeleteRangeWithBookedSlots() {
+        when(availableSlotRepository.existsBySpecialistIdAndStartTimeBetweenAndBookedTrue(1L, BASE, BASE.plusDays(1)))
+                .thenReturn(true);
+
+        assertThatThrownBy(() -> availableSlotService.deleteSlotsBySpecialistAndDateRange(1L, BASE, BASE.plusDays(1)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("some slots are booked");
+        verify(availableSlotRepository, never()).deleteFreeSlotsInRange(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should report an exclusion constraint violation as a slot conflict")
+    void shouldTranslateExclusionViolation() {
+        when(specialistRepository.findById(1L)).thenReturn(Optional.of(specialist));
+        when(availableSlotRepository.saveAndFlush(any(AvailableSlot.class))).thenThrow(new DataIntegrityViolationException(
+                "conflicting key value violates exclusion constraint", new SQLException("overlap", "23P01")));
+
+        assertThatThrownBy(() -> availableSlotService.createSlot(
+                new CreateAvailableSlotRequest(1L, BASE, BASE.plusMinutes(30))))
+                .isInstanceOf(SlotConflictException.class)
+                .hasMessageContaining("conflicts with existing slots");
+        verify(slotIntervalIndex, never()).slotAdded(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should rethrow other integrity violations unchanged")
+    void shouldRethrowOtherIntegrityViolations() {
+        when(specialistRepository.findById(1L)).thenReturn(Optional.of(specialist));
+        when(availableSlotRepository.saveAndFlush(any(AvailableSlot.class))).thenThrow(new DataIntegrityViolationException(
+                "violates foreign key constraint", new SQLException("fk", "23503")));
+
+        assertThatThrownBy(() -> availableSlotService.createSlot(
+                new CreateAvailableSlotRequest(1L, BASE, BASE.plusMinutes(30))))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+}
@@ -0,0 +1,97 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Admission Control Tests")
+class AdmissionControlTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong now = new AtomicLong(-5 * SECOND);
+    private SimpleMeterRegistry meterRegistry;
+    private AdmissionControl admissionControl;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        admissionControl = new AdmissionControl(meterRegistry, true,
+                Map.of(AdmissionControl.Budget.READ, new AdmissionControl.Limit(100, 100),
+                        AdmissionControl.Budget.WRITE, new AdmissionControl.Limit(2, 3)),
+                Map.of(AdmissionControl.Budget.READ, new AdmissionControl.Limit(10, 10),
+                        AdmissionControl.Budget.WRITE, new AdmissionControl.Limit(1, 2)),
+                100, Duration.ofMinutes(10), now::get);
+    }
+
+    @Test
+    @DisplayName("Should admit a burst and then refill at the configured rate")
+    void shouldRefillBucket() {
+        TokenBucket bucket = new TokenBucket(2, 3, now.get());
+
+        assertThat(bucket.tryAcquire(now.get())).isZero();
+        assertThat(bucket.tryAcquire(now.get())).isZero();
+        assertThat(bucket.tryAcquire(now.get())).isZero();
+        assertThat(bucket.tryAcquire(now.get())).isEqualTo(SECOND / 2);
+
+        now.addAndGet(SECOND / 2);
+        assertThat(bucket.tryAcquire(now.get())).isZero();
+        assertThat(bucket.tryAcquire(now.get())).isPositive();
+
+        now.addAndGet(10 * SECOND);
+        assertThat(bucket.isFull(now.get())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject a user over the write budget without affecting reads or other users")
+    void shouldSeparateUsersAndBudgets() {
+        assertThat(admissionControl.admit("10.0.0.1", "7", AdmissionControl.Budget.WRITE).admitted()).isTrue();
+        assertThat(admissionControl.admit("10.0.0.1", "7", AdmissionControl.Budget.WRITE).admitted()).isTrue();
+
+        AdmissionControl.Decision rejected = admissionControl.admit("10.0.0.1", "7", AdmissionControl.Budget.WRITE);
+        assertThat(rejected.admitted()).isFalse();
+        assertThat(rejected.rejectedBy()).isEqualTo(AdmissionControl.Scope.USER);
+        assertThat(rejected.retryAfterNanos()).isEqualTo(SECOND);
+
+        assertThat(admissionControl.admit("10.0.0.1", "7", AdmissionControl.Budget.READ).admitted()).isTrue();
+        assertThat(admissionControl.admit("10.0.0.1", "8", AdmissionControl.Budget.WRITE).admitted()).isTrue();
+        assertThat(admissionControl.admit("10.0.0.1", "9", AdmissionControl.Budget.WRITE).rejectedBy())
+                .isEqualTo(AdmissionControl.Scope.IP);
+    }
+
+    @Test
+    @DisplayName("Should count admitted and rejected requests")
+    void shouldRecordMetrics() {
+        for (int i = 0; i < 5; i++) {
+            admissionControl.admit("10.0.0.2", null, AdmissionControl.Budget.WRITE);
+        }
+
+        assertThat(meterRegistry.get("booking.admission.requests").tag("outcome", "admitted").tag("budget", "write")
+                .counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("booking.admission.requests").tag("outcome", "rejected").tag("scope", "ip")
+                .tag("budget", "write").counter().count()).isEqualTo(2);
+        assertThat(admissionControl.trackedKeys(AdmissionControl.Scope.USER)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should admit everything when disabled")
+    void shouldAdmitWhenDisabled() {
+        AdmissionControl disabled = new AdmissionControl(meterRegistry, false,
+                Map.of(AdmissionControl.Budget.READ, new AdmissionControl.Limit(1, 1),
+                        AdmissionControl.Budget.WRITE, new AdmissionControl.Limit(1, 1)),
+                Map.of(AdmissionControl.Budget.READ, new AdmissionControl.Limit(1, 1),
+                        AdmissionControl.Budget.WRITE, new AdmissionControl.Limit(1, 1)),
+                100, Duration.ofMinutes(10), now::get);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(disabled.admit("10.0.0.3", "1", AdmissionControl.Budget.WRITE).admitted()).isTrue();
+        }
+    }
+}
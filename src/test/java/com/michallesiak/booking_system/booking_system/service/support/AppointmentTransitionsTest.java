@@ -0,0 +1,29 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.michallesiak.booking_system.booking_system.model.enums.AppointmentStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Appointment Transitions Tests")
+class AppointmentTransitionsTest {
+
+    @Test
+    @DisplayName("Should allow forward transitions only")
+    void shouldAllowForwardTransitions() {
+        assertThat(AppointmentTransitions.isAllowed(AppointmentStatus.BOOKED, AppointmentStatus.CONFIRMED)).isTrue();
+        assertThat(AppointmentTransitions.isAllowed(AppointmentStatus.IN_PROGRESS, AppointmentStatus.COMPLETED)).isTrue();
+        assertThat(AppointmentTransitions.isAllowed(AppointmentStatus.COMPLETED, AppointmentStatus.CONFIRMED)).isFalse();
+        assertThat(AppointmentTransitions.isAllowed(AppointmentStatus.CANCELLED, AppointmentStatus.NO_SHOW)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject statuses that cannot be set in bulk")
+    void shouldRejectNonBulkTargets() {
+        assertThat(AppointmentTransitions.isBulkTarget(AppointmentStatus.CANCELLED)).isFalse();
+        assertThatThrownBy(() -> AppointmentTransitions.sourcesOf(AppointmentStatus.BOOKED))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
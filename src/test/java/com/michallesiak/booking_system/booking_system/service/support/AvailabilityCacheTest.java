@@ -0,0 +1,117 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.michallesiak.booking_system.booking_system.dto.AvailableSlotDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Availability Cache Tests")
+class AvailabilityCacheTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 7);
+
+    private SimpleMeterRegistry meterRegistry;
+    private AvailabilityCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new AvailabilityCache(meterRegistry, 100, 60);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Should serve repeated reads from cache and record hits and misses")
+    void shouldCacheDay() {
+        cache.getDays(1L, DAY, DAY, this::load);
+        cache.getDays(1L, DAY, DAY, this::load);
+
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should invalidate only the days a slot touches")
+    void shouldInvalidateTouchedDays() {
+        cache.getDays(1L, DAY, DAY, this::load);
+        cache.getDays(1L, DAY.plusDays(1), DAY.plusDays(1), this::load);
+        cache.getDays(1L, DAY.plusDays(2), DAY.plusDays(2), this::load);
+        cache.getDays(2L, DAY, DAY, this::load);
+
+        cache.invalidate(1L, DAY.atTime(23, 30), DAY.plusDays(1).atTime(0, 30));
+        cache.getDays(1L, DAY, DAY, this::load);
+        cache.getDays(1L, DAY.plusDays(1), DAY.plusDays(1), this::load);
+        cache.getDays(1L, DAY.plusDays(2), DAY.plusDays(2), this::load);
+        cache.getDays(2L, DAY, DAY, this::load);
+
+        assertThat(loads).hasValue(6);
+    }
+
+    @Test
+    @DisplayName("Should drop every day of a specialist")
+    void shouldInvalidateSpecialist() {
+        cache.getDays(1L, DAY, DAY, this::load);
+        cache.getDays(1L, DAY.plusDays(1), DAY.plusDays(1), this::load);
+        cache.getDays(2L, DAY, DAY, this::load);
+
+        cache.invalidateSpecialist(1L);
+        cache.getDays(1L, DAY, DAY, this::load);
+        cache.getDays(2L, DAY, DAY, this::load);
+
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("Should load only the missing days of a range in one call")
+    void shouldBulkLoadMissingDays() {
+        cache.getDays(1L, DAY.plusDays(1), DAY.plusDays(1), this::load);
+        List<Set<LocalDate>> requested = new ArrayList<>();
+
+        Map<LocalDate, List<AvailableSlotDto>> days = cache.getDays(1L, DAY, DAY.plusDays(3), missing -> {
+            requested.add(Set.copyOf(missing));
+            return Map.of(DAY, List.of(slot(DAY)));
+        });
+
+        assertThat(requested).containsExactly(Set.of(DAY, DAY.plusDays(2), DAY.plusDays(3)));
+        assertThat(days.keySet()).containsExactly(DAY, DAY.plusDays(1), DAY.plusDays(2), DAY.plusDays(3));
+        assertThat(days.get(DAY)).hasSize(1);
+        assertThat(days.get(DAY.plusDays(3))).isEmpty();
+
+        cache.getDays(1L, DAY, DAY.plusDays(3), this::load);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should not keep days loaded while an invalidation ran")
+    void shouldDropDaysLoadedDuringInvalidation() {
+        cache.getDays(1L, DAY, DAY, missing -> {
+            cache.invalidate(1L, DAY.atTime(9, 0), DAY.atTime(9, 30));
+            return Map.of(DAY, List.of(slot(DAY)));
+        });
+
+        cache.getDays(1L, DAY, DAY, this::load);
+
+        assertThat(loads).hasValue(1);
+    }
+
+    private Map<LocalDate, List<AvailableSlotDto>> load(Set<LocalDate> missing) {
+        loads.incrementAndGet();
+        return Map.of();
+    }
+
+    private static AvailableSlotDto slot(LocalDate date) {
+        return new AvailableSlotDto(1L, 1L, date.atTime(9, 0), date.atTime(9, 30), false);
+    }
+}
@@ -0,0 +1,110 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.michallesiak.booking_system.booking_system.dto.AvailableSlotDto;
+import com.michallesiak.booking_system.booking_system.model.AvailabilityRule;
+import com.michallesiak.booking_system.booking_system.repository.projection.SlotTimeView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Availability Rule Expander Tests")
+class AvailabilityRuleExpanderTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+
+    private AvailabilityRule rule;
+
+    @BeforeEach
+    void setUp() {
+        rule = new AvailabilityRule();
+        rule.setDayOfWeek(DayOfWeek.MONDAY);
+        rule.setStartTime(LocalTime.of(9, 0));
+        rule.setEndTime(LocalTime.of(10, 0));
+        rule.setSlotDurationMinutes(15);
+        rule.setValidFrom(MONDAY);
+        rule.setActive(true);
+    }
+
+    @Test
+    @DisplayName("Should expand rule into virtual slots on matching days only")
+    void shouldExpandRule() {
+        List<AvailableSlotDto> slots = AvailabilityRuleExpander.expand(
+                1L, List.of(rule), MONDAY.atStartOfDay(), MONDAY.plusDays(7).atTime(LocalTime.MAX));
+
+        assertThat(slots).hasSize(8);
+        assertThat(slots).allMatch(slot -> slot.getId() == null && !slot.isBooked());
+        assertThat(slots.get(0).getStartTime()).isEqualTo(MONDAY.atTime(9, 0));
+        assertThat(slots.get(4).getStartTime()).isEqualTo(MONDAY.plusDays(7).atTime(9, 0));
+    }
+
+    @Test
+    @DisplayName("Should not expand outside validity range")
+    void shouldRespectValidity() {
+        rule.setValidTo(MONDAY.plusDays(6));
+
+        List<AvailableSlotDto> slots = AvailabilityRuleExpander.expand(
+                1L, List.of(rule), MONDAY.plusDays(7).atStartOfDay(), MONDAY.plusDays(7).atTime(LocalTime.MAX));
+
+        assertThat(slots).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should find slot end only for aligned start times")
+    void shouldFindSlotEnd() {
+        assertThat(AvailabilityRuleExpander.findSlotEnd(List.of(rule), MONDAY.atTime(9, 30)))
+                .contains(MONDAY.atTime(9, 45));
+        assertThat(AvailabilityRuleExpander.findSlotEnd(List.of(rule), MONDAY.atTime(9, 20))).isEmpty();
+        assertThat(AvailabilityRuleExpander.findSlotEnd(List.of(rule), MONDAY.atTime(10, 0))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should let physical slots override overlapping virtual slots")
+    void shouldMergePhysicalOverVirtual() {
+        List<AvailableSlotDto> virtualSlots = AvailabilityRuleExpander.expand(
+                1L, List.of(rule), MONDAY.atStartOfDay(), MONDAY.atTime(LocalTime.MAX));
+        List<SlotTimeView> physicalSlots = List.of(view(5L, MONDAY.atTime(9, 10), MONDAY.atTime(9, 40), true));
+
+        List<AvailableSlotDto> merged = AvailabilityRuleExpander.merge(
+                1L, physicalSlots, virtualSlots, MONDAY.atStartOfDay(), true);
+
+        assertThat(merged).extracting(AvailableSlotDto::getStartTime)
+                .containsExactly(MONDAY.atTime(9, 45));
+
+        List<AvailableSlotDto> all = AvailabilityRuleExpander.merge(
+                1L, physicalSlots, virtualSlots, MONDAY.atStartOfDay(), false);
+
+        assertThat(all).extracting(AvailableSlotDto::getId).containsExactly(5L, null);
+    }
+
+    private SlotTimeView view(Long id, LocalDateTime start, LocalDateTime end, boolean booked) {
+        return new SlotTimeView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getStartTime() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEndTime() {
+                return end;
+            }
+
+            @Override
+            public boolean isBooked() {
+                return booked;
+            }
+        };
+    }
+}
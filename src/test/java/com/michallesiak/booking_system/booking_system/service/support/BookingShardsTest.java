@@ -0,0 +1,138 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.michallesiak.booking_system.booking_system.dto.AvailableSlotDto;
+import com.michallesiak.booking_system.booking_system.exception.SlotNotAvailableException;
+import com.michallesiak.booking_system.booking_system.model.enums.SlotEventType;
+import com.michallesiak.booking_system.booking_system.repository.AvailableSlotRepository;
+import com.michallesiak.booking_system.booking_system.repository.projection.SlotTimeView;
+import com.michallesiak.booking_system.booking_system.repository.projection.SpecialistSlotView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Booking Shards Tests")
+class BookingShardsTest {
+
+    @Mock
+    private AvailableSlotRepository availableSlotRepository;
+
+    @Mock
+    private SlotEventHub slotEventHub;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BookingShards shards;
+
+    @AfterEach
+    void tearDown() {
+        if (shards != null) {
+            shards.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should run inline on the caller thread when disabled")
+    void shouldRunInlineWhenDisabled() {
+        shards = new BookingShards(availableSlotRepository, new SlotKeys(availableSlotRepository, 1000), slotEventHub, meterRegistry, false, 4, 16, 10, 1000);
+
+        assertThat(shards.book(10L, () -> Thread.currentThread().getName())).isEqualTo(Thread.currentThread().getName());
+        verifyNoInteractions(availableSlotRepository, slotEventHub);
+    }
+
+    @Test
+    @DisplayName("Should serialize bookings of one specialist on its shard thread")
+    void shouldRouteToShardThread() {
+        shards = enabledShards();
+        givenSlots(view(10L, false), view(11L, false));
+
+        String first = shards.book(10L, () -> Thread.currentThread().getName());
+        String second = shards.execute(1L, () -> Thread.currentThread().getName());
+
+        assertThat(first).startsWith("booking-shard-").isEqualTo(second);
+    }
+
+    @Test
+    @DisplayName("Should reject a booked slot in memory without running the booking")
+    void shouldRejectBookedSlotInMemory() {
+        shards = enabledShards();
+        givenSlots(view(10L, true));
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThatThrownBy(() -> shards.book(10L, runs::incrementAndGet))
+                .isInstanceOf(SlotNotAvailableException.class);
+        assertThat(runs).hasValue(0);
+        assertThat(meterRegistry.counter("booking.engine.rejections", "reason", "booked").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should follow committed slot changes")
+    void shouldApplySlotChanges() {
+        shards = enabledShards();
+        ArgumentCaptor<SlotEventHub.Listener> listener = ArgumentCaptor.forClass(SlotEventHub.Listener.class);
+        verify(slotEventHub).addListener(listener.capture());
+        givenSlots(view(10L, false));
+        AtomicInteger runs = new AtomicInteger();
+        shards.book(10L, runs::incrementAndGet);
+
+        listener.getValue().slotChanged(1L, SlotEventType.BOOKED, slot(10L, true));
+        assertThatThrownBy(() -> shards.book(10L, runs::incrementAndGet))
+                .isInstanceOf(SlotNotAvailableException.class);
+
+        listener.getValue().slotChanged(1L, SlotEventType.RELEASED, slot(10L, false));
+        shards.book(10L, runs::incrementAndGet);
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should rethrow failures of the booking unchanged")
+    void shouldRethrowFailures() {
+        shards = enabledShards();
+        givenSlots(view(10L, false));
+
+        assertThatThrownBy(() -> shards.book(10L, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+    }
+
+    private BookingShards enabledShards() {
+        return new BookingShards(availableSlotRepository, new SlotKeys(availableSlotRepository, 1000), slotEventHub, meterRegistry, true, 4, 16, 10, 1000);
+    }
+
+    private void givenSlots(SlotTimeView... slots) {
+        for (SlotTimeView slot : slots) {
+            SpecialistSlotView owner = mock(SpecialistSlotView.class);
+            lenient().when(owner.getSpecialistId()).thenReturn(1L);
+            lenient().when(availableSlotRepository.findSlotViewById(slot.getId())).thenReturn(Optional.of(owner));
+        }
+        when(availableSlotRepository.findBySpecialistIdAndEndTimeAfterOrderByStartTime(eq(1L), any()))
+                .thenReturn(List.of(slots));
+    }
+
+    private SlotTimeView view(Long id, boolean booked) {
+        SlotTimeView view = mock(SlotTimeView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.isBooked()).thenReturn(booked);
+        return view;
+    }
+
+    private AvailableSlotDto slot(Long id, boolean booked) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        return new AvailableSlotDto(id, 1L, start, start.plusMinutes(30), booked);
+    }
+}
@@ -0,0 +1,58 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.michallesiak.booking_system.booking_system.dto.AvailableSlotDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Day Calendar Tests")
+class DayCalendarTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 7);
+
+    @Test
+    @DisplayName("Should set and check bit ranges across word boundaries")
+    void shouldHandleBitRangesAcrossWords() {
+        DayBitmap bitmap = new DayBitmap();
+        bitmap.set(60, 130);
+        bitmap.set(200, 288);
+
+        assertThat(bitmap.allSet(60, 130)).isTrue();
+        assertThat(bitmap.allSet(59, 130)).isFalse();
+        assertThat(bitmap.allSet(60, 131)).isFalse();
+        assertThat(bitmap.allSet(200, 288)).isTrue();
+        assertThat(bitmap.allSet(100, 100)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should answer consecutive free checks across adjacent slots")
+    void shouldAnswerCalendarQueries() {
+        DayCalendar calendar = DayCalendar.of(DAY, List.of(
+                new AvailableSlotDto(1L, 1L, DAY.atTime(9, 0), DAY.atTime(9, 30), false),
+                new AvailableSlotDto(2L, 1L, DAY.atTime(9, 30), DAY.atTime(10, 0), false),
+                new AvailableSlotDto(3L, 1L, DAY.atTime(10, 0), DAY.atTime(10, 30), true),
+                new AvailableSlotDto(4L, 1L, DAY.atTime(10, 30), DAY.atTime(12, 0), false)
+        ));
+
+        assertThat(calendar.isFree(DAY.atTime(9, 0), 60)).isTrue();
+        assertThat(calendar.isFree(DAY.atTime(9, 30), 60)).isFalse();
+        assertThat(calendar.isFree(DAY.atTime(10, 30), 90)).isTrue();
+        assertThat(calendar.isFree(DAY.atTime(10, 30), 95)).isFalse();
+        assertThat(calendar.isFree(DAY.atTime(8, 55), 10)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not treat a run crossing midnight as free")
+    void shouldNotCrossMidnight() {
+        DayCalendar calendar = DayCalendar.of(DAY, List.of(
+                new AvailableSlotDto(1L, 1L, DAY.atTime(23, 0), DAY.plusDays(1).atTime(1, 0), false)
+        ));
+
+        assertThat(calendar.isFree(DAY.atTime(23, 0), 60)).isTrue();
+        assertThat(calendar.isFree(DAY.atTime(23, 30), 60)).isFalse();
+    }
+}
@@ -0,0 +1,95 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.michallesiak.booking_system.booking_system.dto.AppointmentDto;
+import com.michallesiak.booking_system.booking_system.exception.IdempotencyKeyConflictException;
+import com.michallesiak.booking_system.booking_system.model.IdempotencyKey;
+import com.michallesiak.booking_system.booking_system.model.enums.AppointmentStatus;
+import com.michallesiak.booking_system.booking_system.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Idempotency Store Tests")
+class IdempotencyStoreTest {
+
+    private static final Instant NOW = Instant.parse("2030-01-07T09:00:00Z");
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private IdempotencyStore store;
+    private AppointmentDto response;
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore(idempotencyKeyRepository, objectMapper, new SimpleMeterRegistry(),
+                100, 24, Clock.fixed(NOW, ZoneOffset.UTC));
+        response = new AppointmentDto(7L, 1L, 2L, 3L, AppointmentStatus.BOOKED, "notes");
+    }
+
+    @Test
+    @DisplayName("Should replay recorded response from memory without touching the table")
+    void shouldReplayFromMemory() {
+        store.record("key-1", "hash", response);
+
+        assertThat(store.find("key-1", "hash")).contains(response);
+        verify(idempotencyKeyRepository, never()).findByIdempotencyKeyAndExpiresAtAfter(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should load recorded response from the table after restart")
+    void shouldFallBackToTable() throws Exception {
+        IdempotencyKey row = new IdempotencyKey("key-1", "hash", objectMapper.writeValueAsString(response), NOW.plusSeconds(60));
+        when(idempotencyKeyRepository.findByIdempotencyKeyAndExpiresAtAfter(eq("key-1"), any())).thenReturn(Optional.of(row));
+
+        assertThat(store.find("key-1", "hash")).contains(response);
+        assertThat(store.find("key-1", "hash")).contains(response);
+        verify(idempotencyKeyRepository, times(1)).findByIdempotencyKeyAndExpiresAtAfter(eq("key-1"), any());
+    }
+
+    @Test
+    @DisplayName("Should reject key reused for a different request")
+    void shouldRejectDifferentRequest() {
+        store.record("key-1", "hash", response);
+
+        assertThatThrownBy(() -> store.find("key-1", "other-hash"))
+                .isInstanceOf(IdempotencyKeyConflictException.class);
+    }
+
+    @Test
+    @DisplayName("Should let only one request claim a key at a time")
+    void shouldClaimKeyOnce() {
+        assertThat(store.tryBegin("key-1")).isTrue();
+        assertThat(store.tryBegin("key-1")).isFalse();
+
+        store.end("key-1");
+
+        assertThat(store.tryBegin("key-1")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should fingerprint requests by every part")
+    void shouldFingerprintParts() {
+        assertThat(IdempotencyStore.fingerprint(1L, 2L, null))
+                .isEqualTo(IdempotencyStore.fingerprint(1L, 2L, null))
+                .isNotEqualTo(IdempotencyStore.fingerprint(12L, null, null));
+    }
+}
@@ -0,0 +1,160 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.michallesiak.booking_system.booking_system.exception.SlotConflictException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Optimistic Retry Executor Tests")
+class OptimisticRetryExecutorTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OptimisticRetryExecutor executor(int maxAttempts, long baseBackoffMillis, long maxBackoffMillis) {
+        return new OptimisticRetryExecutor(transactionManager, meterRegistry, maxAttempts, baseBackoffMillis, maxBackoffMillis);
+    }
+
+    private void stubTransactions() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    private double count(String name) {
+        var counter = meterRegistry.find(name).tag("operation", "test").counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    @Test
+    @DisplayName("Should retry in a fresh transaction until the action succeeds")
+    void shouldRetryUntilSuccess() {
+        stubTransactions();
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = executor(4, 0, 0).execute("test", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("stale version");
+            }
+            return "booked";
+        });
+
+        assertThat(result).isEqualTo("booked");
+        assertThat(calls).hasValue(3);
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager).commit(any());
+        assertThat(count("booking.slot.optimistic.conflicts")).isEqualTo(2);
+        assertThat(count("booking.slot.optimistic.retries")).isEqualTo(2);
+        assertThat(count("booking.slot.optimistic.giveups")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should give up after the last attempt with a slot conflict")
+    void shouldGiveUpAfterMaxAttempts() {
+        stubTransactions();
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor(3, 0, 0).run("test", () -> {
+            calls.incrementAndGet();
+            throw new OptimisticLockingFailureException("stale version");
+        }))
+                .isInstanceOf(SlotConflictException.class)
+                .hasCauseInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(calls).hasValue(3);
+        assertThat(count("booking.slot.optimistic.conflicts")).isEqualTo(3);
+        assertThat(count("booking.slot.optimistic.retries")).isEqualTo(2);
+        assertThat(count("booking.slot.optimistic.giveups")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not retry other failures")
+    void shouldNotRetryOtherFailures() {
+        stubTransactions();
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor(4, 0, 0).run("test", () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("Slot is already booked");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(calls).hasValue(1);
+        assertThat(count("booking.slot.optimistic.conflicts")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should cap the backoff at the configured maximum")
+    void shouldCapBackoff() {
+        stubTransactions();
+        AtomicInteger calls = new AtomicInteger();
+        long started = System.nanoTime();
+
+        // bez ograniczenia trzy pauzy mogłyby trwać do 2 + 4 + 8 sekund
+        executor(4, 1000, 20).execute("test", () -> {
+            if (calls.incrementAndGet() < 4) {
+                throw new OptimisticLockingFailureException("stale version");
+            }
+            return null;
+        });
+
+        assertThat(calls).hasValue(4);
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("Should stop backing off when interrupted and keep the interrupt flag")
+    void shouldStopWhenInterrupted() {
+        stubTransactions();
+        Thread.currentThread().interrupt();
+        try {
+            assertThatThrownBy(() -> executor(4, 10, 10).run("test", () -> {
+                throw new OptimisticLockingFailureException("stale version");
+            }))
+                    .isInstanceOf(SlotConflictException.class)
+                    .hasMessageContaining("Interrupted")
+                    .hasCauseInstanceOf(InterruptedException.class);
+            assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    @DisplayName("Should run once inside the caller's transaction and let the conflict propagate")
+    void shouldRunOnceInsideExistingTransaction() {
+        AtomicInteger calls = new AtomicInteger();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThatThrownBy(() -> executor(4, 0, 0).run("test", () -> {
+                calls.incrementAndGet();
+                throw new OptimisticLockingFailureException("stale version");
+            })).isInstanceOf(OptimisticLockingFailureException.class);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        assertThat(calls).hasValue(1);
+        verifyNoInteractions(transactionManager);
+        assertThat(count("booking.slot.optimistic.conflicts")).isZero();
+    }
+}
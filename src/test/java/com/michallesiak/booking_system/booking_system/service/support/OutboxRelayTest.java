@@ -0,0 +1,163 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.michallesiak.booking_system.booking_system.dto.OutboxEventDto;
+import com.michallesiak.booking_system.booking_system.model.OutboxEvent;
+import com.michallesiak.booking_system.booking_system.model.enums.OutboxEventType;
+import com.michallesiak.booking_system.booking_system.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Outbox Relay Tests")
+class OutboxRelayTest {
+
+    private static final Instant NOW = Instant.parse("2030-01-07T09:00:00Z");
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Long> received = new ArrayList<>();
+
+    private OutboxRelay relay(OutboxEventConsumer consumer, int maxAttempts) {
+        return relay(consumer, maxAttempts, 100, 1);
+    }
+
+    private OutboxRelay relay(OutboxEventConsumer consumer, int maxAttempts, int batchSize, int maxBatchesPerRun) {
+        return new OutboxRelay(outboxEventRepository, List.of(consumer), transactionTemplate, null, new SimpleMeterRegistry(),
+                true, false, batchSize, maxBatchesPerRun, 0, maxAttempts, 1000, 60_000, 1000, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private OutboxEventConsumer failingOn(long failingId) {
+        return new OutboxEventConsumer() {
+            @Override
+            public String name() {
+                return "test";
+            }
+
+            @Override
+            public void accept(OutboxEventDto event) {
+                if (event.getId() == failingId) {
+                    throw new IllegalStateException("downstream unavailable");
+                }
+                received.add(event.getId());
+            }
+        };
+    }
+
+    private static OutboxEvent event(long id, long specialistId) {
+        OutboxEvent event = new OutboxEvent(OutboxEventType.APPOINTMENT_CREATED, id, specialistId, "{}");
+        event.setId(id);
+        event.setCreatedAt(NOW.minusSeconds(5));
+        return event;
+    }
+
+    @Test
+    @DisplayName("Should hold back later events of a specialist after a failure but keep delivering others")
+    @SuppressWarnings("unchecked")
+    void shouldKeepPerSpecialistOrder() {
+        OutboxEvent failing = event(1, 10);
+        when(outboxEventRepository.findPending(any(), any(), any()))
+                .thenReturn(List.of(failing, event(2, 20), event(3, 10), event(4, 20)));
+
+        OutboxRelay.BatchResult result = relay(failingOn(1), 5).relayBatch();
+
+        assertThat(result.read()).isEqualTo(4);
+        assertThat(result.settled()).isEqualTo(2);
+        assertThat(received).containsExactly(2L, 4L);
+        assertThat(failing.getAttempts()).isEqualTo(1);
+        assertThat(failing.isParked()).isFalse();
+        ArgumentCaptor<List<OutboxEvent>> deleted = ArgumentCaptor.forClass(List.class);
+        verify(outboxEventRepository).deleteAllInBatch(deleted.capture());
+        assertThat(deleted.getValue()).extracting(OutboxEvent::getId).containsExactly(2L, 4L);
+    }
+
+    @Test
+    @DisplayName("Should park an event after the last attempt and deliver the rest of its specialist")
+    void shouldParkPoisonEvent() {
+        OutboxEvent failing = event(1, 10);
+        failing.setAttempts(2);
+        when(outboxEventRepository.findPending(any(), any(), any())).thenReturn(List.of(failing, event(2, 10)));
+
+        relay(failingOn(1), 3).relayBatch();
+
+        assertThat(failing.isParked()).isTrue();
+        assertThat(failing.getLastError()).contains("downstream unavailable");
+        assertThat(received).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Should back off exponentially after each failed attempt")
+    void shouldBackOffExponentially() {
+        OutboxEvent failing = event(1, 10);
+        failing.setAttempts(2);
+        when(outboxEventRepository.findPending(any(), any(), any())).thenReturn(List.of(failing));
+
+        relay(failingOn(1), 10).relayBatch();
+
+        assertThat(failing.getAttempts()).isEqualTo(3);
+        assertThat(failing.getNextAttemptAt()).isEqualTo(NOW.plusSeconds(4));
+    }
+
+    @Test
+    @DisplayName("Should cap the backoff at the configured maximum")
+    void shouldCapBackoff() {
+        OutboxEvent failing = event(1, 10);
+        failing.setAttempts(40);
+        when(outboxEventRepository.findPending(any(), any(), any())).thenReturn(List.of(failing));
+
+        relay(failingOn(1), 100).relayBatch();
+
+        assertThat(failing.getNextAttemptAt()).isEqualTo(NOW.plusSeconds(60));
+    }
+
+    @Test
+    @DisplayName("Should end the run when a full batch makes no progress")
+    @SuppressWarnings("unchecked")
+    void shouldStopRunWithoutProgress() {
+        OutboxRelay relay = relay(failingOn(1), 10, 1, 20);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.getArgument(0, TransactionCallback.class).doInTransaction(null));
+        when(outboxEventRepository.findPending(any(), any(), any())).thenReturn(List.of(event(1, 10)));
+
+        relay.drain();
+
+        verify(outboxEventRepository, times(1)).findPending(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should keep reading full batches while they make progress")
+    @SuppressWarnings("unchecked")
+    void shouldContinueRunWithProgress() {
+        OutboxRelay relay = relay(failingOn(-1), 10, 1, 3);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.getArgument(0, TransactionCallback.class).doInTransaction(null));
+        when(outboxEventRepository.findPending(any(), any(), any()))
+                .thenReturn(List.of(event(1, 10)), List.of(event(2, 10)), List.of(event(3, 10)));
+
+        relay.drain();
+
+        assertThat(received).containsExactly(1L, 2L, 3L);
+    }
+}
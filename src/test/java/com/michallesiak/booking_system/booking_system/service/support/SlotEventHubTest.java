@@ -0,0 +1,252 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.michallesiak.booking_system.booking_system.exception.StreamCapacityExceededException;
+import com.michallesiak.booking_system.booking_system.model.enums.SlotEventType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Slot Event Hub Tests")
+class SlotEventHubTest {
+
+    private static final Instant START = Instant.parse("2030-01-07T09:00:00Z");
+
+    private final List<Runnable> pending = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private volatile Instant now = START;
+    private boolean runInline = true;
+    private SlotEventHub hub;
+
+    /**
+     * Runs dispatch inline, or parks it to simulate a client that stopped reading.
+     */
+    private final ExecutorService dispatcher = new AbstractExecutorService() {
+        @Override
+        public void execute(Runnable command) {
+            if (runInline) {
+                command.run();
+            } else {
+                pending.add(command);
+            }
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    };
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> frames = new ArrayList<>();
+        private boolean completed;
+
+        @Override
+        public synchronized void send(Set<DataWithMediaType> items) {
+            StringBuilder frame = new StringBuilder();
+            items.forEach(item -> frame.append(item.getData()));
+            frames.add(frame.toString());
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+
+        List<String> events() {
+            return frames.stream().filter(frame -> frame.contains("event:")).toList();
+        }
+    }
+
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    };
+
+    /**
+     * Blocks in send until the connection is aborted, like a client that stopped reading.
+     */
+    private static class StalledEmitter extends SseEmitter {
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch aborted = new CountDownLatch(1);
+        private volatile Throwable error;
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            sending.countDown();
+            try {
+                aborted.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("Broken pipe");
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            if (error == null) {
+                error = ex;
+            }
+            aborted.countDown();
+        }
+    }
+
+    private SlotEventHub hub(int bufferSize, int replaySize, int maxConnections) {
+        hub = new SlotEventHub(meterRegistry, bufferSize, replaySize, maxConnections,
+                60_000, 3_000, 10, 5_000, dispatcher, clock);
+        return hub;
+    }
+
+    @AfterEach
+    void tearDown() {
+        pending.clear();
+    }
+
+    @Test
+    @DisplayName("Should push events only to subscribers of the specialist")
+    void shouldPushToSpecialistSubscribers() {
+        hub(8, 16, 10);
+        RecordingEmitter watcher = new RecordingEmitter();
+        RecordingEmitter other = new RecordingEmitter();
+        hub.subscribe(1L, null, watcher);
+        hub.subscribe(2L, null, other);
+
+        hub.publish(1L, SlotEventType.BOOKED, "slot-7");
+
+        assertThat(watcher.events()).singleElement().asString().contains("event:slot-booked");
+        assertThat(other.events()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should replay events after the last seen id on reconnect")
+    void shouldResumeFromLastEventId() {
+        hub(8, 16, 10);
+        RecordingEmitter first = new RecordingEmitter();
+        hub.subscribe(1L, null, first);
+        hub.publish(1L, SlotEventType.CREATED, "a");
+        hub.publish(1L, SlotEventType.CREATED, "b");
+        hub.publish(1L, SlotEventType.DELETED, "c");
+        String firstId = first.events().get(0).lines()
+                .filter(line -> line.startsWith("id:")).findFirst().orElseThrow().substring(3);
+
+        RecordingEmitter resumed = new RecordingEmitter();
+        hub.subscribe(1L, Long.parseLong(firstId), resumed);
+
+        assertThat(resumed.events()).hasSize(2);
+        assertThat(resumed.events().get(1)).contains("event:slot-deleted");
+    }
+
+    @Test
+    @DisplayName("Should ask the client to reload when the last seen id fell out of the replay window")
+    void shouldResetWhenHistoryIsGone() {
+        hub(8, 1, 10);
+        hub.subscribe(1L, null, new RecordingEmitter());
+        hub.publish(1L, SlotEventType.CREATED, "a");
+        hub.publish(1L, SlotEventType.CREATED, "b");
+
+        RecordingEmitter resumed = new RecordingEmitter();
+        hub.subscribe(1L, 1L, resumed);
+
+        assertThat(resumed.events()).singleElement().asString().contains("event:" + SlotEventHub.RESET_EVENT);
+    }
+
+    @Test
+    @DisplayName("Should disconnect a subscriber whose buffer overflows")
+    void shouldEvictSlowSubscriber() {
+        hub(2, 16, 10);
+        runInline = false;
+        RecordingEmitter slow = new RecordingEmitter();
+        hub.subscribe(1L, null, slow);
+
+        hub.publish(1L, SlotEventType.CREATED, "a");
+        hub.publish(1L, SlotEventType.CREATED, "b");
+
+        assertThat(slow.completed).isTrue();
+        hub.subscribe(1L, null, new RecordingEmitter());
+    }
+
+    @Test
+    @DisplayName("Should evict a subscriber stuck in a write past the write timeout")
+    void shouldEvictStalledWriter() throws Exception {
+        hub(8, 16, 1);
+        runInline = false;
+        StalledEmitter stalled = new StalledEmitter();
+        hub.subscribe(1L, null, stalled);
+        Thread writer = new Thread(pending.remove(0));
+        writer.start();
+        assertThat(stalled.sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        now = START.plusSeconds(4);
+        hub.evictStalledWriters();
+        assertThat(stalled.error).isNull();
+
+        now = START.plusSeconds(6);
+        hub.evictStalledWriters();
+        writer.join(5_000);
+
+        assertThat(writer.isAlive()).isFalse();
+        assertThat(stalled.error).hasMessageContaining("timed out");
+        assertThat(meterRegistry.counter("booking.slots.stream.write-timeouts").count()).isEqualTo(1);
+        // połączenie zostało zwolnione
+        hub.subscribe(2L, null, new RecordingEmitter());
+    }
+
+    @Test
+    @DisplayName("Should refuse connections above the limit")
+    void shouldLimitConnections() {
+        hub(8, 16, 1);
+        hub.subscribe(1L, null, new RecordingEmitter());
+
+        assertThatThrownBy(() -> hub.subscribe(2L, null, new RecordingEmitter()))
+                .isInstanceOf(StreamCapacityExceededException.class);
+    }
+}
@@ -0,0 +1,106 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Slot Hold Table Tests")
+class SlotHoldTableTest {
+
+    private MutableClock clock;
+    private SlotHoldTable table;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2030-01-07T09:00:00Z"));
+        table = new SlotHoldTable(8, 1000, clock);
+    }
+
+    @Test
+    @DisplayName("Should reject second hold on the same slot until the first expires")
+    void shouldRejectConcurrentHold() {
+        SlotHoldTable.Hold first = hold(1L, Duration.ofMinutes(5));
+        SlotHoldTable.Hold second = hold(1L, Duration.ofMinutes(5));
+
+        assertThat(table.tryHold(first)).isTrue();
+        assertThat(table.tryHold(second)).isFalse();
+
+        clock.advance(Duration.ofMinutes(5));
+        SlotHoldTable.Hold third = hold(1L, Duration.ofMinutes(5));
+        assertThat(table.isHeld(1L)).isFalse();
+        assertThat(table.tryHold(third)).isTrue();
+        assertThat(table.findByToken(first.token())).isEmpty();
+        assertThat(table.findByToken(third.token())).contains(third);
+    }
+
+    @Test
+    @DisplayName("Should reclaim expired holds when the wheel advances past several rotations")
+    void shouldExpireThroughWheel() {
+        table.tryHold(hold(1L, Duration.ofSeconds(3)));
+        table.tryHold(hold(2L, Duration.ofSeconds(20)));
+
+        clock.advance(Duration.ofSeconds(4));
+        table.expireDue();
+        assertThat(table.size()).isEqualTo(1);
+        assertThat(table.isHeld(2L)).isTrue();
+
+        clock.advance(Duration.ofSeconds(30));
+        table.expireDue();
+        assertThat(table.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should ignore wheel expiry for a hold that was already released")
+    void shouldReleaseHold() {
+        SlotHoldTable.Hold first = hold(1L, Duration.ofSeconds(3));
+        table.tryHold(first);
+        table.release(first);
+        SlotHoldTable.Hold second = hold(1L, Duration.ofSeconds(10));
+        table.tryHold(second);
+
+        clock.advance(Duration.ofSeconds(4));
+        table.expireDue();
+
+        assertThat(table.findBySlot(1L)).contains(second);
+    }
+
+    private SlotHoldTable.Hold hold(Long slotId, Duration ttl) {
+        return new SlotHoldTable.Hold(UUID.randomUUID(), slotId, null, clock.instant().plus(ttl));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
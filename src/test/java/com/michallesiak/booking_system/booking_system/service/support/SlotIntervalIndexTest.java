@@ -0,0 +1,108 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.michallesiak.booking_system.booking_system.repository.AvailableSlotRepository;
+import com.michallesiak.booking_system.booking_system.repository.projection.SlotTimeView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Slot Interval Index Tests")
+class SlotIntervalIndexTest {
+
+    @Mock
+    private AvailableSlotRepository availableSlotRepository;
+
+    private SlotIntervalIndex index;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        index = new SlotIntervalIndex(availableSlotRepository, 2);
+        base = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    @Test
+    @DisplayName("Should report cold specialist as unknown")
+    void shouldReturnEmptyWhenCold() {
+        assertThat(index.overlaps(1L, base, base.plusMinutes(30), null)).isEmpty();
+        verifyNoInteractions(availableSlotRepository);
+    }
+
+    @Test
+    @DisplayName("Should detect partial and full overlaps after warm-up")
+    void shouldDetectOverlapsAfterWarmUp() {
+        when(availableSlotRepository.findBySpecialistIdAndEndTimeAfterOrderByStartTime(eq(1L), any()))
+                .thenReturn(List.of(view(10L, base, base.plusMinutes(30)), view(11L, base.plusHours(2), base.plusHours(3))));
+        index.warm(1L);
+
+        assertThat(index.overlaps(1L, base.plusMinutes(15), base.plusMinutes(45), null)).contains(true);
+        assertThat(index.overlaps(1L, base.plusHours(1), base.plusHours(4), null)).contains(true);
+        assertThat(index.overlaps(1L, base.plusMinutes(30), base.plusHours(2), null)).contains(false);
+        assertThat(index.overlaps(1L, base, base.plusMinutes(30), 10L)).contains(false);
+    }
+
+    @Test
+    @DisplayName("Should apply added and removed slots")
+    void shouldApplyMutations() {
+        when(availableSlotRepository.findBySpecialistIdAndEndTimeAfterOrderByStartTime(eq(1L), any()))
+                .thenReturn(List.of());
+        index.warm(1L);
+
+        index.slotAdded(1L, 20L, base, base.plusMinutes(15));
+        index.slotAdded(1L, 20L, base, base.plusMinutes(15));
+        assertThat(index.overlaps(1L, base.plusMinutes(5), base.plusMinutes(10), null)).contains(true);
+
+        index.slotRemoved(1L, 20L, base);
+        assertThat(index.overlaps(1L, base.plusMinutes(5), base.plusMinutes(10), null)).contains(false);
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used specialist when full")
+    void shouldEvictLeastRecentlyUsed() {
+        when(availableSlotRepository.findBySpecialistIdAndEndTimeAfterOrderByStartTime(any(), any()))
+                .thenReturn(List.of());
+        index.warm(1L);
+        index.warm(2L);
+        index.warm(3L);
+
+        assertThat(index.isWarm(1L)).isFalse();
+        assertThat(index.isWarm(2L)).isTrue();
+        assertThat(index.isWarm(3L)).isTrue();
+    }
+
+    private SlotTimeView view(Long id, LocalDateTime start, LocalDateTime end) {
+        return new SlotTimeView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getStartTime() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEndTime() {
+                return end;
+            }
+
+            @Override
+            public boolean isBooked() {
+                return false;
+            }
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.michallesiak.booking_system.booking_system.dto.AvailableSlotDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Slot Merger Tests")
+class SlotMergerTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+    @Test
+    @DisplayName("Should merge sorted lists into global earliest k")
+    void shouldMergeEarliest() {
+        List<AvailableSlotDto> first = List.of(slot(1L, 1L, 0), slot(2L, 1L, 60), slot(3L, 1L, 120));
+        List<AvailableSlotDto> second = List.of(slot(null, 2L, 30), slot(null, 2L, 90));
+        List<AvailableSlotDto> third = List.of();
+
+        List<AvailableSlotDto> result = SlotMerger.earliest(List.of(first, second, third), 4);
+
+        assertThat(result).extracting(AvailableSlotDto::getStartTime).containsExactly(
+                BASE, BASE.plusMinutes(30), BASE.plusMinutes(60), BASE.plusMinutes(90));
+    }
+
+    @Test
+    @DisplayName("Should break start time ties by specialist and return everything when k is large")
+    void shouldBreakTies() {
+        List<AvailableSlotDto> first = List.of(slot(5L, 2L, 0));
+        List<AvailableSlotDto> second = List.of(slot(null, 1L, 0));
+
+        List<AvailableSlotDto> result = SlotMerger.earliest(List.of(first, second), 10);
+
+        assertThat(result).extracting(AvailableSlotDto::getSpecialistId).containsExactly(1L, 2L);
+    }
+
+    private AvailableSlotDto slot(Long id, Long specialistId, int minutes) {
+        return new AvailableSlotDto(id, specialistId, BASE.plusMinutes(minutes), BASE.plusMinutes(minutes + 30), false);
+    }
+}
@@ -0,0 +1,40 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.michallesiak.booking_system.booking_system.model.enums.AppointmentStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Sweep Policy Tests")
+class SweepPolicyTest {
+
+    @Test
+    @DisplayName("Should map each left-over status to its configured target")
+    void shouldMapTargets() {
+        SweepPolicy policy = SweepPolicy.of("no_show", "COMPLETED", " COMPLETED ");
+
+        assertThat(policy.targets())
+                .containsEntry(AppointmentStatus.BOOKED, AppointmentStatus.NO_SHOW)
+                .containsEntry(AppointmentStatus.CONFIRMED, AppointmentStatus.COMPLETED)
+                .containsEntry(AppointmentStatus.IN_PROGRESS, AppointmentStatus.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("Should skip statuses with a blank target")
+    void shouldSkipBlankTargets() {
+        SweepPolicy policy = SweepPolicy.of("", null, "COMPLETED");
+
+        assertThat(policy.targets()).containsOnlyKeys(AppointmentStatus.IN_PROGRESS);
+    }
+
+    @Test
+    @DisplayName("Should reject targets that are not valid transitions")
+    void shouldRejectInvalidTransition() {
+        assertThatThrownBy(() -> SweepPolicy.of("CANCELLED", "", ""))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SweepPolicy.of("", "", "NO_SHOW"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,151 @@
+package com.michallesiak.booking_system.booking_system.service.support;
+
+import com.michallesiak.booking_system.booking_system.model.enums.WaitlistStatus;
+import com.michallesiak.booking_system.booking_system.repository.WaitlistEntryRepository;
+import com.michallesiak.booking_system.booking_system.repository.projection.WaiterView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Waitlist Index Tests")
+class WaitlistIndexTest {
+
+    @Mock
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    private WaitlistIndex index;
+    private LocalDate day;
+
+    @BeforeEach
+    void setUp() {
+        index = new WaitlistIndex(waitlistEntryRepository, 2);
+        day = LocalDate.now().plusDays(3);
+    }
+
+    @Test
+    @DisplayName("Should have no candidates for cold specialist")
+    void shouldReturnNothingWhenCold() {
+        assertThat(index.candidates(1L, day, 30, 10)).isEmpty();
+        verifyNoInteractions(waitlistEntryRepository);
+    }
+
+    @Test
+    @DisplayName("Should rank covering waiters by priority, then by age")
+    void shouldRankCoveringWaiters() {
+        when(waitlistEntryRepository.findWaiters(eq(1L), eq(WaitlistStatus.ACTIVE), any())).thenReturn(List.of(
+                view(10L, null, day.minusDays(2), day, 5),
+                view(11L, null, day, day.plusDays(1), 50),
+                view(12L, null, day.minusDays(1), day.plusDays(2), 5),
+                view(13L, null, day.plusDays(1), day.plusDays(4), 99)));
+        index.warm(1L);
+
+        assertThat(index.candidates(1L, day, 30, 10))
+                .extracting(WaitlistIndex.Waiter::entryId)
+                .containsExactly(11L, 10L, 12L);
+        assertThat(index.candidates(1L, day, 30, 2))
+                .extracting(WaitlistIndex.Waiter::entryId)
+                .containsExactly(11L, 10L);
+    }
+
+    @Test
+    @DisplayName("Should skip waiters whose service does not fit into the slot")
+    void shouldSkipLongerServices() {
+        when(waitlistEntryRepository.findWaiters(eq(1L), eq(WaitlistStatus.ACTIVE), any())).thenReturn(List.of(
+                view(10L, 60, day, day, 90),
+                view(11L, 30, day, day, 10)));
+        index.warm(1L);
+
+        assertThat(index.candidates(1L, day, 45, 10))
+                .extracting(WaitlistIndex.Waiter::entryId)
+                .containsExactly(11L);
+    }
+
+    @Test
+    @DisplayName("Should apply added and removed waiters")
+    void shouldApplyMutations() {
+        when(waitlistEntryRepository.findWaiters(eq(1L), eq(WaitlistStatus.ACTIVE), any())).thenReturn(List.of());
+        index.warm(1L);
+
+        index.added(1L, new WaitlistIndex.Waiter(20L, 2L, null, day, day.plusDays(1), 0));
+        index.added(1L, new WaitlistIndex.Waiter(20L, 2L, null, day, day.plusDays(1), 0));
+        assertThat(index.candidates(1L, day.plusDays(1), 30, 10)).hasSize(1);
+
+        index.removed(1L, 20L);
+        assertThat(index.candidates(1L, day, 30, 10)).isEmpty();
+        assertThat(index.candidates(1L, day.plusDays(1), 30, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should drop windows that ended")
+    void shouldPruneEndedWindows() {
+        when(waitlistEntryRepository.findWaiters(eq(1L), eq(WaitlistStatus.ACTIVE), any())).thenReturn(List.of(
+                view(10L, null, day, day, 0),
+                view(11L, null, day, day.plusDays(1), 0)));
+        index.warm(1L);
+
+        index.pruneBefore(day.plusDays(1));
+
+        assertThat(index.candidates(1L, day, 30, 10)).isEmpty();
+        assertThat(index.candidates(1L, day.plusDays(1), 30, 10))
+                .extracting(WaitlistIndex.Waiter::entryId)
+                .containsExactly(11L);
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used specialist when full")
+    void shouldEvictLeastRecentlyUsed() {
+        when(waitlistEntryRepository.findWaiters(any(), any(), any())).thenReturn(List.of());
+        index.warm(1L);
+        index.warm(2L);
+        index.warm(3L);
+
+        assertThat(index.isWarm(1L)).isFalse();
+        assertThat(index.isWarm(3L)).isTrue();
+    }
+
+    private WaiterView view(Long id, Integer durationMinutes, LocalDate from, LocalDate to, int priority) {
+        return new WaiterView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getUserId() {
+                return id + 100;
+            }
+
+            @Override
+            public Integer getDurationMinutes() {
+                return durationMinutes;
+            }
+
+            @Override
+            public LocalDate getDateFrom() {
+                return from;
+            }
+
+            @Override
+            public LocalDate getDateTo() {
+                return to;
+            }
+
+            @Override
+            public int getPriority() {
+                return priority;
+            }
+        };
+    }
+}